@@ -0,0 +1,46 @@
+package com.example.courseService.config;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Course prices used to be persisted as strings, which Mongo sorts lexicographically ("100"
+ * before "20"). Converts any that are left to Decimal128 in place, so the cheapest-first
+ * listings and their price index order numerically. Only string prices match, so running it
+ * again on every start is a cheap no-op.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoursePriceMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        // Unparsable values are left as they were instead of failing the whole update
+        Document toDecimal = new Document("$convert", new Document("input", "$price")
+                .append("to", "decimal")
+                .append("onError", "$price"));
+        try {
+            UpdateResult result = mongoTemplate.getCollection("courses").updateMany(
+                    new Document("price", new Document("$type", "string")),
+                    List.of(new Document("$set", new Document("price", toDecimal))));
+            if (result.getModifiedCount() > 0) {
+                log.info("Converted {} course prices from strings to Decimal128", result.getModifiedCount());
+            }
+        } catch (Exception e) {
+            log.error("Course price migration failed, will retry on next start: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.courseService.config;
+
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated consumer pool for quiz grading so a burst of submissions is drained by several
+ * consumers in parallel instead of the single default listener.
+ */
+@Configuration
+public class QuizGradingConfig {
+
+    @Value("${quiz.grading.concurrency:4}")
+    private int concurrency;
+
+    @Value("${quiz.grading.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${quiz.grading.prefetch:10}")
+    private int prefetch;
+
+    @Value("${quiz.grading.max-attempts:3}")
+    private int maxAttempts;
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory quizSubmissionContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter jsonMessageConverter,
+            RabbitTemplate rabbitTemplate) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(prefetch);
+        // A submission that keeps failing is parked on the dead letter queue instead of
+        // being redelivered forever
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(1000, 2.0, 10000)
+                .recoverer(new RepublishMessageRecoverer(rabbitTemplate,
+                        RabbitMQConfig.QUIZ_COMPLETION_DLX, RabbitMQConfig.QUIZ_SUBMISSION_DLQ))
+                .build());
+        return factory;
+    }
+
+    /**
+     * Template for the grading events, which wait for broker confirms. It publishes over the
+     * publisher connection so confirms are only enabled for these channels and not for the
+     * rest of the service.
+     */
+    @Bean
+    public RabbitTemplate quizGradingRabbitTemplate(CachingConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter jsonMessageConverter) {
+        ((CachingConnectionFactory) connectionFactory.getPublisherConnectionFactory())
+                .setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setUsePublisherConnection(true);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        return rabbitTemplate;
+    }
+
+    // Runs the independent progress queries of a submission alongside grading
+    @Bean
+    public ThreadPoolTaskExecutor quizGradingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency * 2);
+        executor.setQueueCapacity(maxConcurrency * 4);
+        executor.setThreadNamePrefix("quiz-grading-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
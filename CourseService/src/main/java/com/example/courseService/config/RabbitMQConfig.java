@@ -10,6 +10,7 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.beans.factory.annotation.Qualifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -31,9 +32,11 @@ public class RabbitMQConfig {
     public static final String USER_DATA_REQUEST_QUEUE = "user_data_request_queue_course";
     public static final String STUDY_STATISTICS_REQUEST_QUEUE = "study_statistics_request_queue";
     public static final String STUDY_STATISTICS_RESPONSE_QUEUE = "study_statistics_response_queue";
+    public static final String INSTRUCTOR_EVENTS_QUEUE = "course_instructor_events_queue";
 
     public static final String QUIZ_COMPLETION_DLX = "quiz_completion_dlx";
     public static final String QUIZ_COMPLETION_DLQ = "quiz_completion_dlq";
+    public static final String QUIZ_SUBMISSION_DLQ = "quiz_submission_dlq";
 
     public static final String EXCHANGE_NAME = "courseTopicExchange";
     public static final String QUIZ_EVENTS_EXCHANGE = "quiz_events";
@@ -107,6 +110,17 @@ public class RabbitMQConfig {
         return new Queue(STUDY_STATISTICS_RESPONSE_QUEUE, true);
     }
 
+    @Bean
+    public Queue instructorEventsQueue() {
+        return new Queue(INSTRUCTOR_EVENTS_QUEUE, true);
+    }
+
+    // Exclusive, auto-delete queue of this node only, so every replica sees every instructor event
+    @Bean
+    public Queue instructorCacheQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("course_instructor_cache_"));
+    }
+
     @Bean
     public DirectExchange deadLetterExchange() {
         return new DirectExchange(QUIZ_COMPLETION_DLX);
@@ -125,6 +139,19 @@ public class RabbitMQConfig {
                 .with(QUIZ_COMPLETION_DLQ);
     }
 
+    @Bean
+    public Queue quizSubmissionDeadLetterQueue() {
+        return new Queue(QUIZ_SUBMISSION_DLQ);
+    }
+
+    @Bean
+    public Binding quizSubmissionDeadLetterBinding() {
+        return BindingBuilder
+                .bind(quizSubmissionDeadLetterQueue())
+                .to(deadLetterExchange())
+                .with(QUIZ_SUBMISSION_DLQ);
+    }
+
     @Bean
     public TopicExchange topicExchange() {
         return new TopicExchange(EXCHANGE_NAME);
@@ -232,6 +259,38 @@ public class RabbitMQConfig {
                 .with("study.statistics.response.*");
     }
 
+    @Bean
+    public Binding instructorUpsertedBinding(Queue instructorEventsQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder
+                .bind(instructorEventsQueue)
+                .to(userEventsExchange)
+                .with("instructor.upserted");
+    }
+
+    @Bean
+    public Binding instructorDeletedBinding(Queue instructorEventsQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder
+                .bind(instructorEventsQueue)
+                .to(userEventsExchange)
+                .with("instructor.deleted");
+    }
+
+    @Bean
+    public Binding instructorCacheUpsertedBinding(Queue instructorCacheQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder
+                .bind(instructorCacheQueue)
+                .to(userEventsExchange)
+                .with("instructor.upserted");
+    }
+
+    @Bean
+    public Binding instructorCacheDeletedBinding(Queue instructorCacheQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder
+                .bind(instructorCacheQueue)
+                .to(userEventsExchange)
+                .with("instructor.deleted");
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -258,6 +317,7 @@ public class RabbitMQConfig {
     }
 
     @Bean
+    @Primary
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
             Jackson2JsonMessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
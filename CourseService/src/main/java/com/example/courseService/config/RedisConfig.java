@@ -4,6 +4,7 @@ import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
@@ -12,11 +13,13 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import com.example.courseService.dto.QuizResultDTO;
+import com.example.courseService.model.QuizSession;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -56,42 +59,69 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
+    @Primary
+    public VersionedSmileRedisSerializer redisValueSerializer(@Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
+        return newValueSerializer(redisObjectMapper);
+    }
+
+    /**
+     * The type ids are stored with every value: append new ones, never change existing ones.
+     * The JSON serializer used before stays as the reader for values written by it.
+     */
+    private static VersionedSmileRedisSerializer newValueSerializer(ObjectMapper redisObjectMapper) {
+        return new VersionedSmileRedisSerializer(new GenericJackson2JsonRedisSerializer(redisObjectMapper))
+            .register(1, QuizResultDTO.class)
+            .register(2, QuizSession.class);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, VersionedSmileRedisSerializer redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
+        template.setValueSerializer(redisValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
+        template.setHashValueSerializer(redisValueSerializer);
 
         return template;
     }
 
+    // Old results were sometimes stored without a class name; read those as results too
+    @Bean
+    @Qualifier("quizResultValueSerializer")
+    public VersionedSmileRedisSerializer quizResultValueSerializer(@Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
+        return newValueSerializer(redisObjectMapper).legacyTargetType(QuizResultDTO.class);
+    }
+
     @Bean
     @Qualifier("quizResultRedisTemplate")
-    public RedisTemplate<String, QuizResultDTO> quizResultRedisTemplate(RedisConnectionFactory connectionFactory, @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
+    public RedisTemplate<String, QuizResultDTO> quizResultRedisTemplate(RedisConnectionFactory connectionFactory,
+            @Qualifier("quizResultValueSerializer") VersionedSmileRedisSerializer quizResultValueSerializer) {
         RedisTemplate<String, QuizResultDTO> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
-
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
+        template.setValueSerializer(quizResultValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
+        template.setHashValueSerializer(quizResultValueSerializer);
         template.afterPropertiesSet();
 
         return template;
     }
 
     @Bean
-    public RedisCacheConfiguration cacheConfiguration(@Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
+    public RedisCacheConfiguration cacheConfiguration(VersionedSmileRedisSerializer redisValueSerializer) {
         return RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(60))
             .serializeValuesWith(
-                RedisSerializationContext.SerializationPair.fromSerializer(
-                    new GenericJackson2JsonRedisSerializer(redisObjectMapper)));
+                RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
@@ -0,0 +1,100 @@
+package com.example.courseService.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rewrites values still stored as JSON into the current binary format, once per format version.
+ * Keys keep their TTL, and a key deleted while the walk runs is not brought back.
+ */
+@Component
+@Slf4j
+public class RedisFormatMigration {
+    private static final String MIGRATED_KEY_PREFIX = "redis_format_migrated:v";
+    private static final String QUIZ_RESULT_KEY_PREFIX = "quiz_result:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final VersionedSmileRedisSerializer serializer;
+    private final VersionedSmileRedisSerializer quizResultSerializer;
+
+    @Value("${redis.serialization.migrate-patterns:quiz_result:*,sessionId:*}")
+    private List<String> patterns;
+
+    public RedisFormatMigration(StringRedisTemplate stringRedisTemplate,
+            VersionedSmileRedisSerializer redisValueSerializer,
+            @Qualifier("quizResultValueSerializer") VersionedSmileRedisSerializer quizResultValueSerializer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.serializer = redisValueSerializer;
+        this.quizResultSerializer = quizResultValueSerializer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        String markerKey = MIGRATED_KEY_PREFIX + VersionedSmileRedisSerializer.FORMAT_VERSION;
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(markerKey))) {
+            return;
+        }
+
+        int migrated = 0;
+        for (String pattern : patterns) {
+            try {
+                migrated += migratePattern(pattern);
+            } catch (Exception e) {
+                log.error("Redis format migration of {} failed, will retry on next start: {}", pattern, e.getMessage(), e);
+                return;
+            }
+        }
+
+        stringRedisTemplate.opsForValue().set(markerKey, "1");
+        log.info("Rewrote {} Redis values to format version {}", migrated, VersionedSmileRedisSerializer.FORMAT_VERSION);
+    }
+
+    // Values must be rewritten by the serializer of the template that reads them, so quiz
+    // results stored as plain JSON come back as results and not as maps
+    private VersionedSmileRedisSerializer serializerFor(String pattern) {
+        return pattern.startsWith(QUIZ_RESULT_KEY_PREFIX) ? quizResultSerializer : serializer;
+    }
+
+    private int migratePattern(String pattern) {
+        VersionedSmileRedisSerializer valueSerializer = serializerFor(pattern);
+        Integer migrated = stringRedisTemplate.execute((RedisCallback<Integer>) connection -> {
+            int count = 0;
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(500).build();
+            try (Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+                while (keys.hasNext()) {
+                    byte[] key = keys.next();
+                    if (connection.keyCommands().type(key) != DataType.STRING) {
+                        continue;
+                    }
+                    byte[] stored = connection.stringCommands().get(key);
+                    if (stored == null || valueSerializer.isCurrentFormat(stored)) {
+                        continue;
+                    }
+                    try {
+                        byte[] rewritten = valueSerializer.serialize(valueSerializer.deserialize(stored));
+                        connection.stringCommands().set(key, rewritten, Expiration.keepTtl(), SetOption.ifPresent());
+                        count++;
+                    } catch (Exception e) {
+                        log.warn("Skipping unreadable Redis value {}: {}", new String(key), e.getMessage());
+                    }
+                }
+            }
+            return count;
+        });
+        return migrated != null ? migrated : 0;
+    }
+}
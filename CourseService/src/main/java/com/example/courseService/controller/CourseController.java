@@ -6,6 +6,7 @@ import com.example.courseService.dto.request.CourseRequest;
 import com.example.courseService.dto.request.UpdateCourseRequest;
 import com.example.courseService.dto.response.BatchCourseResponse;
 import com.example.courseService.dto.response.CourseDTO;
+import com.example.courseService.dto.response.CursorPageDTO;
 import com.example.courseService.dto.response.StudyStatisticsResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.MediaDeletionJob;
 import com.example.courseService.service.CourseService;
 import com.example.courseService.service.CourseSimilarityService;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -81,10 +83,23 @@ public class CourseController {
         return courseService.getAllCourses(page, size);
     }
 
+    // Keyset pagination for infinite scroll: constant cost at any depth and no total count
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<CourseDTO>> getCoursesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(courseService.getCoursesByCursor(cursor, size));
+    }
+
+    // The course is gone on return; its media is removed by the returned job, see /api/deletion-jobs
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCourse(@PathVariable("id") UUID id) {
-        courseService.deleteCourse(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<MediaDeletionJob> deleteCourse(@PathVariable("id") UUID id) {
+        return ResponseEntity.accepted().body(courseService.deleteCourse(id));
+    }
+
+    @DeleteMapping("/school/{schoolId}")
+    public ResponseEntity<MediaDeletionJob> deleteCoursesBySchool(@PathVariable("schoolId") UUID schoolId) {
+        return ResponseEntity.accepted().body(courseService.deleteAllCoursesBySchoolId(schoolId));
     }
 
     // Updated method to get the cheapest courses with pagination
@@ -96,6 +111,13 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCheapestCourses(pageable));
     }
 
+    @GetMapping("/cheapest/cursor")
+    public ResponseEntity<CursorPageDTO<CourseDTO>> getCheapestCoursesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(courseService.getCheapestCoursesByCursor(cursor, size));
+    }
+
     // pagination
     @GetMapping("/popular")
     public ResponseEntity<Page<CourseDTO>> getPopularCourses(
@@ -9,7 +9,9 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -38,6 +40,29 @@ public class CourseUpdateController {
         return ResponseEntity.ok(Map.of("uploadToken", uploadToken));
     }
 
+    // Raw body rather than multipart, so the chunk is streamed to S3 without being spooled to disk
+    @PutMapping(value = "/media/{mediaType}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> uploadChunk(
+            @PathVariable String courseId,
+            @PathVariable String mediaType,
+            @PathVariable Integer chunkIndex,
+            @RequestParam String uploadToken,
+            HttpServletRequest request) throws IOException {
+        ChunkUploadRequest chunk = new ChunkUploadRequest();
+        chunk.setChunkIndex(chunkIndex);
+        chunk.setUploadToken(uploadToken);
+        courseUpdateService.handleChunkUpload(request.getInputStream(), request.getContentLengthLong(), chunk);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/media/{mediaType}/uploads/{uploadToken}")
+    public ResponseEntity<Map<String, Object>> getUploadStatus(
+            @PathVariable String courseId,
+            @PathVariable String mediaType,
+            @PathVariable String uploadToken) {
+        return ResponseEntity.ok(Map.of("missingChunks", courseUpdateService.getMissingChunks(uploadToken)));
+    }
+
     @PostMapping("/media/{mediaType}/complete")
     public ResponseEntity<Map<String, String>> completeMediaUpload(
             @PathVariable String courseId,
@@ -0,0 +1,31 @@
+package com.example.courseService.controller;
+
+import com.example.courseService.service.StorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/files")
+public class FileDownloadController {
+
+    private final StorageService storageService;
+
+    // Keys contain slashes, so they are passed as a parameter rather than in the path
+    @GetMapping
+    public void downloadFile(@RequestParam("key") String key,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        log.debug("Streaming file {} (range: {})", key, request.getHeader("Range"));
+        storageService.downloadFile(key, request, response);
+    }
+}
@@ -1,13 +1,15 @@
 package com.example.courseService.controller;
 
+import com.example.courseService.dto.request.FileUploadInitRequest;
+import com.example.courseService.dto.request.PartUploadBatchRequest;
+import com.example.courseService.exception.implementation.BadRequestException;
 import com.example.courseService.model.FileUpload;
-import com.example.courseService.model.FileType;
 import com.example.courseService.service.impl.EnhancedStorageServiceImpl;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
 import java.util.UUID;
@@ -21,19 +23,13 @@ public class FileUploadController {
     private final EnhancedStorageServiceImpl storageService;
 
     @PostMapping("/initiate")
-    public ResponseEntity<FileUpload> initiateUpload(
-            @RequestParam("file") MultipartFile file,
-            @RequestParam("sessionId") String sessionId,
-            @RequestParam("fileType") FileType fileType,
-            @RequestParam(value = "courseId", required = false) String courseId,
-            @RequestParam(value = "sectionIndex", required = false) Integer sectionIndex,
-            @RequestParam(value = "topicIndex", required = false) Integer topicIndex) {
+    public ResponseEntity<FileUpload> initiateUpload(@Valid @RequestBody FileUploadInitRequest request) {
 
-        log.info("Initiating upload - sessionId: {}, fileType: {}, courseId: {}, sectionIndex: {}, topicIndex: {}",
-                sessionId, fileType, courseId, sectionIndex, topicIndex);
+        log.info("Initiating upload - sessionId: {}, fileType: {}, fileSize: {}, courseId: {}, sectionIndex: {}, topicIndex: {}",
+                request.getSessionId(), request.getFileType(), request.getFileSize(),
+                request.getCourseId(), request.getSectionIndex(), request.getTopicIndex());
 
-        FileUpload upload = storageService.initiateMultipartUpload(
-                file, sessionId, fileType, courseId, sectionIndex, topicIndex);
+        FileUpload upload = storageService.initiateMultipartUpload(request);
 
         log.info("Upload initiated successfully - uploadId: {}, tempKey: {}",
                 upload.getId(), upload.getTempKey());
@@ -54,6 +50,17 @@ public class FileUploadController {
         return ResponseEntity.ok(Map.of("url", url));
     }
 
+    @GetMapping("/{uploadId}/presigned-urls")
+    public ResponseEntity<Map<String, Object>> getPresignedUrls(
+            @PathVariable String uploadId,
+            @RequestParam(value = "fromPart", required = false) Integer fromPart,
+            @RequestParam(value = "toPart", required = false) Integer toPart) {
+
+        log.info("Generating presigned URLs - uploadId: {}, parts: {}-{}", uploadId, fromPart, toPart);
+
+        return ResponseEntity.ok(storageService.generatePresignedUrls(uploadId, fromPart, toPart));
+    }
+
     @PostMapping("/parts")
     public ResponseEntity<?> recordPart(
             @RequestParam String uploadId,
@@ -72,6 +79,21 @@ public class FileUploadController {
         }
     }
 
+    @PostMapping("/{uploadId}/parts")
+    public ResponseEntity<?> recordParts(
+            @PathVariable String uploadId,
+            @Valid @RequestBody PartUploadBatchRequest request) {
+        try {
+            log.info("Recording {} part uploads: uploadId={}", request.getParts().size(), uploadId);
+            storageService.recordPartUploads(uploadId, request.getParts());
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            log.error("Failed to record part uploads: uploadId={}, error={}", uploadId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to record part uploads: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/{uploadId}/complete")
     public ResponseEntity<Map<String, Object>> completeUpload(@PathVariable String uploadId) {
         try {
@@ -83,6 +105,11 @@ public class FileUploadController {
                     "success", true,
                     "uploadId", uploadId,
                     "tempKey", fileUpload.getTempKey()));
+        } catch (BadRequestException e) {
+            log.warn("Rejected upload completion: uploadId={}, error={}", uploadId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to complete upload: uploadId={}, error={}", uploadId, e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of(
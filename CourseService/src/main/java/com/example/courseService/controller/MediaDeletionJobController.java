@@ -0,0 +1,23 @@
+package com.example.courseService.controller;
+
+import com.example.courseService.model.MediaDeletionJob;
+import com.example.courseService.service.MediaDeletionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/deletion-jobs")
+public class MediaDeletionJobController {
+
+    private final MediaDeletionService mediaDeletionService;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<MediaDeletionJob> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(mediaDeletionService.getJob(jobId));
+    }
+}
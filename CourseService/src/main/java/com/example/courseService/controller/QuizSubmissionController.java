@@ -16,9 +16,6 @@ import com.example.courseService.config.RabbitMQConfig;
 import com.example.courseService.dto.QuizResultDTO;
 import com.example.courseService.dto.QuizSubmissionDTO;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import java.util.Map;
@@ -61,19 +58,9 @@ public class QuizSubmissionController {
         
         try {
             // Try to get result from Redis cache
-            Object rawResult = redisTemplate.opsForValue().get("quiz_result:" + submissionId);
+            QuizResultDTO result = redisTemplate.opsForValue().get("quiz_result:" + submissionId);
             
-            if (rawResult != null) {
-                QuizResultDTO result;
-                if (rawResult instanceof java.util.LinkedHashMap) {
-                    // Convert LinkedHashMap to QuizResultDTO using ObjectMapper
-                    ObjectMapper mapper = new ObjectMapper();
-                    mapper.registerModule(new JavaTimeModule());
-                    result = mapper.convertValue(rawResult, QuizResultDTO.class);
-                } else {
-                    result = (QuizResultDTO) rawResult;
-                }
-                
+            if (result != null) {
                 log.info("Found result in Redis: {}", result);
                 return ResponseEntity.ok(result);
             } else {
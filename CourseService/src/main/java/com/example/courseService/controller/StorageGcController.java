@@ -0,0 +1,29 @@
+package com.example.courseService.controller;
+
+import com.example.courseService.dto.response.StorageGcReport;
+import com.example.courseService.service.StorageGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/storage-gc")
+public class StorageGcController {
+
+    private final StorageGarbageCollector storageGarbageCollector;
+
+    // Dry run unless asked otherwise: reports orphans and stale uploads without touching them
+    @PostMapping("/run")
+    public ResponseEntity<StorageGcReport> run(@RequestParam(defaultValue = "true") boolean dryRun) {
+        StorageGcReport report = storageGarbageCollector.collect(dryRun);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
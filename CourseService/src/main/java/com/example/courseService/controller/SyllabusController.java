@@ -50,6 +50,11 @@ public class SyllabusController {
         return ResponseEntity.ok(service.createSyllabus(request));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ModuleDTO>> postSections(@RequestBody List<@Valid ModuleRequest> requests) {
+        return ResponseEntity.ok(service.createSyllabi(requests));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateSection(@RequestBody @Valid ModuleRequest request, @PathVariable("id") UUID id) {
         try {
@@ -5,6 +5,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -48,6 +49,11 @@ public class TopicController {
         return ResponseEntity.ok(service.createTopic(request));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> postLessons(@RequestBody List<@Valid TopicRequest> requests) {
+        return ResponseEntity.ok(service.createTopics(requests));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateLesson(@Valid @RequestBody TopicRequest request, @PathVariable("id") UUID id) {
         return ResponseEntity.ok(service.updateTopic(request, id));
@@ -1,9 +1,34 @@
 package com.example.courseService.dto.request;
 
+import com.example.courseService.model.FileType;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 @Data
 public class FileUploadInitRequest {
+    @NotBlank(message = "File name is required")
     private String fileName;
+
+    @Positive(message = "File size must be positive")
     private long fileSize;
+
+    private String mimeType;
+
+    @NotBlank(message = "Session ID is required")
+    private String sessionId;
+
+    @NotNull(message = "File type is required")
+    private FileType fileType;
+
+    private String courseId;
+
+    @Min(value = 0, message = "Section index must be non-negative")
+    private Integer sectionIndex;
+
+    @Min(value = 0, message = "Topic index must be non-negative")
+    private Integer topicIndex;
 }
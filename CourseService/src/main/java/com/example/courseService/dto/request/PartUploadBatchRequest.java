@@ -0,0 +1,33 @@
+package com.example.courseService.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PartUploadBatchRequest {
+    @NotEmpty(message = "Parts list cannot be empty")
+    @Size(max = 1000, message = "Maximum 1000 parts can be recorded at once")
+    private List<@Valid Part> parts;
+
+    @Data
+    public static class Part {
+        // S3 part numbers run from 1 to 10000
+        @Min(value = 1, message = "Part number must be at least 1")
+        @Max(value = 10000, message = "Part number must be at most 10000")
+        private int partNumber;
+
+        // Lombok's getETag would otherwise be read by Jackson as "etag"
+        @JsonProperty("eTag")
+        @NotBlank(message = "ETag is required")
+        private String eTag;
+    }
+}
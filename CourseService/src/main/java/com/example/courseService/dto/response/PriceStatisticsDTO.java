@@ -0,0 +1,35 @@
+package com.example.courseService.dto.response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceStatisticsDTO {
+
+    private long pricedCourses;
+    private long freeCourses;
+    private long paidCourses;
+    private double averagePrice;
+    private double minPrice;
+    private double maxPrice;
+
+    // Nearest-rank percentiles keyed "p25", "p50", "p75", "p90"
+    @Builder.Default
+    private Map<String, Double> percentiles = new LinkedHashMap<>();
+
+    // Course counts per price tier (Free, Budget ($1-50), ...)
+    @Builder.Default
+    private Map<String, Long> distribution = new LinkedHashMap<>();
+
+    // Course counts per fixed-width histogram bucket, keyed by the bucket's lower bound
+    @Builder.Default
+    private Map<String, Long> histogram = new LinkedHashMap<>();
+}
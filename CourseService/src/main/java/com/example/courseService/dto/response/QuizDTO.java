@@ -28,6 +28,7 @@ public class QuizDTO {
     private Integer passingScore;
     private Integer totalPoints;
     private List<QuizQuestion> questions;
+    private Integer questionCount;
     private String helpGuidelines;
     private QuizVisibility visibility;
     private Boolean isDraft;
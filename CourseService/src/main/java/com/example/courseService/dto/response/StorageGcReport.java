@@ -0,0 +1,36 @@
+package com.example.courseService.dto.response;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageGcReport {
+
+    private boolean dryRun;
+    private Date startedAt;
+    private Date finishedAt;
+
+    private int referencedKeys;
+    private long scannedObjects;
+    private long orphanedObjects;
+    private long orphanedBytes;
+    // The first orphans found, so a dry run can be checked before enabling deletion
+    @Builder.Default
+    private List<String> sampleOrphans = new ArrayList<>();
+
+    private int staleUploads;
+    private int abortedUploads;
+
+    // Deletion jobs queued for the orphans; empty on a dry run
+    @Builder.Default
+    private List<String> deletionJobIds = new ArrayList<>();
+}
@@ -4,6 +4,7 @@ import com.example.courseService.dto.request.CourseRequest;
 import com.example.courseService.dto.response.CourseDTO;
 import com.example.courseService.model.Course;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 
@@ -13,5 +14,7 @@ public interface CourseMapper {
 
     CourseDTO toDTO(Course course);
 
+    List<CourseDTO> toDTOs(List<Course> courses);
+
     CourseDTO toFullDTO(Course course, Object instructors);
 }
\ No newline at end of file
@@ -15,8 +15,11 @@ import com.example.courseService.service.QuizService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -47,12 +50,28 @@ public class CourseMapperImpl implements CourseMapper {
         }
         @Override
         public CourseDTO toDTO(Course course) {
+                // Single-course responses carry the quizzes with their questions
+                return toDTO(course, quizService.getQuizzesByCourseId(course.getId()));
+        }
+
+        @Override
+        public List<CourseDTO> toDTOs(List<Course> courses) {
+                // Listings only need quiz summaries, loaded with one query for the whole batch
+                Map<UUID, List<QuizDTO>> quizzesByCourse = quizService.getQuizSummariesByCourseIds(
+                                courses.stream().map(Course::getId).collect(Collectors.toList()));
+
+                return courses.stream()
+                                .map(course -> toDTO(course,
+                                                quizzesByCourse.getOrDefault(course.getId(), Collections.emptyList())))
+                                .collect(Collectors.toList());
+        }
+
+        private CourseDTO toDTO(Course course, List<QuizDTO> quizzes) {
 
                 File thumbnail = course.getThumbnail();
                 File featuredImage = course.getFeaturedImage();
 
                 List<Module> syllabus = course.getSyllabus();
-                List<QuizDTO> quizzes = quizService.getQuizzesByCourseId(course.getId());
 
                 return CourseDTO.builder()
                                 .id(course.getId())
@@ -78,6 +78,7 @@ public class QuizMapperImpl implements QuizMapper {
                 .passingScore(quiz.getPassingScore())
                 .totalPoints(quiz.getTotalPoints())
                 .questions(quiz.getQuestions())
+                .questionCount(quiz.getQuestions() != null ? quiz.getQuestions().size() : 0)
                 .helpGuidelines(quiz.getHelpGuidelines())
                 .visibility(quiz.getVisibility())
                 .isDraft(quiz.getIsDraft())
@@ -9,9 +9,12 @@ import com.example.courseService.enums.Language;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -25,6 +28,10 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Document(collection = "courses")
+@CompoundIndexes({
+        @CompoundIndex(name = "created_at_id_idx", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "price_id_idx", def = "{'price': 1, '_id': 1}")
+})
 @EqualsAndHashCode(exclude = { "id", "createdAt", "updatedAt", "featuredImage", "thumbnail" })
 public class Course {
 
@@ -60,6 +67,8 @@ public class Course {
     @LastModifiedDate
     private Date updatedAt;
 
+    // Stored as Decimal128 so Mongo sorts and compares prices numerically, see CoursePriceMigration
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
     private Integer durationInWeeks;
 
@@ -0,0 +1,44 @@
+package com.example.courseService.model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "course_similarities")
+@CompoundIndex(name = "neighbour_course_idx", def = "{'neighbours.courseId' : 1}")
+public class CourseSimilarity {
+
+    @Id
+    private UUID courseId;
+
+    // Top-K most similar courses, ordered by score descending
+    @Builder.Default
+    private List<Neighbour> neighbours = new ArrayList<>();
+
+    private Date updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Neighbour {
+        private UUID courseId;
+        private double score;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.courseService.model;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Materialized snapshot of catalogue-wide course statistics, kept as a single document so the
+ * statistics endpoint reads one small document instead of scanning the courses collection.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "course_stats")
+public class CourseStats {
+
+    public static final String GLOBAL_ID = "global";
+
+    @Id
+    private String id;
+
+    private long totalCourses;
+    private long recentCourses;
+
+    @Builder.Default
+    private Map<String, Long> coursesBySchool = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> coursesByLanguage = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> categoryDistribution = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> durationDistribution = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> contentRichness = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> instructorDistribution = new HashMap<>();
+
+    private long coursesWithThumbnails;
+    private long coursesWithFeaturedImages;
+    private long coursesWithSyllabus;
+    private long coursesWithObjectives;
+
+    private Date computedAt;
+}
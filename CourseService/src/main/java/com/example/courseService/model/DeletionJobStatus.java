@@ -0,0 +1,8 @@
+package com.example.courseService.model;
+
+public enum DeletionJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,41 @@
+package com.example.courseService.model;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Local copy of an instructor's public profile, replicated from UserService instructor events
+ * so course pages can be rendered without asking UserService.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "instructor_profiles")
+public class InstructorProfile {
+
+    @Id
+    private UUID id;
+
+    private String firstName;
+    private String lastName;
+    private String fathersName;
+    private String avatarUrl;
+    private String bio;
+    private double rating;
+    private long ratingsCount;
+
+    // Publisher timestamp of the event this copy was built from; older events are ignored
+    private long version;
+    private Date updatedAt;
+}
@@ -0,0 +1,74 @@
+package com.example.courseService.model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * S3 objects left behind by a removed course or school, deleted in the background. Progress is
+ * written after every batch, so a job interrupted by a restart resumes from the keys still pending.
+ */
+@Document(collection = "media_deletion_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaDeletionJob {
+    @Id
+    private String id;
+
+    // "course" or "school", with the id of the removed entity
+    private String scope;
+    private String targetId;
+
+    @Indexed
+    private DeletionJobStatus status;
+
+    @JsonIgnore
+    @Builder.Default
+    private List<String> pendingKeys = new ArrayList<>();
+
+    // One entry per file reference, so a key shared by several removed files appears once for each
+    @JsonIgnore
+    @Builder.Default
+    private List<String> referencedKeys = new ArrayList<>();
+
+    // References this job has dropped, as key#n for the n-th reference to a key, recorded before
+    // each release so a resumed or retried job never drops the same reference twice
+    @JsonIgnore
+    @Builder.Default
+    private List<String> releasedKeys = new ArrayList<>();
+
+    // Released keys that held the last reference, so their objects are this job's to delete
+    @JsonIgnore
+    @Builder.Default
+    private List<String> deletableKeys = new ArrayList<>();
+
+    // Keys that failed on the last attempt; retried until maxAttempts is reached
+    @Builder.Default
+    private List<String> failedKeys = new ArrayList<>();
+
+    private int totalKeys;
+    private int deletedKeys;
+    // Still referenced by other files through the stored file registry, so left in place
+    private int keptKeys;
+    private int attempts;
+    private String lastError;
+
+    private Date nextAttemptAt;
+    // A RUNNING job whose lease has passed was abandoned by its node and may be claimed again
+    private Date leaseUntil;
+    private Date createdAt;
+    private Date updatedAt;
+}
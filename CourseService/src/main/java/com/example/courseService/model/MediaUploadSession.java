@@ -0,0 +1,48 @@
+package com.example.courseService.model;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a chunked media upload, shared by every CourseService instance so chunks of one
+ * upload may land on any of them. Each chunk sets only its own entry of partETags, which keeps
+ * concurrent chunk updates atomic; the keys double as the record of received chunks.
+ */
+@Document(collection = "media_upload_sessions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadSession {
+    @Id
+    private String uploadToken;
+
+    private String courseId;
+    private String mediaType;
+    private String fileName;
+    private Integer totalChunks;
+    private String contentType;
+
+    private String s3Key;
+    private String uploadId;
+
+    // Chunk index (as a string, Mongo map keys must be strings) to the ETag of its S3 part
+    @Builder.Default
+    private Map<String, String> partETags = new HashMap<>();
+
+    private Date createdAt;
+
+    // Pushed forward by every chunk; Mongo removes the session once it passes
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+}
@@ -0,0 +1,35 @@
+package com.example.courseService.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored S3 object per distinct content, keyed by its SHA-256. refCount is the number of
+ * files currently pointing at the object; it is deleted when the last one lets go.
+ */
+@Document(collection = "stored_files")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    @Id
+    private String sha256;
+
+    @Indexed(unique = true)
+    private String key;
+
+    private String url;
+    private long size;
+    private String contentType;
+    private long refCount;
+    private Date createdAt;
+}
@@ -9,8 +9,10 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CourseRepository extends MongoRepository<Course, UUID>, CourseRepositoryCustom {
@@ -32,6 +34,9 @@ public interface CourseRepository extends MongoRepository<Course, UUID>, CourseR
     @Query("{ 'instructors': ?0 }")
     List<Course> findCoursesByInstructorId(UUID instructorId);
 
+    @Query(value = "{ 'instructors': ?0 }", fields = "{ '_id': 1 }")
+    List<Course> findCourseIdsByInstructorId(UUID instructorId);
+
     @Query("{ 'schoolId': { $in: ?0 } }")
     List<Course> findBySchoolIdIn(List<UUID> schoolIds);
 
@@ -39,9 +44,22 @@ public interface CourseRepository extends MongoRepository<Course, UUID>, CourseR
 
     boolean existsBySchoolId(UUID schoolId);
 
-    // Find all courses with price for average calculation
-    @Query(value = "{ 'price': { $ne: null } }", fields = "{ 'price': 1 }")
-    List<Course> findAllWithPrice();
+    // Similarity scoring only needs scalar fields, so skip resolving the syllabus DBRefs
+    @Query(value = "{}", fields = "{ 'syllabus': 0 }")
+    List<Course> findAllForSimilarity();
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'syllabus': 0 }")
+    Optional<Course> findForSimilarityById(UUID id);
+
+    @Query(value = "{ 'updatedAt': { $gt: ?0 } }", fields = "{ 'syllabus': 0 }")
+    List<Course> findForSimilarityUpdatedSince(Date since);
+
+    // Exports are read through a cursor and never need the syllabus DBRefs
+    @Query(value = "{ 'schoolId': ?0 }", fields = "{ 'syllabus': 0 }")
+    Stream<Course> streamForExportBySchoolId(UUID schoolId);
+
+    @Query(value = "{ 'instructors': ?0 }", fields = "{ 'syllabus': 0 }")
+    Stream<Course> streamForExportByInstructorId(UUID instructorId);
 
     // Count recent courses (last 30 days) - will be called with date parameter from service
     @Query(value = "{ 'createdAt': { $gte: ?0 } }", count = true)
@@ -53,16 +71,8 @@ public interface CourseRepository extends MongoRepository<Course, UUID>, CourseR
         return countRecentCourses(thirtyDaysAgo);
     }
 
-    // Method to get average price (will be implemented in service layer using findAllWithPrice)
+    // Average is computed by Mongo, see CourseRepositoryCustom#getPriceStatistics
     default double getAverageCoursePrice() {
-        List<Course> coursesWithPrice = findAllWithPrice();
-        if (coursesWithPrice.isEmpty()) {
-            return 0.0;
-        }
-        return coursesWithPrice.stream()
-                .filter(course -> course.getPrice() != null)
-                .mapToDouble(course -> course.getPrice().doubleValue())
-                .average()
-                .orElse(0.0);
+        return getPriceStatistics().getAveragePrice();
     }
 }
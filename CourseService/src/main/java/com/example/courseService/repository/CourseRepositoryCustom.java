@@ -1,18 +1,49 @@
 package com.example.courseService.repository;
 
+import com.example.courseService.dto.response.PriceStatisticsDTO;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.CourseStats;
+import com.example.courseService.utils.CourseCursor;
+
+import java.util.Date;
 import java.util.List;
 
 public interface CourseRepositoryCustom {
-    
+
     /**
      * Count courses grouped by school ID
      * @return List of Object arrays where Object[0] is schoolId and Object[1] is count
      */
     List<Object[]> countCoursesBySchool();
-    
+
     /**
      * Count courses grouped by language
      * @return List of Object arrays where Object[0] is language and Object[1] is count
      */
     List<Object[]> countCoursesByLanguage();
-}
\ No newline at end of file
+
+    /**
+     * Compute all catalogue statistics in a single $facet aggregation
+     * @param recentSince courses created at or after this date count as recent
+     * @return an unsaved snapshot with every distribution filled in
+     */
+    CourseStats aggregateCourseStats(Date recentSince);
+
+    /**
+     * Compute price statistics of all priced courses server-side in one round trip
+     * @return count, average, min, max, free/paid counts, percentiles, tier distribution and histogram
+     */
+    PriceStatisticsDTO getPriceStatistics();
+
+    /**
+     * Keyset page of courses ordered by createdAt desc, then id desc
+     * @param after position of the last course already returned, or null for the first page
+     */
+    List<Course> findNewestAfter(CourseCursor after, int limit);
+
+    /**
+     * Keyset page of courses ordered by price asc, then id asc
+     * @param after position of the last course already returned, or null for the first page
+     */
+    List<Course> findCheapestAfter(CourseCursor after, int limit);
+}
@@ -0,0 +1,15 @@
+package com.example.courseService.repository;
+
+import com.example.courseService.model.CourseSimilarity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CourseSimilarityRepository extends MongoRepository<CourseSimilarity, UUID> {
+
+    // Entries that currently list the given course among their neighbours
+    List<CourseSimilarity> findByNeighboursCourseId(UUID courseId);
+}
@@ -0,0 +1,9 @@
+package com.example.courseService.repository;
+
+import com.example.courseService.model.CourseStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseStatsRepository extends MongoRepository<CourseStats, String> {
+}
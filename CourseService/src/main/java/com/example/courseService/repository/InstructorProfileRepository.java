@@ -0,0 +1,11 @@
+package com.example.courseService.repository;
+
+import com.example.courseService.model.InstructorProfile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InstructorProfileRepository extends MongoRepository<InstructorProfile, UUID> {
+}
@@ -0,0 +1,17 @@
+package com.example.courseService.repository;
+
+import com.example.courseService.dto.response.QuizDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizRepositoryCustom {
+
+    /**
+     * Lightweight quiz summaries for all given courses in a single query. Topic and question
+     * DBRefs are not resolved: only the topic id and the number of questions are returned.
+     * @return QuizDTOs with topicId and questionCount set and questions left null
+     */
+    List<QuizDTO> findSummariesByCourseIdIn(Collection<UUID> courseIds);
+}
@@ -1,19 +1,37 @@
 package com.example.courseService.repository.impl;
 
+import com.example.courseService.dto.response.PriceStatisticsDTO;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.CourseStats;
 import com.example.courseService.repository.CourseRepositoryCustom;
+import com.example.courseService.utils.CourseCursor;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 @Repository
 public class CourseRepositoryImpl implements CourseRepositoryCustom {
 
+    private static final double[] PRICE_PERCENTILES = {0.25, 0.5, 0.75, 0.9};
+    private static final List<Integer> PRICE_HISTOGRAM_BOUNDARIES = List.of(0, 25, 50, 100, 200, 500, 1000);
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
@@ -47,6 +65,262 @@ public class CourseRepositoryImpl implements CourseRepositoryCustom {
         return resultList;
     }
 
+    @Override
+    public List<Course> findNewestAfter(CourseCursor after, int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        if (after != null) {
+            // Descending order puts courses without createdAt last
+            Criteria sameValue = Criteria.where("createdAt").is(after.getValue()).and("_id").lt(after.getId());
+            query.addCriteria(after.getValue() == null
+                    ? sameValue
+                    : new Criteria().orOperator(
+                            Criteria.where("createdAt").lt(after.getValue()),
+                            sameValue,
+                            Criteria.where("createdAt").is(null)));
+        }
+        return mongoTemplate.find(query, Course.class);
+    }
+
+    @Override
+    public List<Course> findCheapestAfter(CourseCursor after, int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "price", "_id")).limit(limit);
+        if (after != null) {
+            // Ascending order puts courses without a price first
+            Criteria sameValue = Criteria.where("price").is(after.getValue()).and("_id").gt(after.getId());
+            query.addCriteria(new Criteria().orOperator(
+                    sameValue,
+                    after.getValue() == null
+                            ? Criteria.where("price").ne(null)
+                            : Criteria.where("price").gt(after.getValue())));
+        }
+        return mongoTemplate.find(query, Course.class);
+    }
+
+    @Override
+    public CourseStats aggregateCourseStats(Date recentSince) {
+        Document durationInWeeks = new Document("$ifNull", Arrays.asList("$durationInWeeks", null));
+        Document durationBucket = switchOf(List.of(
+                branch(new Document("$eq", Arrays.asList(durationInWeeks, null)), "Unknown"),
+                branch(new Document("$lte", List.of("$durationInWeeks", 2)), "Short (1-2 weeks)"),
+                branch(new Document("$lte", List.of("$durationInWeeks", 6)), "Medium (3-6 weeks)"),
+                branch(new Document("$lte", List.of("$durationInWeeks", 12)), "Long (7-12 weeks)")),
+                "Extended (12+ weeks)");
+
+        Document instructorCount = sizeOf("$instructors");
+        Document instructorBucket = switchOf(List.of(
+                branch(new Document("$eq", List.of(instructorCount, 0)), "No Instructors"),
+                branch(new Document("$eq", List.of(instructorCount, 1)), "Single Instructor"),
+                branch(new Document("$lte", List.of(instructorCount, 3)), "Small Team (2-3)")),
+                "Large Team (4+)");
+
+        // Syllabus entries are DBRefs; only the array length is read, so nothing is resolved
+        Document contentCount = new Document("$add", List.of(
+                present("$featuredImage"),
+                present("$thumbnail"),
+                sizeOf("$syllabus"),
+                nonEmpty("$learningObjectives"),
+                nonEmpty("$requirements")));
+        Document contentBucket = switchOf(List.of(
+                branch(new Document("$eq", List.of(contentCount, 0)), "Minimal Content"),
+                branch(new Document("$lte", List.of(contentCount, 3)), "Basic Content"),
+                branch(new Document("$lte", List.of(contentCount, 8)), "Rich Content")),
+                "Very Rich Content");
+
+        Document facets = new Document()
+                .append("bySchool", List.of(countBy("$schoolId")))
+                .append("byLanguage", List.of(countBy("$language")))
+                .append("byCategory", List.of(countBy("$categoryId")))
+                .append("byDuration", List.of(countBy(durationBucket)))
+                .append("byInstructors", List.of(countBy(instructorBucket)))
+                .append("byContent", List.of(countBy(contentBucket)))
+                .append("recent", List.of(
+                        new Document("$match", new Document("createdAt", new Document("$gte", recentSince))),
+                        new Document("$count", "count")))
+                .append("quality", List.of(new Document("$group", new Document("_id", null)
+                        .append("total", new Document("$sum", 1))
+                        .append("withThumbnails", new Document("$sum", present("$thumbnail")))
+                        .append("withFeaturedImages", new Document("$sum", present("$featuredImage")))
+                        .append("withSyllabus", new Document("$sum", nonEmpty("$syllabus")))
+                        .append("withObjectives", new Document("$sum", nonEmpty("$learningObjectives"))))));
+
+        AggregationOperation facet = context -> new Document("$facet", facets);
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(facet), "courses", Document.class)
+                .getUniqueMappedResult();
+
+        CourseStats stats = CourseStats.builder()
+                .id(CourseStats.GLOBAL_ID)
+                .computedAt(new Date())
+                .build();
+        if (result == null) {
+            return stats;
+        }
+
+        stats.setCoursesBySchool(countsOf(result, "bySchool", "unknown"));
+        stats.setCoursesByLanguage(countsOf(result, "byLanguage", "unknown"));
+        stats.setCategoryDistribution(countsOf(result, "byCategory", "Uncategorized"));
+        stats.setDurationDistribution(countsOf(result, "byDuration", "Unknown"));
+        stats.setInstructorDistribution(countsOf(result, "byInstructors", "No Instructors"));
+        stats.setContentRichness(countsOf(result, "byContent", "Minimal Content"));
+        stats.setRecentCourses(longOf(first(result, "recent"), "count"));
+
+        Document quality = first(result, "quality");
+        stats.setTotalCourses(longOf(quality, "total"));
+        stats.setCoursesWithThumbnails(longOf(quality, "withThumbnails"));
+        stats.setCoursesWithFeaturedImages(longOf(quality, "withFeaturedImages"));
+        stats.setCoursesWithSyllabus(longOf(quality, "withSyllabus"));
+        stats.setCoursesWithObjectives(longOf(quality, "withObjectives"));
+        return stats;
+    }
+
+    @Override
+    public PriceStatisticsDTO getPriceStatistics() {
+        // Prices are Decimal128, but ones written before the migration ran may still be strings
+        Document priceValue = new Document("$convert", new Document("input", "$price")
+                .append("to", "double")
+                .append("onError", null)
+                .append("onNull", null));
+
+        Document priceTier = switchOf(List.of(
+                branch(new Document("$eq", List.of("$priceValue", 0)), "Free"),
+                branch(new Document("$lte", List.of("$priceValue", 50)), "Budget ($1-50)"),
+                branch(new Document("$lte", List.of("$priceValue", 100)), "Affordable ($51-100)"),
+                branch(new Document("$lte", List.of("$priceValue", 200)), "Standard ($101-200)"),
+                branch(new Document("$lte", List.of("$priceValue", 500)), "Premium ($201-500)")),
+                "Luxury ($500+)");
+
+        List<Document> percentileRanks = new ArrayList<>();
+        for (double percentile : PRICE_PERCENTILES) {
+            percentileRanks.add(nearestRank(percentile, "$total"));
+        }
+
+        Document facets = new Document()
+                .append("summary", List.of(new Document("$group", new Document("_id", null)
+                        .append("count", new Document("$sum", 1))
+                        .append("avg", new Document("$avg", "$priceValue"))
+                        .append("min", new Document("$min", "$priceValue"))
+                        .append("max", new Document("$max", "$priceValue"))
+                        .append("free", new Document("$sum", new Document("$cond",
+                                List.of(new Document("$eq", List.of("$priceValue", 0)), 1, 0))))
+                        .append("paid", new Document("$sum", new Document("$cond",
+                                List.of(new Document("$gt", List.of("$priceValue", 0)), 1, 0)))))))
+                .append("distribution", List.of(countBy(priceTier)))
+                .append("histogram", List.of(new Document("$bucket", new Document("groupBy", "$priceValue")
+                        .append("boundaries", PRICE_HISTOGRAM_BOUNDARIES)
+                        .append("default", PRICE_HISTOGRAM_BOUNDARIES.get(PRICE_HISTOGRAM_BOUNDARIES.size() - 1) + "+")
+                        .append("output", new Document("count", new Document("$sum", 1))))))
+                // Only the documents sitting at a percentile rank leave the server
+                .append("percentiles", List.of(
+                        new Document("$setWindowFields", new Document("sortBy", new Document("priceValue", 1))
+                                .append("output", new Document()
+                                        .append("rank", new Document("$documentNumber", new Document()))
+                                        .append("total", new Document("$count", new Document())
+                                                .append("window", new Document("documents",
+                                                        List.of("unbounded", "unbounded")))))),
+                        new Document("$match", new Document("$expr",
+                                new Document("$in", List.of("$rank", percentileRanks)))),
+                        new Document("$project", new Document("_id", 0)
+                                .append("rank", 1)
+                                .append("total", 1)
+                                .append("priceValue", 1))));
+
+        AggregationOperation match = context -> new Document("$match",
+                new Document("price", new Document("$ne", null)));
+        AggregationOperation convert = context -> new Document("$addFields", new Document("priceValue", priceValue));
+        AggregationOperation dropUnparsable = context -> new Document("$match",
+                new Document("priceValue", new Document("$ne", null)));
+        AggregationOperation facet = context -> new Document("$facet", facets);
+
+        Document result = mongoTemplate.aggregate(
+                Aggregation.newAggregation(match, convert, dropUnparsable, facet), "courses", Document.class)
+                .getUniqueMappedResult();
+
+        PriceStatisticsDTO stats = new PriceStatisticsDTO();
+        Document summary = result != null ? first(result, "summary") : null;
+        if (summary == null) {
+            return stats;
+        }
+
+        stats.setPricedCourses(longOf(summary, "count"));
+        stats.setFreeCourses(longOf(summary, "free"));
+        stats.setPaidCourses(longOf(summary, "paid"));
+        stats.setAveragePrice(doubleOf(summary, "avg"));
+        stats.setMinPrice(doubleOf(summary, "min"));
+        stats.setMaxPrice(doubleOf(summary, "max"));
+        stats.setDistribution(countsOf(result, "distribution", "Free"));
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (Document row : result.getList("histogram", Document.class, Collections.emptyList())) {
+            histogram.put(String.valueOf(row.get("_id")), longOf(row, "count"));
+        }
+        stats.setHistogram(histogram);
+
+        Map<Long, Double> priceAtRank = new HashMap<>();
+        for (Document row : result.getList("percentiles", Document.class, Collections.emptyList())) {
+            priceAtRank.put(longOf(row, "rank"), doubleOf(row, "priceValue"));
+        }
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PRICE_PERCENTILES) {
+            long rank = Math.max(1, (long) Math.ceil(percentile * stats.getPricedCourses()));
+            percentiles.put("p" + Math.round(percentile * 100), priceAtRank.getOrDefault(rank, 0.0));
+        }
+        stats.setPercentiles(percentiles);
+        return stats;
+    }
+
+    private static Document nearestRank(double percentile, String total) {
+        return new Document("$max", List.of(1,
+                new Document("$ceil", new Document("$multiply", List.of(percentile, total)))));
+    }
+
+    private static Document countBy(Object key) {
+        return new Document("$group", new Document("_id", key).append("count", new Document("$sum", 1)));
+    }
+
+    private static Document branch(Document condition, String label) {
+        return new Document("case", condition).append("then", label);
+    }
+
+    private static Document switchOf(List<Document> branches, String fallback) {
+        return new Document("$switch", new Document("branches", branches).append("default", fallback));
+    }
+
+    private static Document sizeOf(String field) {
+        return new Document("$size", new Document("$ifNull", List.of(field, Collections.emptyList())));
+    }
+
+    private static Document present(String field) {
+        return new Document("$cond", List.of(
+                new Document("$eq", Arrays.asList(new Document("$ifNull", Arrays.asList(field, null)), null)), 0, 1));
+    }
+
+    private static Document nonEmpty(String field) {
+        return new Document("$cond", List.of(new Document("$gt", List.of(sizeOf(field), 0)), 1, 0));
+    }
+
+    private static Map<String, Long> countsOf(Document result, String facet, String nullKey) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : result.getList(facet, Document.class, Collections.emptyList())) {
+            Object key = row.get("_id");
+            counts.merge(key != null ? key.toString() : nullKey, longOf(row, "count"), Long::sum);
+        }
+        return counts;
+    }
+
+    private static Document first(Document result, String facet) {
+        List<Document> rows = result.getList(facet, Document.class, Collections.emptyList());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static double doubleOf(Document document, String field) {
+        Object value = document != null ? document.get(field) : null;
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static long longOf(Document document, String field) {
+        Object value = document != null ? document.get(field) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
     // Inner classes for aggregation results
     public static class SchoolCountResult {
         private String id;
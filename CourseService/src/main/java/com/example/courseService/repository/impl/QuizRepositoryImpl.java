@@ -0,0 +1,65 @@
+package com.example.courseService.repository.impl;
+
+import com.example.courseService.dto.response.QuizDTO;
+import com.example.courseService.model.Quiz;
+import com.example.courseService.repository.QuizRepositoryCustom;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class QuizRepositoryImpl implements QuizRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<QuizDTO> findSummariesByCourseIdIn(Collection<UUID> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // A DBRef is stored as { $ref, $id }; "$topic.$id" is not a valid field path,
+        // so the id is read as the second entry of the converted object instead
+        Document topicId = new Document("$let", new Document()
+                .append("vars", new Document("ref", new Document("$objectToArray", "$topic")))
+                .append("in", new Document("$arrayElemAt", List.of("$$ref.v", 1))));
+        Document questionCount = new Document("$size",
+                new Document("$ifNull", List.of("$questions", Collections.emptyList())));
+
+        AggregationOperation project = context -> new Document("$project", new Document()
+                .append("courseId", 1)
+                .append("topicId", topicId)
+                .append("title", 1)
+                .append("description", 1)
+                .append("difficultyLevel", 1)
+                .append("timeLimit", 1)
+                .append("passingScore", 1)
+                .append("totalPoints", 1)
+                .append("questionCount", questionCount)
+                .append("helpGuidelines", 1)
+                .append("visibility", 1)
+                .append("isDraft", 1)
+                .append("isPublished", 1)
+                .append("createdAt", 1)
+                .append("publishedAt", 1)
+                .append("lastModifiedAt", 1));
+
+        TypedAggregation<Quiz> aggregation = Aggregation.newAggregation(Quiz.class,
+                Aggregation.match(Criteria.where("courseId").in(courseIds)),
+                project);
+
+        return mongoTemplate.aggregate(aggregation, QuizDTO.class).getMappedResults();
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.courseService.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.example.courseService.dto.response.CourseDTO;
+import com.example.courseService.dto.response.CourseFullDTO;
+import com.example.courseService.model.Course;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-level cache for course entities and rendered course DTOs: a bounded in-process L1 in
+ * front of Redis. Every write path must call {@link #invalidate(UUID)} after persisting; it
+ * clears both levels here and tells the other nodes over Redis pub/sub to drop their L1 copy.
+ * L1 entries also expire on their own so a lost invalidation message only delays freshness.
+ * Each course also has a version in Redis that invalidation increments; a value loaded from
+ * Mongo is only written to L2 if the version is still the one read before loading, so a slow
+ * load on one node cannot put back data that another node has just replaced.
+ * Returned instances are shared between callers and must be treated as read-only; entities read
+ * back from Redis also lack the module and topic back-references, so write paths load from Mongo.
+ */
+@Service
+@Slf4j
+public class CourseCacheService {
+    static final String INVALIDATION_CHANNEL = "course-cache:invalidate";
+    private static final String ENTITY_PREFIX = "course:entity:";
+    private static final String DTO_PREFIX = "course:dto:";
+    private static final String VERSION_PREFIX = "course:version:";
+
+    // KEYS: version, entity, dto. ARGV: version TTL in milliseconds
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[1]) "
+                    + "redis.call('DEL', KEYS[2], KEYS[3]) "
+                    + "return version",
+            Long.class);
+    // KEYS: version, value. ARGV: version read before loading ('' if none), value, TTL in milliseconds
+    private static final RedisScript<Long> PUT_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper cacheMapper;
+    private final Map<String, LocalEntry> localEntries;
+    // Bumped on every invalidation so a value loaded from data read before it is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private Counter l1Hits;
+    private Counter l2Hits;
+    private Counter misses;
+    private Counter localInvalidations;
+    private Counter remoteInvalidations;
+    private DistributionSummary servedAge;
+
+    @Value("${course.cache.l1-ttl-seconds:60}")
+    private long l1TtlSeconds;
+
+    @Value("${course.cache.l2-ttl-minutes:30}")
+    private long l2TtlMinutes;
+
+    public CourseCacheService(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${course.cache.l1-max-entries:1000}") int maxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.cacheMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.localEntries = Collections.synchronizedMap(new LinkedHashMap<String, LocalEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        l1Hits = Counter.builder("course.cache.requests").tag("result", "l1_hit").register(meterRegistry);
+        l2Hits = Counter.builder("course.cache.requests").tag("result", "l2_hit").register(meterRegistry);
+        misses = Counter.builder("course.cache.requests").tag("result", "miss").register(meterRegistry);
+        localInvalidations = Counter.builder("course.cache.invalidations").tag("origin", "local").register(meterRegistry);
+        remoteInvalidations = Counter.builder("course.cache.invalidations").tag("origin", "remote").register(meterRegistry);
+        Gauge.builder("course.cache.hit.ratio", this, CourseCacheService::hitRatio)
+                .description("Share of course cache reads served from L1 or L2")
+                .register(meterRegistry);
+        servedAge = DistributionSummary.builder("course.cache.served.age")
+                .description("Time since a served course value was loaded from Mongo")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public Course getCourse(UUID courseId, Supplier<Course> loader) {
+        return get(courseId, ENTITY_PREFIX + courseId, Course.class, loader);
+    }
+
+    public CourseDTO getCourseDTO(UUID courseId, Supplier<CourseDTO> loader) {
+        // Full DTOs are the only ones cached, so they are read back as such
+        return get(courseId, DTO_PREFIX + courseId, CourseFullDTO.class, () -> (CourseFullDTO) loader.get());
+    }
+
+    /**
+     * Drops the course from both levels on this node and broadcasts the invalidation.
+     * Call after the change is persisted.
+     */
+    public void invalidate(UUID courseId) {
+        if (courseId == null) {
+            return;
+        }
+        evictLocal(courseId);
+        localInvalidations.increment();
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT,
+                    Arrays.asList(VERSION_PREFIX + courseId, ENTITY_PREFIX + courseId, DTO_PREFIX + courseId),
+                    String.valueOf(versionTtlMillis()));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + courseId);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate course {} in Redis: {}", courseId, e.getMessage());
+        }
+    }
+
+    private <T> T get(UUID courseId, String key, Class<T> type, Supplier<? extends T> loader) {
+        requests.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        LocalEntry local = localEntries.get(key);
+        if (local != null && local.expiresAt > now) {
+            hits.incrementAndGet();
+            l1Hits.increment();
+            servedAge.record(now - local.loadedAt);
+            return type.cast(local.value);
+        }
+
+        long generation = invalidations.get();
+        String versionKey = VERSION_PREFIX + courseId;
+        // Stays null if Redis cannot be read, in which case the loaded value is not written to L2
+        String version = null;
+        try {
+            List<String> stored = redisTemplate.opsForValue().multiGet(Arrays.asList(versionKey, key));
+            version = stored.get(0) != null ? stored.get(0) : "";
+            if (stored.get(1) != null) {
+                JsonNode envelope = cacheMapper.readTree(stored.get(1));
+                long loadedAt = envelope.path("loadedAt").asLong(now);
+                T value = cacheMapper.treeToValue(envelope.get("value"), type);
+                putLocal(key, value, loadedAt, generation);
+                hits.incrementAndGet();
+                l2Hits.increment();
+                servedAge.record(now - loadedAt);
+                return value;
+            }
+        } catch (Exception e) {
+            log.warn("Course cache L2 read failed for {}: {}", key, e.getMessage());
+        }
+
+        misses.increment();
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        putLocal(key, value, now, generation);
+        try {
+            ObjectNode envelope = cacheMapper.createObjectNode();
+            envelope.put("loadedAt", now);
+            envelope.set("value", cacheMapper.valueToTree(value));
+            if (version != null && generation == invalidations.get()) {
+                redisTemplate.execute(PUT_IF_VERSION_SCRIPT, Arrays.asList(versionKey, key),
+                        version, cacheMapper.writeValueAsString(envelope),
+                        String.valueOf(Duration.ofMinutes(l2TtlMinutes).toMillis()));
+            }
+        } catch (Exception e) {
+            log.warn("Course cache L2 write failed for {}: {}", key, e.getMessage());
+        }
+        return value;
+    }
+
+    // Outlives every L2 value, so a value loaded before an invalidation never sees the version disappear
+    private long versionTtlMillis() {
+        return Duration.ofMinutes(l2TtlMinutes * 2).toMillis();
+    }
+
+    private void putLocal(String key, Object value, long loadedAt, long generation) {
+        synchronized (localEntries) {
+            if (generation == invalidations.get()) {
+                localEntries.put(key, new LocalEntry(value, loadedAt,
+                        System.currentTimeMillis() + l1TtlSeconds * 1000));
+            }
+        }
+    }
+
+    private void evictLocal(UUID courseId) {
+        synchronized (localEntries) {
+            invalidations.incrementAndGet();
+            localEntries.remove(ENTITY_PREFIX + courseId);
+            localEntries.remove(DTO_PREFIX + courseId);
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            evictLocal(UUID.fromString(parts[1]));
+            remoteInvalidations.increment();
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed course cache invalidation: {}", parts[1]);
+        }
+    }
+
+    private double hitRatio() {
+        long total = requests.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private static final class LocalEntry {
+        private final Object value;
+        private final long loadedAt;
+        private final long expiresAt;
+
+        private LocalEntry(Object value, long loadedAt, long expiresAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
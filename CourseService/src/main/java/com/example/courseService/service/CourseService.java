@@ -4,7 +4,9 @@ import com.example.courseService.dto.request.CourseRequest;
 import com.example.courseService.dto.request.UpdateCourseRequest;
 import com.example.courseService.dto.response.BatchCourseResponse;
 import com.example.courseService.dto.response.CourseDTO;
+import com.example.courseService.dto.response.CursorPageDTO;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.MediaDeletionJob;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,6 +15,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.concurrent.CompletableFuture;
 
 import com.example.courseService.dto.response.StudyStatisticsResponse;
@@ -31,12 +34,18 @@ public interface CourseService {
 
         Page<CourseDTO> getAllCourses(int page, int size);
 
-        void deleteCourse(UUID id);
+        // Removes the course at once; its stored media is deleted by the returned background job
+        MediaDeletionJob deleteCourse(UUID id);
 
-        void deleteAllCoursesBySchoolId(UUID schoolId);
+        MediaDeletionJob deleteAllCoursesBySchoolId(UUID schoolId);
 
         Page<CourseDTO> getCheapestCourses(Pageable pageable);
 
+        // Keyset pagination: pass the nextCursor of the previous page, or null for the first page
+        CursorPageDTO<CourseDTO> getCoursesByCursor(String cursor, int size);
+
+        CursorPageDTO<CourseDTO> getCheapestCoursesByCursor(String cursor, int size);
+
         Page<CourseDTO> getPopularCourses(Pageable pageable);
 
         Page<CourseDTO> getShortestCourses(Pageable pageable);
@@ -54,6 +63,11 @@ public interface CourseService {
         List<Map<String, Object>> getCoursesBySchoolIdWithDetails(UUID schoolId);
 
         List<Map<String, Object>> getCoursesByInstructorIdWithDetails(UUID instructorId);
+
+        // Streams the same data as the *WithDetails methods in chunks and returns the total course count
+        int exportCoursesBySchoolId(UUID schoolId, int chunkSize, Consumer<List<Map<String, Object>>> chunkConsumer);
+
+        int exportCoursesByInstructorId(UUID instructorId, int chunkSize, Consumer<List<Map<String, Object>>> chunkConsumer);
         
         CompletableFuture<StudyStatisticsResponse> getUnifiedStudyStatistics();
 }
\ No newline at end of file
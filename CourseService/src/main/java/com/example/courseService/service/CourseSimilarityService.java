@@ -8,4 +8,10 @@ import java.util.UUID;
 
 public interface CourseSimilarityService {
     Page<CourseDTO> getSimilarCourses(UUID courseId, int page, int size);
+
+    void indexCourse(UUID courseId);
+
+    void removeCourse(UUID courseId);
+
+    void rebuildIndex();
 }
@@ -0,0 +1,11 @@
+package com.example.courseService.service;
+
+import com.example.courseService.model.CourseStats;
+
+public interface CourseStatsService {
+    CourseStats getCourseStats();
+
+    void markStale();
+
+    CourseStats refresh();
+}
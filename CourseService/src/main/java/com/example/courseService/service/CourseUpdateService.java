@@ -1,32 +1,35 @@
 package com.example.courseService.service;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import com.example.courseService.dto.*;
 import com.example.courseService.exception.CourseNotFoundException;
 import com.example.courseService.exception.MediaUploadException;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.MediaUploadSession;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
-import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
@@ -38,85 +41,166 @@ public class CourseUpdateService {
 
     private final AmazonS3 s3Client;
     private final MongoTemplate mongoTemplate;
+    private final CourseCacheService courseCacheService;
+    private final StorageService storageService;
+
+    // S3 rejects every part but the last one below this size
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
-    @Value("${app.upload.temp-dir}")
-    private String tempUploadDir;
-
-    private final Map<String, MediaUploadMetadata> activeUploads = new HashMap<>();
+    @Value("${app.upload.session-ttl-hours:24}")
+    private long sessionTtlHours;
 
+    /**
+     * Opens an S3 multipart upload for the media and records it in a session any instance can
+     * serve. Chunks are sent to S3 as parts while they arrive, so nothing is staged on local disk.
+     */
     public String initializeMediaUpload(String courseId, String mediaType, MediaUploadRequest request) {
         validateCourseExists(courseId);
         
         String uploadToken = UUID.randomUUID().toString();
-        String uploadDir = createUploadDirectory(uploadToken);
+        String s3Key = generateS3Key(courseId, mediaType, request.getFileName());
+
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentType(request.getContentType());
+        String uploadId = s3Client.initiateMultipartUpload(
+            new InitiateMultipartUploadRequest(bucketName, s3Key, objectMetadata)).getUploadId();
         
-        activeUploads.put(uploadToken, new MediaUploadMetadata(
-            courseId,
-            mediaType,
-            request.getFileName(),
-            request.getTotalChunks(),
-            request.getContentType(),
-            uploadDir
-        ));
+        mongoTemplate.insert(MediaUploadSession.builder()
+            .uploadToken(uploadToken)
+            .courseId(courseId)
+            .mediaType(mediaType)
+            .fileName(request.getFileName())
+            .totalChunks(request.getTotalChunks())
+            .contentType(request.getContentType())
+            .s3Key(s3Key)
+            .uploadId(uploadId)
+            .createdAt(new Date())
+            .expiresAt(sessionExpiry())
+            .build());
         
         return uploadToken;
     }
 
-    public void handleChunkUpload(MultipartFile chunk, ChunkUploadRequest request) {
-        MediaUploadMetadata metadata = activeUploads.get(request.getUploadToken());
-        if (metadata == null) {
-            throw new MediaUploadException("Invalid upload token");
+    /**
+     * Streams one chunk to S3 as part chunkIndex + 1. Sending the same chunk again replaces it.
+     */
+    public void handleChunkUpload(InputStream content, long size, ChunkUploadRequest request) {
+        MediaUploadSession session = getSession(request.getUploadToken());
+        int chunkIndex = request.getChunkIndex();
+        if (chunkIndex < 0 || chunkIndex >= session.getTotalChunks()) {
+            throw new MediaUploadException("Chunk index " + chunkIndex + " is out of range");
+        }
+        if (size <= 0) {
+            throw new MediaUploadException("Chunk size must be known up front");
+        }
+        if (chunkIndex < session.getTotalChunks() - 1 && size < MIN_PART_SIZE) {
+            throw new MediaUploadException("Every chunk but the last must be at least 5 MB");
         }
 
+        UploadPartResult result;
         try {
-            String chunkPath = metadata.uploadDir + File.separator + request.getChunkIndex();
-            try (FileOutputStream fos = new FileOutputStream(chunkPath)) {
-                fos.write(chunk.getBytes());
+            result = s3Client.uploadPart(new UploadPartRequest()
+                .withBucketName(bucketName)
+                .withKey(session.getS3Key())
+                .withUploadId(session.getUploadId())
+                .withPartNumber(chunkIndex + 1)
+                .withPartSize(size)
+                .withInputStream(content));
+        } catch (Exception e) {
+            log.error("Failed to upload chunk {} of {}", chunkIndex, request.getUploadToken(), e);
+            throw new MediaUploadException("Failed to upload chunk: " + e.getMessage(), e);
+        }
+
+        // Touches only this chunk's entry, so chunks recorded concurrently by other instances are kept
+        UpdateResult recorded = mongoTemplate.updateFirst(
+            query(where("_id").is(request.getUploadToken())),
+            new Update()
+                .set("partETags." + chunkIndex, result.getETag())
+                .set("expiresAt", sessionExpiry()),
+            MediaUploadSession.class
+        );
+        if (recorded.getMatchedCount() == 0) {
+            throw new MediaUploadException("Upload was completed or expired while the chunk was sent");
+        }
+    }
+
+    /**
+     * Chunk indexes not received yet, so a client can resume an interrupted upload.
+     */
+    public List<Integer> getMissingChunks(String uploadToken) {
+        MediaUploadSession session = getSession(uploadToken);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.getTotalChunks(); i++) {
+            if (!session.getPartETags().containsKey(String.valueOf(i))) {
+                missing.add(i);
             }
-        } catch (IOException e) {
-            log.error("Failed to save chunk", e);
-            throw new MediaUploadException("Failed to save chunk: " + e.getMessage());
         }
+        return missing;
     }
 
     public String completeMediaUpload(String uploadToken) {
-        MediaUploadMetadata metadata = activeUploads.get(uploadToken);
-        if (metadata == null) {
+        List<Integer> missing = getMissingChunks(uploadToken);
+        if (!missing.isEmpty()) {
+            throw new MediaUploadException("Missing chunks: " + missing);
+        }
+        // Claiming the session by removing it lets only one instance complete the upload
+        MediaUploadSession session = mongoTemplate.findAndRemove(
+            query(where("_id").is(uploadToken)), MediaUploadSession.class);
+        if (session == null) {
             throw new MediaUploadException("Invalid upload token");
         }
 
         try {
             // Get the old media URL before updating
-            String oldMediaUrl = getOldMediaUrl(metadata.courseId, metadata.mediaType);
+            String oldMediaUrl = getOldMediaUrl(session.getCourseId(), session.getMediaType());
             
-            // Upload new file
-            File combinedFile = combineChunks(metadata);
-            String s3Key = generateS3Key(metadata);
-            String newMediaUrl = uploadToS3(combinedFile, s3Key, metadata.contentType);
+            // Parts are already in S3, this only stitches them together
+            List<PartETag> partETags = new ArrayList<>();
+            session.getPartETags().forEach((index, eTag) -> partETags.add(new PartETag(Integer.parseInt(index) + 1, eTag)));
+            partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(
+                bucketName, session.getS3Key(), session.getUploadId(), partETags));
+            String newMediaUrl = s3Client.getUrl(bucketName, session.getS3Key()).toString();
             
             // Update the course with new media URL
-            updateCourseMediaUrl(metadata.courseId, metadata.mediaType, newMediaUrl);
+            updateCourseMediaUrl(session.getCourseId(), session.getMediaType(), newMediaUrl);
             
             // Delete old file from S3 if it exists
             if (oldMediaUrl != null) {
                 deleteOldMediaFromS3(oldMediaUrl);
             }
             
-            cleanup(metadata.uploadDir);
-            activeUploads.remove(uploadToken);
-            
             return newMediaUrl;
         } catch (Exception e) {
             log.error("Failed to complete upload", e);
-            cleanup(metadata.uploadDir);
-            activeUploads.remove(uploadToken);
+            abortUpload(session);
             throw new MediaUploadException("Failed to complete upload: " + e.getMessage());
         }
     }
 
+    private MediaUploadSession getSession(String uploadToken) {
+        MediaUploadSession session = mongoTemplate.findById(uploadToken, MediaUploadSession.class);
+        if (session == null) {
+            throw new MediaUploadException("Invalid upload token");
+        }
+        return session;
+    }
+
+    private Date sessionExpiry() {
+        return new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(sessionTtlHours));
+    }
+
+    private void abortUpload(MediaUploadSession session) {
+        try {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, session.getS3Key(), session.getUploadId()));
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload {}", session.getUploadId(), e);
+        }
+    }
+
     private String getOldMediaUrl(String courseId, String mediaType) {
         Course course = mongoTemplate.findOne(
             query(where("id").is(UUID.fromString(courseId))),
@@ -147,10 +231,11 @@ public class CourseUpdateService {
     private void updateCourseMediaUrl(String courseId, String mediaType, String newUrl) {
         Update update = new Update();
         
+        // The key moves with the URL, later deletes resolve the object from it
         if ("thumbnail".equals(mediaType)) {
-            update.set("thumbnail.url", newUrl);
+            update.set("thumbnail.url", newUrl).set("thumbnail.key", extractS3KeyFromUrl(newUrl));
         } else if ("featuredImage".equals(mediaType)) {
-            update.set("featuredImage.url", newUrl);
+            update.set("featuredImage.url", newUrl).set("featuredImage.key", extractS3KeyFromUrl(newUrl));
         }
         // Note: video URLs in syllabus would need to be handled separately
         // as they require module/topic context
@@ -161,6 +246,7 @@ public class CourseUpdateService {
                 update,
                 Course.class
             );
+            courseCacheService.invalidate(UUID.fromString(courseId));
         }
     }
 
@@ -168,8 +254,9 @@ public class CourseUpdateService {
         try {
             String key = extractS3KeyFromUrl(oldMediaUrl);
             if (key != null) {
-                s3Client.deleteObject(new DeleteObjectRequest(bucketName, key));
-                log.info("Deleted old media file from S3: {}", key);
+                // Through the stored file registry, so an object shared with other files is kept
+                storageService.deleteFile(key);
+                log.info("Released old media file: {}", key);
             }
         } catch (Exception e) {
             log.error("Failed to delete old media from S3: {}", oldMediaUrl, e);
@@ -202,6 +289,7 @@ public class CourseUpdateService {
             update,
             Course.class
         );
+        courseCacheService.invalidate(UUID.fromString(courseId));
     }
 
     public void updateCourseSyllabus(String courseId, SyllabusUpdateRequest request) {
@@ -214,63 +302,18 @@ public class CourseUpdateService {
             update,
             Course.class
         );
+        courseCacheService.invalidate(UUID.fromString(courseId));
     }
 
-    private String createUploadDirectory(String uploadToken) {
-        try {
-            Path uploadDir = Path.of(tempUploadDir, uploadToken);
-            Files.createDirectories(uploadDir);
-            return uploadDir.toString();
-        } catch (IOException e) {
-            throw new MediaUploadException("Failed to create upload directory");
-        }
-    }
-
-    private File combineChunks(MediaUploadMetadata metadata) throws IOException {
-        File combinedFile = new File(metadata.uploadDir + File.separator + "combined");
-        try (FileOutputStream fos = new FileOutputStream(combinedFile)) {
-            for (int i = 0; i < metadata.totalChunks; i++) {
-                Path chunkPath = Path.of(metadata.uploadDir, String.valueOf(i));
-                Files.copy(chunkPath, fos);
-            }
-        }
-        return combinedFile;
-    }
-
-    private String uploadToS3(File file, String key, String contentType) {
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(contentType);
-        metadata.setContentLength(file.length());
-
-        s3Client.putObject(new PutObjectRequest(bucketName, key, file));
-        return s3Client.getUrl(bucketName, key).toString();
-    }
-
-    private String generateS3Key(MediaUploadMetadata metadata) {
+    private String generateS3Key(String courseId, String mediaType, String fileName) {
         return String.format("courses/%s/%s/%s-%s",
-            metadata.courseId,
-            metadata.mediaType,
+            courseId,
+            mediaType,
             UUID.randomUUID(),
-            metadata.fileName
+            fileName
         );
     }
 
-    private void cleanup(String directory) {
-        try {
-            Files.walk(Path.of(directory))
-                .sorted((a, b) -> b.compareTo(a))
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        log.error("Failed to delete: " + path, e);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Failed to cleanup directory: " + directory, e);
-        }
-    }
-
     private void validateCourseExists(String courseId) {
         if (!mongoTemplate.exists(
                 query(where("id").is(UUID.fromString(courseId))),
@@ -278,14 +321,4 @@ public class CourseUpdateService {
             throw new CourseNotFoundException("Course not found: " + courseId);
         }
     }
-
-    @Data
-    private static class MediaUploadMetadata {
-        private final String courseId;
-        private final String mediaType;
-        private final String fileName;
-        private final int totalChunks;
-        private final String contentType;
-        private final String uploadDir;
-    }
 }
@@ -0,0 +1,21 @@
+package com.example.courseService.service;
+
+import com.example.courseService.dto.response.InstructorDTO;
+import com.example.courseService.model.InstructorProfile;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InstructorProfileService {
+    List<InstructorDTO> getInstructors(List<UUID> instructorIds);
+
+    void upsert(InstructorProfile profile);
+
+    void delete(UUID instructorId, long version);
+
+    void applyLocally(InstructorProfile profile);
+
+    void evictLocally(UUID instructorId, long version);
+
+    void requestBackfill();
+}
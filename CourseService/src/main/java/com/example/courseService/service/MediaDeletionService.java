@@ -0,0 +1,336 @@
+package com.example.courseService.service;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.example.courseService.exception.implementation.ResourceNotFoundException;
+import com.example.courseService.model.DeletionJobStatus;
+import com.example.courseService.model.MediaDeletionJob;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Background deletion of S3 objects, issued as multi-object DeleteObjects calls of up to 1000
+ * keys. Jobs live in Mongo so any instance can pick up one that was interrupted, and failed keys
+ * are retried with exponential backoff. Each key first drops the stored file references it was
+ * queued with, each once per job however often it is retried, and objects still shared with
+ * other files are kept.
+ */
+@Service
+@Slf4j
+public class MediaDeletionService {
+    // S3 limit for a single DeleteObjects request
+    private static final int BATCH_SIZE = 1000;
+    private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long BASE_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final AmazonS3 s3Client;
+    private final MongoTemplate mongoTemplate;
+    private final StoredFileService storedFileService;
+    private final ScheduledExecutorService executor;
+
+    @Value("${application.bucket.name}")
+    private String bucketName;
+
+    @Value("${app.media-deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.media-deletion.sweep-interval-seconds:60}")
+    private long sweepIntervalSeconds;
+
+    public MediaDeletionService(AmazonS3 s3Client, MongoTemplate mongoTemplate, StoredFileService storedFileService,
+            @Value("${app.media-deletion.workers:2}") int workers) {
+        this.s3Client = s3Client;
+        this.mongoTemplate = mongoTemplate;
+        this.storedFileService = storedFileService;
+        this.executor = Executors.newScheduledThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "media-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        // Picks up retries that came due and jobs abandoned by a node that went down
+        executor.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records a job for the given object URLs or keys and starts it in the background. A key
+     * given more than once belongs to several files, and one reference is released for each.
+     * Returns as soon as the job is stored.
+     */
+    public MediaDeletionJob enqueue(String scope, String targetId, Collection<String> urlsOrKeys) {
+        List<String> references = new ArrayList<>();
+        for (String urlOrKey : urlsOrKeys) {
+            String key = toKey(urlOrKey);
+            if (key != null && !key.isBlank()) {
+                references.add(key);
+            }
+        }
+        Set<String> keys = new LinkedHashSet<>(references);
+
+        Date now = new Date();
+        MediaDeletionJob job = mongoTemplate.insert(MediaDeletionJob.builder()
+                .id(UUID.randomUUID().toString())
+                .scope(scope)
+                .targetId(targetId)
+                .status(keys.isEmpty() ? DeletionJobStatus.COMPLETED : DeletionJobStatus.PENDING)
+                .pendingKeys(new ArrayList<>(keys))
+                .referencedKeys(references)
+                .totalKeys(keys.size())
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Queued deletion job {} for {} {}: {} objects", job.getId(), scope, targetId, keys.size());
+
+        if (!keys.isEmpty()) {
+            executor.execute(() -> run(job.getId()));
+        }
+        return job;
+    }
+
+    public MediaDeletionJob getJob(String jobId) {
+        MediaDeletionJob job = mongoTemplate.findById(jobId, MediaDeletionJob.class);
+        if (job == null) {
+            throw new ResourceNotFoundException("Deletion job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void sweep() {
+        try {
+            Query due = new Query(claimableCriteria(new Date())).limit(20);
+            due.fields().include("_id");
+            for (MediaDeletionJob job : mongoTemplate.find(due, MediaDeletionJob.class)) {
+                run(job.getId());
+            }
+        } catch (Exception e) {
+            log.error("Deletion job sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void run(String jobId) {
+        MediaDeletionJob job = claim(jobId);
+        if (job == null) {
+            // Taken by another node, finished, or not due yet
+            return;
+        }
+        try {
+            process(job);
+        } catch (Exception e) {
+            // Left RUNNING: the lease runs out and the sweep resumes from the recorded progress
+            log.error("Deletion job {} stopped: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    private MediaDeletionJob claim(String jobId) {
+        Date now = new Date();
+        return mongoTemplate.findAndModify(
+                query(where("_id").is(jobId)).addCriteria(claimableCriteria(now)),
+                new Update()
+                        .set("status", DeletionJobStatus.RUNNING)
+                        .set("leaseUntil", new Date(now.getTime() + LEASE_MILLIS))
+                        .set("updatedAt", now)
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaDeletionJob.class);
+    }
+
+    private static Criteria claimableCriteria(Date now) {
+        return new Criteria().orOperator(
+                where("status").is(DeletionJobStatus.PENDING).and("nextAttemptAt").lte(now),
+                where("status").is(DeletionJobStatus.RUNNING).and("leaseUntil").lt(now));
+    }
+
+    private void process(MediaDeletionJob job) {
+        List<String> pending = new ArrayList<>(job.getPendingKeys());
+        Map<String, Integer> referenceCounts = new HashMap<>();
+        for (String key : orEmpty(job.getReferencedKeys())) {
+            referenceCounts.merge(key, 1, Integer::sum);
+        }
+        Set<String> released = new HashSet<>(orEmpty(job.getReleasedKeys()));
+        Set<String> deletableKeys = new HashSet<>(orEmpty(job.getDeletableKeys()));
+        List<String> failed = new ArrayList<>();
+        String lastError = null;
+
+        while (!pending.isEmpty()) {
+            List<String> batch = new ArrayList<>(pending.subList(0, Math.min(BATCH_SIZE, pending.size())));
+
+            // One entry per reference still to drop: the key and the number of that reference
+            List<String> toRelease = new ArrayList<>();
+            for (String key : batch) {
+                int references = referenceCounts.getOrDefault(key, 1);
+                for (int n = 1; n <= references; n++) {
+                    if (!released.contains(referenceOf(key, n))) {
+                        toRelease.add(referenceOf(key, n));
+                    }
+                }
+            }
+            int newlyKept = 0;
+            if (!toRelease.isEmpty()) {
+                // Recorded before releasing: a crash in between can at worst leak a reference and keep
+                // an object, never drop a reference twice and delete an object still in use
+                mongoTemplate.updateFirst(query(where("_id").is(job.getId())),
+                        new Update().addToSet("releasedKeys").each(toRelease.toArray()), MediaDeletionJob.class);
+                released.addAll(toRelease);
+
+                Set<String> releasedNow = new LinkedHashSet<>();
+                Set<String> newlyDeletable = new LinkedHashSet<>();
+                for (String reference : toRelease) {
+                    String key = reference.substring(0, reference.lastIndexOf('#'));
+                    releasedNow.add(key);
+                    if (storedFileService.release(key)) {
+                        newlyDeletable.add(key);
+                    }
+                }
+                if (!newlyDeletable.isEmpty()) {
+                    mongoTemplate.updateFirst(query(where("_id").is(job.getId())),
+                            new Update().addToSet("deletableKeys").each(newlyDeletable.toArray()), MediaDeletionJob.class);
+                    deletableKeys.addAll(newlyDeletable);
+                }
+                releasedNow.removeAll(deletableKeys);
+                newlyKept = releasedNow.size();
+            }
+
+            // Keys released on an earlier attempt are deleted again without touching the registry
+            List<String> deletable = new ArrayList<>();
+            for (String key : batch) {
+                if (deletableKeys.contains(key)) {
+                    deletable.add(key);
+                }
+            }
+
+            List<String> batchFailed = Collections.emptyList();
+            try {
+                deleteObjects(deletable);
+            } catch (MultiObjectDeleteException e) {
+                batchFailed = new ArrayList<>();
+                for (MultiObjectDeleteException.DeleteError error : e.getErrors()) {
+                    batchFailed.add(error.getKey());
+                }
+                lastError = e.getErrors().isEmpty() ? e.getMessage() : e.getErrors().get(0).getMessage();
+            } catch (Exception e) {
+                batchFailed = deletable;
+                lastError = e.getMessage();
+            }
+            failed.addAll(batchFailed);
+            pending = new ArrayList<>(pending.subList(batch.size(), pending.size()));
+
+            mongoTemplate.updateFirst(query(where("_id").is(job.getId())),
+                    new Update()
+                            .set("pendingKeys", pending)
+                            .inc("deletedKeys", deletable.size() - batchFailed.size())
+                            .inc("keptKeys", newlyKept)
+                            .set("leaseUntil", new Date(System.currentTimeMillis() + LEASE_MILLIS))
+                            .set("updatedAt", new Date()),
+                    MediaDeletionJob.class);
+        }
+
+        finish(job, failed, lastError);
+    }
+
+    private static String referenceOf(String key, int n) {
+        return key + "#" + n;
+    }
+
+    private static List<String> orEmpty(List<String> keys) {
+        return keys != null ? keys : Collections.emptyList();
+    }
+
+    private void deleteObjects(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        // Quiet mode only reports failures, keeping the response small for full batches
+        s3Client.deleteObjects(new DeleteObjectsRequest(bucketName)
+                .withKeys(keys.toArray(new String[0]))
+                .withQuiet(true));
+    }
+
+    private void finish(MediaDeletionJob job, List<String> failed, String lastError) {
+        Update update = new Update()
+                .set("failedKeys", failed)
+                .set("lastError", lastError)
+                .unset("leaseUntil")
+                .set("updatedAt", new Date());
+        if (failed.isEmpty()) {
+            update.set("status", DeletionJobStatus.COMPLETED);
+            log.info("Deletion job {} completed", job.getId());
+        } else if (job.getAttempts() < maxAttempts) {
+            long backoff = BASE_BACKOFF_MILLIS << (job.getAttempts() - 1);
+            update.set("status", DeletionJobStatus.PENDING)
+                    .set("pendingKeys", failed)
+                    .set("nextAttemptAt", new Date(System.currentTimeMillis() + backoff));
+            log.warn("Deletion job {}: {} objects failed on attempt {}, retrying in {}s: {}",
+                    job.getId(), failed.size(), job.getAttempts(), backoff / 1000, lastError);
+        } else {
+            update.set("status", DeletionJobStatus.FAILED);
+            log.error("Deletion job {} gave up after {} attempts with {} objects left: {}",
+                    job.getId(), job.getAttempts(), failed.size(), lastError);
+        }
+        mongoTemplate.updateFirst(query(where("_id").is(job.getId())), update, MediaDeletionJob.class);
+    }
+
+    /**
+     * Object key behind a stored media URL: everything after the bucket's base URL. Values that
+     * are not URLs are taken to be keys already.
+     */
+    public String toKey(String urlOrKey) {
+        if (urlOrKey == null) {
+            return null;
+        }
+        String baseUrl = s3Client.getUrl(bucketName, "").toString();
+        if (urlOrKey.startsWith(baseUrl)) {
+            return URLDecoder.decode(urlOrKey.substring(baseUrl.length()), StandardCharsets.UTF_8);
+        }
+        if (urlOrKey.startsWith("http")) {
+            try {
+                String path = URI.create(urlOrKey).getPath();
+                return path != null && path.length() > 1 ? path.substring(1) : null;
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping unparseable media URL {}", urlOrKey);
+                return null;
+            }
+        }
+        return urlOrKey;
+    }
+}
@@ -15,6 +15,9 @@ public interface ModuleService {
 
     ModuleDTO createSyllabus(ModuleRequest request);
 
+    // Sections and their lessons are written in two bulk inserts whatever their number
+    List<ModuleDTO> createSyllabi(List<ModuleRequest> requests);
+
     ModuleDTO updateSyllabus(UUID id, ModuleRequest request);
 
     void deleteById(UUID id);
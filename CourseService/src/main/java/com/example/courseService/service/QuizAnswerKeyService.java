@@ -0,0 +1,130 @@
+package com.example.courseService.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.example.courseService.repository.QuizQuestionRepository;
+import com.example.courseService.utils.QuizAnswerKey;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-process cache of compiled quiz answer keys. Entries are dropped in
+ * least-recently-used order once the limit is reached and must be invalidated whenever
+ * a quiz or one of its questions changes; the invalidation is broadcast over Redis pub/sub
+ * so every node drops its copy. Entries also expire on their own, so a lost message only
+ * delays grading against the new answers.
+ */
+@Service
+@Slf4j
+public class QuizAnswerKeyService {
+    static final String INVALIDATION_CHANNEL = "quiz-answer-key:invalidate";
+
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Map<UUID, CachedKey> answerKeys;
+    // Bumped on every invalidation so a key compiled from data read before it is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${quiz.grading.answer-key-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public QuizAnswerKeyService(QuizQuestionRepository quizQuestionRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${quiz.grading.answer-key-cache-size:1000}") int maxSize) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.answerKeys = Collections.synchronizedMap(new LinkedHashMap<UUID, CachedKey>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedKey> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public QuizAnswerKey getAnswerKey(UUID quizId) {
+        long now = System.currentTimeMillis();
+        CachedKey cached = answerKeys.get(quizId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.answerKey;
+        }
+
+        long generation = invalidations.get();
+        QuizAnswerKey compiled = QuizAnswerKey.of(quizId, quizQuestionRepository.findByQuizId(quizId));
+        synchronized (answerKeys) {
+            if (generation == invalidations.get()) {
+                answerKeys.put(quizId, new CachedKey(compiled, now + TimeUnit.SECONDS.toMillis(ttlSeconds)));
+            }
+        }
+        log.debug("Compiled answer key for quiz {} with {} questions", quizId, compiled.getAnswers().size());
+        return compiled;
+    }
+
+    /**
+     * Drops the answer key on this node and broadcasts the invalidation to the others.
+     * Call after the change is persisted.
+     */
+    public void invalidate(UUID quizId) {
+        if (quizId == null) {
+            return;
+        }
+        evictLocal(quizId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + quizId);
+        } catch (Exception e) {
+            // Other nodes fall back to the entry TTL
+            log.warn("Failed to broadcast answer key invalidation for quiz {}: {}", quizId, e.getMessage());
+        }
+    }
+
+    private void evictLocal(UUID quizId) {
+        synchronized (answerKeys) {
+            invalidations.incrementAndGet();
+            answerKeys.remove(quizId);
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            evictLocal(UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed answer key invalidation: {}", parts[1]);
+        }
+    }
+
+    private static final class CachedKey {
+        private final QuizAnswerKey answerKey;
+        private final long expiresAt;
+
+        private CachedKey(QuizAnswerKey answerKey, long expiresAt) {
+            this.answerKey = answerKey;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,70 +2,174 @@ package com.example.courseService.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import com.example.courseService.dto.QuizResultDTO;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Quiz results are stored under quiz_result:{submissionId}. Per user and quiz, a sorted set
+ * of submission ids scored by gradedAt and an attempt counter are kept alongside, so attempt
+ * numbering and latest-result lookups never have to scan the whole keyspace.
+ */
 @Service
 @Slf4j
 public class QuizResultService {
+    private static final String RESULT_KEY_PREFIX = "quiz_result:";
+    private static final String RESULT_INDEX_PREFIX = "quiz_result_index:";
+    private static final String ATTEMPT_COUNTER_PREFIX = "quiz_attempts:";
+    private static final String SUBMISSION_ATTEMPT_PREFIX = "quiz_submission_attempt:";
+    // Long enough to outlive any redelivery of the same submission
+    private static final Duration SUBMISSION_ATTEMPT_TTL = Duration.ofDays(7);
+    private static final String INDEX_BACKFILLED_KEY = "quiz_result_index:backfilled";
+    private static final String INDEX_BACKFILL_LOCK_KEY = "quiz_result_index:backfilling";
+
     private final RedisTemplate<String, QuizResultDTO> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
     @Autowired
-    public QuizResultService(@Qualifier("quizResultRedisTemplate") RedisTemplate<String, QuizResultDTO> redisTemplate) {
+    public QuizResultService(@Qualifier("quizResultRedisTemplate") RedisTemplate<String, QuizResultDTO> redisTemplate,
+            StringRedisTemplate stringRedisTemplate) {
         this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
     }
 
     public QuizResultDTO getLatestQuizResult(UUID quizId, String userEmail) {
-        Set<String> keys = redisTemplate.keys("quiz_result:*");
-        if (keys == null || keys.isEmpty()) {
+        Set<String> latest = stringRedisTemplate.opsForZSet().reverseRange(indexKey(quizId, userEmail), 0, 0);
+        if (latest == null || latest.isEmpty()) {
             return null;
         }
 
-        return keys.stream()
-            .map(key -> {
-                try {
-                    return redisTemplate.opsForValue().get(key);
-                } catch (Exception e) {
-                    log.error("Error retrieving quiz result for key {}: {}", key, e.getMessage());
-                    return null;
-                }
-            })
-            .filter(result -> result != null 
-                && quizId.equals(result.getQuizId()) 
-                && userEmail.equals(result.getUserEmail()))
-            .max((r1, r2) -> r1.getGradedAt().compareTo(r2.getGradedAt()))
-            .orElse(null);
+        String submissionId = latest.iterator().next();
+        try {
+            return redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + submissionId);
+        } catch (Exception e) {
+            log.error("Error retrieving quiz result for submission {}: {}", submissionId, e.getMessage());
+            return null;
+        }
     }
 
     public void storeQuizResult(String submissionId, QuizResultDTO result) {
-        String redisKey = "quiz_result:" + submissionId;
+        String redisKey = RESULT_KEY_PREFIX + submissionId;
         redisTemplate.opsForValue().set(redisKey, result);
+        indexQuizResult(submissionId, result);
     }
 
     public int getPreviousAttemptsCount(UUID quizId, String userEmail) {
-        Set<String> keys = redisTemplate.keys("quiz_result:*");
-        if (keys == null || keys.isEmpty()) {
-            return 0;
+        String attempts = stringRedisTemplate.opsForValue().get(counterKey(quizId, userEmail));
+        return attempts != null ? Integer.parseInt(attempts) : 0;
+    }
+
+    /**
+     * Attempt number of a submission. The first call reserves the next number with an atomic
+     * INCR and pins it to the submission with SETNX; a redelivered submission gets the pinned
+     * number back instead of consuming another one.
+     */
+    public int attemptNumberFor(String submissionId, UUID quizId, String userEmail) {
+        if (submissionId == null) {
+            return nextAttemptNumber(quizId, userEmail);
+        }
+        String mappingKey = SUBMISSION_ATTEMPT_PREFIX + submissionId;
+        String pinned = stringRedisTemplate.opsForValue().get(mappingKey);
+        if (pinned != null) {
+            return Integer.parseInt(pinned);
+        }
+
+        int attempt = nextAttemptNumber(quizId, userEmail);
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(mappingKey, String.valueOf(attempt), SUBMISSION_ATTEMPT_TTL))) {
+            return attempt;
         }
-        
-        return (int) keys.stream()
-            .map(key -> {
+        // Two deliveries of the same submission raced, keep the number the other one pinned
+        pinned = stringRedisTemplate.opsForValue().get(mappingKey);
+        return pinned != null ? Integer.parseInt(pinned) : attempt;
+    }
+
+    // Atomically reserves the next attempt number, so concurrent submissions never share one
+    private int nextAttemptNumber(UUID quizId, String userEmail) {
+        Long attempt = stringRedisTemplate.opsForValue().increment(counterKey(quizId, userEmail));
+        return attempt != null ? attempt.intValue() : 1;
+    }
+
+    /**
+     * Results stored before the index existed are only reachable through their own keys.
+     * Walk them once with SCAN (non-blocking, unlike KEYS) and index them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIndex() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(INDEX_BACKFILLED_KEY))) {
+            return;
+        }
+        // One node backfills, otherwise the counter raises below would be applied twice
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(INDEX_BACKFILL_LOCK_KEY, "1", Duration.ofMinutes(30)))) {
+            return;
+        }
+
+        Set<String> pairs = new HashSet<>();
+        int indexed = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(RESULT_KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
                 try {
-                    return redisTemplate.opsForValue().get(key);
+                    QuizResultDTO result = redisTemplate.opsForValue().get(key);
+                    if (result == null) {
+                        continue;
+                    }
+                    indexQuizResult(key.substring(RESULT_KEY_PREFIX.length()), result);
+                    pairs.add(result.getQuizId() + ":" + result.getUserEmail());
+                    indexed++;
                 } catch (Exception e) {
-                    log.error("Error retrieving quiz result for key {}: {}", key, e.getMessage());
-                    return null;
+                    log.error("Error indexing quiz result {}: {}", key, e.getMessage());
                 }
-            })
-            .filter(result -> result != null 
-                && quizId.equals(result.getQuizId()) 
-                && userEmail.equals(result.getUserEmail()))
-            .count();
+            }
+        } catch (Exception e) {
+            log.error("Quiz result index backfill failed: {}", e.getMessage(), e);
+            return;
+        }
+
+        // Counters must cover every stored attempt. INCRBY adds the shortfall on top of any
+        // attempt numbered concurrently, where a plain SET could hand that number out again
+        for (String pair : pairs) {
+            Long stored = stringRedisTemplate.opsForZSet().zCard(RESULT_INDEX_PREFIX + pair);
+            String counterKey = ATTEMPT_COUNTER_PREFIX + pair;
+            String current = stringRedisTemplate.opsForValue().get(counterKey);
+            long missing = (stored != null ? stored : 0) - (current != null ? Long.parseLong(current) : 0);
+            if (missing > 0) {
+                stringRedisTemplate.opsForValue().increment(counterKey, missing);
+            }
+        }
+
+        stringRedisTemplate.opsForValue().set(INDEX_BACKFILLED_KEY, "1");
+        log.info("Indexed {} existing quiz results for {} user/quiz pairs", indexed, pairs.size());
+    }
+
+    private void indexQuizResult(String submissionId, QuizResultDTO result) {
+        double gradedAt = result.getGradedAt() != null
+                ? result.getGradedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().add(indexKey(result.getQuizId(), result.getUserEmail()), submissionId, gradedAt);
+    }
+
+    private static String indexKey(UUID quizId, String userEmail) {
+        return RESULT_INDEX_PREFIX + quizId + ":" + userEmail;
+    }
+
+    private static String counterKey(UUID quizId, String userEmail) {
+        return ATTEMPT_COUNTER_PREFIX + quizId + ":" + userEmail;
     }
 }
@@ -4,7 +4,9 @@ import com.example.courseService.dto.request.QuizRequest;
 import com.example.courseService.dto.response.QuizDTO;
 import com.example.courseService.model.Quiz;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface QuizService {
@@ -19,4 +21,6 @@ public interface QuizService {
     void deleteQuiz(UUID id);
 
     List<QuizDTO> getQuizzesByCourseId(UUID courseId);
+
+    Map<UUID, List<QuizDTO>> getQuizSummariesByCourseIds(Collection<UUID> courseIds);
 }
@@ -7,13 +7,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageDeliveryMode;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.services.amplify.model.BadRequestException;
@@ -23,9 +28,8 @@ import com.example.courseService.dto.QuizAnswerDTO;
 import com.example.courseService.dto.QuizResultDTO;
 import com.example.courseService.dto.QuizSubmissionDTO;
 import com.example.courseService.model.Quiz;
-import com.example.courseService.model.QuizQuestion;
-import com.example.courseService.repository.QuizQuestionRepository;
 import com.example.courseService.repository.QuizRepository;
+import com.example.courseService.utils.QuizAnswerKey;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -41,32 +45,49 @@ import java.time.Duration;
 public class QuizSubmissionService {
     private final RabbitTemplate rabbitTemplate;
     private final QuizRepository quizRepository;
-    private final QuizQuestionRepository quizQuestionRepository;
+    private final QuizAnswerKeyService quizAnswerKeyService;
     private final QuizResultService quizResultService;
     private final QuizProgressService quizProgressService;
+    private final ThreadPoolTaskExecutor quizGradingExecutor;
+
+    @Value("${quiz.grading.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMillis;
 
     @Autowired
     public QuizSubmissionService(
-            RabbitTemplate rabbitTemplate,
+            @Qualifier("quizGradingRabbitTemplate") RabbitTemplate rabbitTemplate,
             QuizRepository quizRepository,
-            QuizQuestionRepository quizQuestionRepository,
+            QuizAnswerKeyService quizAnswerKeyService,
             QuizResultService quizResultService,
-            QuizProgressService quizProgressService) {
+            QuizProgressService quizProgressService,
+            @Qualifier("quizGradingExecutor") ThreadPoolTaskExecutor quizGradingExecutor) {
         this.rabbitTemplate = rabbitTemplate;
         this.quizRepository = quizRepository;
-        this.quizQuestionRepository = quizQuestionRepository;
+        this.quizAnswerKeyService = quizAnswerKeyService;
         this.quizResultService = quizResultService;
         this.quizProgressService = quizProgressService;
+        this.quizGradingExecutor = quizGradingExecutor;
     }
     
-    @RabbitListener(queues = RabbitMQConfig.QUIZ_SUBMISSION_QUEUE)
+    @RabbitListener(queues = RabbitMQConfig.QUIZ_SUBMISSION_QUEUE, containerFactory = "quizSubmissionContainerFactory")
     public void handleQuizSubmission(QuizSubmissionDTO submission) {
         try {
             log.info("Processing quiz submission for user: {}, quiz: {}", 
                     submission.getUserEmail(), submission.getQuizId());
             
+            // Quiz (without its DBRefs) is loaded once and shared by grading and the completion events
+            Quiz quiz = quizRepository.findWithoutReferencesById(submission.getQuizId())
+                    .orElseThrow(() -> new EntityNotFoundException("Quiz not found"));
+            
+            // Progress counts do not depend on the grade, so run them while grading
+            CompletableFuture<Integer> totalQuizzesFuture = CompletableFuture.supplyAsync(
+                    () -> quizProgressService.getTotalQuizzesInCourse(quiz.getCourseId()), quizGradingExecutor);
+            CompletableFuture<Integer> completedQuizzesFuture = CompletableFuture.supplyAsync(
+                    () -> quizProgressService.getCompletedQuizzesByUser(quiz.getCourseId(), submission.getUserEmail()),
+                    quizGradingExecutor);
+            
             // 1. Calculate quiz results
-            QuizResultDTO result = calculateQuizResult(submission);
+            QuizResultDTO result = calculateQuizResult(submission, quiz);
             result.setSubmissionId(submission.getId());
             
             // Store result in Redis using submission ID as key
@@ -79,34 +100,16 @@ public class QuizSubmissionService {
                 throw e;
             }
             
-            // 2. Send result back to client through RabbitMQ
-            String routingKey = "event.quizResult";
+            // 2. Send result and completion events in one confirmed batch
+            boolean firstAttempt = result.getAttemptNumber() == 1;
+            boolean perfectScore = result.getScore() == result.getTotalPossibleScore();
+            
+            int totalQuizzes = totalQuizzesFuture.join();
+            int completedQuizzes = completedQuizzesFuture.join();
+            double progress = totalQuizzes == 0 ? 0.0 : (double) completedQuizzes / totalQuizzes;
+            
             try {
-                log.info("Publishing quiz result to RabbitMQ - Exchange: {}, Routing Key: {}", 
-                        RabbitMQConfig.EXCHANGE_NAME, routingKey);
-                
-                rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, routingKey, result, message -> {
-                    message.getMessageProperties().setContentType("application/json");
-                    message.getMessageProperties().setContentEncoding("UTF-8");
-                    message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return message;
-                });
-                
-                log.info("Successfully published quiz result to RabbitMQ");
-
-                // 3. Send quiz completion messages
-                Quiz quiz = quizRepository.findById(submission.getQuizId())
-                    .orElseThrow(() -> new EntityNotFoundException("Quiz not found"));
-                
-                // Calculate firstAttempt and perfectScore
-                boolean firstAttempt = result.getAttemptNumber() == 1;
-                boolean perfectScore = result.getScore() == result.getTotalPossibleScore();
-                
-                int totalQuizzes = quizProgressService.getTotalQuizzesInCourse(quiz.getCourseId());
-                int completedQuizzes = quizProgressService.getCompletedQuizzesByUser(quiz.getCourseId(), submission.getUserEmail());
-                double progress = quizProgressService.getProgress(quiz.getCourseId(), submission.getUserEmail());
-                
-                sendQuizCompletionMessages(result, submission, quiz, totalQuizzes, completedQuizzes, progress, firstAttempt, perfectScore);
+                publishGradingEvents(result, submission, quiz, totalQuizzes, completedQuizzes, progress, firstAttempt, perfectScore);
             } catch (Exception e) {
                 log.error("Failed to publish quiz result to RabbitMQ: {}", e.getMessage());
                 throw e;
@@ -120,64 +123,51 @@ public class QuizSubmissionService {
         }
     }
     
-    @SuppressWarnings("unlikely-arg-type")
-    private QuizResultDTO calculateQuizResult(QuizSubmissionDTO submission) {
-        Quiz quiz = quizRepository.findById(submission.getQuizId())
-                .orElseThrow(() -> new EntityNotFoundException("Quiz not found"));
-        
-        List<QuizQuestion> questions = quizQuestionRepository.findByQuizId(quiz.getId());
-        if (questions.isEmpty()) {
+    private QuizResultDTO calculateQuizResult(QuizSubmissionDTO submission, Quiz quiz) {
+        QuizAnswerKey answerKey = quizAnswerKeyService.getAnswerKey(quiz.getId());
+        if (answerKey.isEmpty()) {
             throw new EntityNotFoundException("No questions found for quiz");
         }
 
-        int attemptNumber = getPreviousAttemptsCount(submission.getQuizId(), submission.getUserEmail()) + 1;
-        log.info("Starting quiz grading for user: {}, Attempt #{}", submission.getUserEmail(), attemptNumber);
-        log.info("Quiz details - Title: {}, Total Questions: {}", quiz.getTitle(), questions.size());
+        log.info("Starting quiz grading for user: {}", submission.getUserEmail());
+        log.info("Quiz details - Title: {}, Total Questions: {}", quiz.getTitle(), answerKey.getAnswers().size());
         
-        List<QuestionResultDTO> questionResults = new ArrayList<>();
+        List<QuestionResultDTO> questionResults = new ArrayList<>(submission.getAnswers().size());
         int totalScore = 0;
         int totalPossiblePoints = 0;
         
-        validateAnswers(submission.getAnswers(), questions);
+        validateAnswers(submission.getAnswers(), answerKey);
         
         for (QuizAnswerDTO answer : submission.getAnswers()) {
-            QuizQuestion question = questions.stream()
-                    .filter(q -> q.getId().equals(answer.getQuestionId()))
-                    .findFirst()
-                    .orElseThrow(() -> new EntityNotFoundException("Question not found: " + answer.getQuestionId()));
-            
-            totalPossiblePoints += question.getPoints();
-            
-            boolean isCorrect;
-            if ("CODE".equals(question.getType())) {
-                isCorrect = question.getCorrectAnswer().equals(answer.getAnswer());
-            } else if ("SHORT_ANSWER".equals(question.getType())) {
-                isCorrect = question.getCorrectAnswer().trim().equalsIgnoreCase(answer.getAnswer().trim());
-            } else {
-                isCorrect = question.getCorrectAnswer().trim().equals(answer.getAnswer().trim());
+            QuizAnswerKey.Answer expected = answerKey.get(answer.getQuestionId());
+            if (expected == null) {
+                throw new EntityNotFoundException("Question not found: " + answer.getQuestionId());
             }
             
-            int points = isCorrect ? question.getPoints() : 0;
+            totalPossiblePoints += expected.getPoints();
+            
+            boolean isCorrect = expected.matches(answer.getAnswer());
+            int points = isCorrect ? expected.getPoints() : 0;
             totalScore += points;
             
-            log.info("Question grading - ID: {}", question.getId());
-            log.info("Question text: {}", question.getQuestionText());
-            log.info("User's answer: {}", answer.getAnswer());
-            log.info("Points possible: {}", question.getPoints());
-            log.info("Points awarded: {}", points);
-            log.info("Correct? {}\n", isCorrect);
+            log.debug("Question {} graded - answer: {}, points: {}/{}, correct: {}",
+                    answer.getQuestionId(), answer.getAnswer(), points, expected.getPoints(), isCorrect);
             
             questionResults.add(QuestionResultDTO.builder()
-                .questionId(question.getId())
+                .questionId(answer.getQuestionId())
                 .userAnswer(answer.getAnswer())
                 .correct(isCorrect)
                 .points(points)
-                .maxPoints(question.getPoints())
+                .maxPoints(expected.getPoints())
                 .build()
             );
         }
         
         boolean passed = totalScore >= quiz.getPassingScore();
+        // Reserved only once grading succeeded, so rejected submissions do not consume an attempt.
+        // Keyed on the submission, so a redelivery after a failed store or publish reuses it
+        int attemptNumber = quizResultService.attemptNumberFor(submission.getId(), submission.getQuizId(),
+                submission.getUserEmail());
         
         log.info("Quiz grading completed:");
         log.info("Total score: {} out of {} points", totalScore, totalPossiblePoints);
@@ -199,63 +189,54 @@ public class QuizSubmissionService {
             .build();
     }
     
-    private int getPreviousAttemptsCount(UUID quizId, String userEmail) {
-        return quizResultService.getPreviousAttemptsCount(quizId, userEmail);
-    }
-    
-    private void validateAnswers(List<QuizAnswerDTO> answers, List<QuizQuestion> questions) {
+    private void validateAnswers(List<QuizAnswerDTO> answers, QuizAnswerKey answerKey) {
         Set<UUID> answeredQuestionIds = answers.stream()
             .map(QuizAnswerDTO::getQuestionId)
             .collect(Collectors.toSet());
             
-        Set<UUID> quizQuestionIds = questions.stream()
-            .map(QuizQuestion::getId)
-            .collect(Collectors.toSet());
-            
-        if (!answeredQuestionIds.equals(quizQuestionIds)) {
+        if (!answeredQuestionIds.equals(answerKey.questionIds())) {
             throw new BadRequestException("Mismatch between answered questions and quiz questions");
         }
     }
     
-    private void sendQuizCompletionMessages(QuizResultDTO result, QuizSubmissionDTO submission, Quiz quiz, 
+    /**
+     * Publishes the graded result and both completion events on one channel and waits for the
+     * broker to confirm all three, so a submission is acknowledged only once its events are safe.
+     */
+    private void publishGradingEvents(QuizResultDTO result, QuizSubmissionDTO submission, Quiz quiz, 
                                       int totalQuizzes, int completedQuizzes, double progress,
                                       boolean firstAttempt, boolean perfectScore) {
         String userId = submission.getUserEmail();
         String courseId = quiz.getCourseId().toString();
 
-        // Send message to Enrollment Service (Student Management Service)
+        // Message to Enrollment Service (Student Management Service)
         Map<String, Object> enrollmentMessage = createEnrollmentMessage(result, userId, courseId, 
             totalQuizzes, completedQuizzes, progress);
-        log.info("Sending quiz completion to enrollment service - Message: {}", enrollmentMessage);
-        rabbitTemplate.convertAndSend(
-            RabbitMQConfig.QUIZ_EVENTS_EXCHANGE,
-            "quiz.completion.enrollment",
-            enrollmentMessage,
-            message -> {
+        // Message to User Service
+        Map<String, Object> userMessage = createUserServiceMessage(result, userId, courseId, 
+            firstAttempt, perfectScore);
+
+        log.info("Publishing quiz result and completion events for submission {}", submission.getId());
+        rabbitTemplate.invoke(operations -> {
+            operations.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, "event.quizResult", result, message -> {
+                message.getMessageProperties().setContentType("application/json");
+                message.getMessageProperties().setContentEncoding("UTF-8");
                 message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
                 return message;
-            }
-        );
+            });
+            operations.convertAndSend(RabbitMQConfig.QUIZ_EVENTS_EXCHANGE, "quiz.completion.enrollment",
+                enrollmentMessage, QuizSubmissionService::persistent);
+            operations.convertAndSend(RabbitMQConfig.QUIZ_EVENTS_EXCHANGE, "quiz.completion.user",
+                userMessage, QuizSubmissionService::persistent);
+            operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+        log.info("Quiz result and completion events confirmed by broker");
+    }
 
-        // Send message to User Service
-        Map<String, Object> userMessage = createUserServiceMessage(result, userId, courseId, 
-            firstAttempt, perfectScore);
-        log.info("Sending quiz completion to user service - Exchange: {}, Routing Key: {}, Message: {}", 
-            RabbitMQConfig.QUIZ_EVENTS_EXCHANGE, "quiz.completion.user", userMessage);
-        try {
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.QUIZ_EVENTS_EXCHANGE,
-                "quiz.completion.user",
-                userMessage,
-                message -> {
-                    message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return message;
-                }
-            );
-            log.info("Successfully sent message to user service");
-        } catch (Exception e) {
-            log.error("Failed to send message to user service: {}", e.getMessage(), e);
-        }
+    private static Message persistent(Message message) {
+        message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        return message;
     }
 
     private Map<String, Object> createEnrollmentMessage(QuizResultDTO result, String userId, String courseId, int totalQuizzes, int completedQuizzes, double progress) {
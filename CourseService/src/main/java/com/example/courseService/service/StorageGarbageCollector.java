@@ -0,0 +1,319 @@
+package com.example.courseService.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.example.courseService.dto.response.StorageGcReport;
+import com.example.courseService.model.Certificate;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.FileUpload;
+import com.example.courseService.model.InstructorProfile;
+import com.example.courseService.model.MediaDeletionJob;
+import com.example.courseService.model.MediaUploadSession;
+import com.example.courseService.model.Module;
+import com.example.courseService.model.Resource;
+import com.example.courseService.model.StoredFile;
+import com.example.courseService.model.StudentAssignment;
+import com.example.courseService.model.Topic;
+import com.example.courseService.model.UploadStatus;
+import com.mongodb.client.MongoCollection;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Mark-and-sweep over the bucket. Every key still referenced from Mongo is marked (course,
+ * module and topic media, certificates, submissions, resources, the stored file registry and
+ * uploads in flight); objects under the managed prefixes that are unmarked and older than the
+ * grace period are handed to {@link MediaDeletionService}. Multipart uploads that were never
+ * completed are aborted, since their parts are billed but never listed as objects.
+ * Objects outside the managed prefixes are never touched.
+ */
+@Service
+@Slf4j
+public class StorageGarbageCollector {
+    private static final String LOCK_KEY = "storage-gc:lock";
+    private static final int SAMPLE_SIZE = 100;
+    // Keeps each deletion job document well below Mongo's size limit
+    private static final int KEYS_PER_JOB = 10000;
+
+    private final AmazonS3 s3Client;
+    private final MongoTemplate mongoTemplate;
+    private final MediaDeletionService mediaDeletionService;
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${application.bucket.name}")
+    private String bucketName;
+
+    @Value("${app.storage-gc.prefixes:temp/,courses/,files/}")
+    private List<String> prefixes;
+
+    @Value("${app.storage-gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage-gc.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${app.storage-gc.interval-hours:24}")
+    private long intervalHours;
+
+    // Younger objects and uploads are left alone: their reference may not be saved yet
+    @Value("${app.storage-gc.grace-hours:24}")
+    private long graceHours;
+
+    public StorageGarbageCollector(AmazonS3 s3Client, MongoTemplate mongoTemplate,
+            MediaDeletionService mediaDeletionService, StringRedisTemplate redisTemplate) {
+        this.s3Client = s3Client;
+        this.mongoTemplate = mongoTemplate;
+        this.mediaDeletionService = mediaDeletionService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    collect(dryRun);
+                } catch (Exception e) {
+                    log.error("Storage garbage collection failed: {}", e.getMessage(), e);
+                }
+            }, intervalHours, intervalHours, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs one collection. A dry run only reports what would be aborted and deleted.
+     * Returns null when another instance is collecting.
+     */
+    public StorageGcReport collect(boolean dryRun) {
+        String owner = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, owner, Duration.ofHours(Math.max(1, intervalHours)));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("Skipping storage garbage collection, another instance holds the lock");
+            return null;
+        }
+        try {
+            return doCollect(dryRun);
+        } finally {
+            if (owner.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    private StorageGcReport doCollect(boolean dryRun) {
+        StorageGcReport report = StorageGcReport.builder()
+                .dryRun(dryRun)
+                .startedAt(new Date())
+                .build();
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(graceHours));
+
+        Set<String> activeUploadIds = new HashSet<>();
+        Set<String> referenced = markReferencedKeys(cutoff, activeUploadIds);
+        report.setReferencedKeys(referenced.size());
+
+        for (String prefix : prefixes) {
+            abortStaleUploads(prefix, cutoff, activeUploadIds, dryRun, report);
+        }
+
+        List<String> orphans = new ArrayList<>();
+        for (String prefix : prefixes) {
+            sweepPrefix(prefix, cutoff, referenced, dryRun, orphans, report);
+        }
+        if (!dryRun && !orphans.isEmpty()) {
+            queueDeletion(orphans, report);
+        }
+
+        report.setFinishedAt(new Date());
+        log.info("Storage garbage collection{}: {} objects scanned, {} orphaned ({} bytes), {} stale uploads",
+                dryRun ? " (dry run)" : "", report.getScannedObjects(), report.getOrphanedObjects(),
+                report.getOrphanedBytes(), report.getStaleUploads());
+        return report;
+    }
+
+    private Set<String> markReferencedKeys(Date cutoff, Set<String> activeUploadIds) {
+        Set<String> referenced = new HashSet<>();
+        Consumer<String> mark = urlOrKey -> {
+            String key = mediaDeletionService.toKey(urlOrKey);
+            if (key != null && !key.isBlank()) {
+                referenced.add(key);
+            }
+        };
+
+        // Raw documents with projections: cheap, and no DBRefs are resolved on the way
+        markField(Course.class, mark, "featuredImage.url", "featuredImage.name", "thumbnail.url", "thumbnail.name");
+        markField(Module.class, mark, "thumbnailUrl", "topics.videoUrl");
+        markField(Topic.class, mark, "videoUrl");
+        markField(Certificate.class, mark, "certificate.url", "certificate.name");
+        markField(StudentAssignment.class, mark, "file.url", "file.name");
+        markField(Resource.class, mark, "url");
+        markField(InstructorProfile.class, mark, "avatarUrl");
+        markField(StoredFile.class, mark, "key");
+        markField(MediaUploadSession.class, mark, "s3Key");
+        // Queued deletions are handled by their job
+        markField(MediaDeletionJob.class, mark, "pendingKeys");
+
+        for (Document upload : collection(FileUpload.class).find()
+                .projection(new Document("status", 1).append("courseId", 1).append("updatedAt", 1)
+                        .append("uploadId", 1).append("tempKey", 1).append("finalKey", 1))) {
+            String status = upload.getString("status");
+            Date updatedAt = upload.getDate("updatedAt");
+            boolean inFlight = UploadStatus.INITIALIZED.name().equals(status) || UploadStatus.IN_PROGRESS.name().equals(status);
+            boolean recent = updatedAt != null && updatedAt.after(cutoff);
+            // Standalone files are referenced from other services this collector cannot see
+            boolean standalone = UploadStatus.COMPLETED.name().equals(status) && upload.getString("courseId") == null;
+            if ((inFlight && recent) || standalone) {
+                mark.accept(upload.getString("tempKey"));
+                mark.accept(upload.getString("finalKey"));
+            }
+            if (inFlight && recent) {
+                activeUploadIds.add(upload.getString("uploadId"));
+            }
+        }
+        for (Document session : collection(MediaUploadSession.class).find()
+                .projection(new Document("uploadId", 1))) {
+            activeUploadIds.add(session.getString("uploadId"));
+        }
+        return referenced;
+    }
+
+    private void markField(Class<?> type, Consumer<String> mark, String... paths) {
+        Document projection = new Document();
+        for (String path : paths) {
+            projection.append(path, 1);
+        }
+        for (Document document : collection(type).find().projection(projection)) {
+            for (String path : paths) {
+                collectValues(document, path.split("\\."), 0, mark);
+            }
+        }
+    }
+
+    // Walks a dotted path through embedded documents and arrays
+    private static void collectValues(Object node, String[] path, int depth, Consumer<String> mark) {
+        if (node instanceof List) {
+            for (Object element : (List<?>) node) {
+                collectValues(element, path, depth, mark);
+            }
+        } else if (depth == path.length) {
+            if (node instanceof String) {
+                mark.accept((String) node);
+            }
+        } else if (node instanceof Document) {
+            collectValues(((Document) node).get(path[depth]), path, depth + 1, mark);
+        }
+    }
+
+    private MongoCollection<Document> collection(Class<?> type) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type));
+    }
+
+    private void abortStaleUploads(String prefix, Date cutoff, Set<String> activeUploadIds, boolean dryRun,
+            StorageGcReport report) {
+        ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(bucketName).withPrefix(prefix);
+        List<String> aborted = new ArrayList<>();
+        MultipartUploadListing listing;
+        do {
+            listing = s3Client.listMultipartUploads(request);
+            for (MultipartUpload upload : listing.getMultipartUploads()) {
+                if (activeUploadIds.contains(upload.getUploadId()) || upload.getInitiated().after(cutoff)) {
+                    continue;
+                }
+                report.setStaleUploads(report.getStaleUploads() + 1);
+                if (dryRun) {
+                    continue;
+                }
+                try {
+                    s3Client.abortMultipartUpload(
+                            new AbortMultipartUploadRequest(bucketName, upload.getKey(), upload.getUploadId()));
+                    aborted.add(upload.getUploadId());
+                } catch (Exception e) {
+                    log.warn("Failed to abort stale upload {} of {}: {}", upload.getUploadId(), upload.getKey(), e.getMessage());
+                }
+            }
+            request.setKeyMarker(listing.getNextKeyMarker());
+            request.setUploadIdMarker(listing.getNextUploadIdMarker());
+        } while (listing.isTruncated());
+
+        if (!aborted.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    query(where("uploadId").in(aborted)
+                            .and("status").in(UploadStatus.INITIALIZED, UploadStatus.IN_PROGRESS, UploadStatus.FAILED)),
+                    new Update().set("status", UploadStatus.ABORTED).set("updatedAt", new Date()),
+                    FileUpload.class);
+            report.setAbortedUploads(report.getAbortedUploads() + aborted.size());
+        }
+    }
+
+    private void sweepPrefix(String prefix, Date cutoff, Set<String> referenced, boolean dryRun,
+            List<String> orphans, StorageGcReport report) {
+        ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withPrefix(prefix);
+        ListObjectsV2Result page;
+        do {
+            page = s3Client.listObjectsV2(request);
+            for (S3ObjectSummary object : page.getObjectSummaries()) {
+                report.setScannedObjects(report.getScannedObjects() + 1);
+                if (referenced.contains(object.getKey()) || object.getLastModified().after(cutoff)) {
+                    continue;
+                }
+                report.setOrphanedObjects(report.getOrphanedObjects() + 1);
+                report.setOrphanedBytes(report.getOrphanedBytes() + object.getSize());
+                if (report.getSampleOrphans().size() < SAMPLE_SIZE) {
+                    report.getSampleOrphans().add(object.getKey());
+                }
+                if (!dryRun) {
+                    orphans.add(object.getKey());
+                    if (orphans.size() >= KEYS_PER_JOB) {
+                        queueDeletion(orphans, report);
+                    }
+                }
+            }
+            request.setContinuationToken(page.getNextContinuationToken());
+        } while (page.isTruncated());
+    }
+
+    private void queueDeletion(List<String> orphans, StorageGcReport report) {
+        MediaDeletionJob job = mediaDeletionService.enqueue("storage-gc", bucketName, new ArrayList<>(orphans));
+        report.getDeletionJobIds().add(job.getId());
+        orphans.clear();
+    }
+}
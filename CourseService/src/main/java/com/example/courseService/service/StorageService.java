@@ -1,6 +1,8 @@
 package com.example.courseService.service;
 
 import com.example.courseService.model.File;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -8,7 +10,15 @@ import java.io.IOException;
 public interface StorageService {
     File uploadFile(MultipartFile file) throws IOException;
 
-    byte[] downloadFile(String fileName);
+    /**
+     * Streams the object to the response, honouring Range and If-None-Match.
+     */
+    void downloadFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException;
 
     void deleteFile(String fileName);
+
+    /**
+     * Deletes the object behind a stored file by its storage key, not its display name.
+     */
+    void deleteFile(File file);
 }
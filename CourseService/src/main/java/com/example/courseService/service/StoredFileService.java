@@ -0,0 +1,81 @@
+package com.example.courseService.service;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.courseService.model.StoredFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Content-addressed registry of uploaded objects, so identical uploads share one S3 object.
+ * Every update is a single atomic Mongo operation; an object is only released for deletion
+ * once no reference is left, and a reference taken meanwhile keeps it alive.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoredFileService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Takes a reference to the object already holding this content, if there is one.
+     */
+    public Optional<StoredFile> acquire(String sha256) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query(where("_id").is(sha256)),
+                new Update().inc("refCount", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                StoredFile.class));
+    }
+
+    /**
+     * Registers a freshly uploaded object with one reference. When another upload of the same
+     * content registered first, its object is referenced and returned instead; the caller then
+     * deletes its own copy.
+     */
+    public StoredFile register(StoredFile storedFile) {
+        storedFile.setRefCount(1);
+        storedFile.setCreatedAt(new Date());
+        try {
+            return mongoTemplate.insert(storedFile);
+        } catch (DuplicateKeyException e) {
+            return acquire(storedFile.getSha256()).orElseGet(() -> register(storedFile));
+        }
+    }
+
+    /**
+     * Drops one reference to the object under this key.
+     *
+     * @return whether the S3 object should be deleted: its last reference is gone, or it was
+     *         never registered (uploaded before the registry existed)
+     */
+    public boolean release(String key) {
+        StoredFile released = mongoTemplate.findAndModify(
+                query(where("key").is(key)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                StoredFile.class);
+        if (released == null) {
+            return true;
+        }
+        if (released.getRefCount() > 0) {
+            log.debug("Keeping shared object {} with {} references", key, released.getRefCount());
+            return false;
+        }
+        // Only removed if nobody acquired it since the decrement
+        return mongoTemplate.remove(query(where("key").is(key).and("refCount").lte(0)), StoredFile.class)
+                .getDeletedCount() > 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.courseService.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.courseService.dto.request.ModuleRequest;
+import com.example.courseService.dto.request.TopicRequest;
+import com.example.courseService.mapper.ModuleMapper;
+import com.example.courseService.mapper.TopicMapper;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.Module;
+import com.example.courseService.model.Topic;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes new modules and topics with unordered bulk inserts: one batch for every topic and one
+ * for every module, so the number of round trips no longer grows with the number of lessons.
+ * Ids are freshly generated by the mappers, which is what makes plain inserts safe here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyllabusPersistenceService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ModuleMapper moduleMapper;
+    private final TopicMapper topicMapper;
+
+    /**
+     * Maps the requested sections and their lessons onto the course without persisting them.
+     */
+    public List<Module> buildModules(List<ModuleRequest> requests, Course course) {
+        List<Module> modules = new ArrayList<>(requests.size());
+        for (ModuleRequest moduleRequest : requests) {
+            Module module = moduleMapper.toEntity(moduleRequest, course);
+            if (moduleRequest.getTopics() != null) {
+                module.setTopics(buildTopics(moduleRequest.getTopics(), module));
+            }
+            modules.add(module);
+        }
+        return modules;
+    }
+
+    public List<Topic> buildTopics(List<TopicRequest> requests, Module module) {
+        List<Topic> topics = new ArrayList<>(requests.size());
+        for (TopicRequest topicRequest : requests) {
+            topics.add(topicMapper.toTopic(topicRequest, module));
+        }
+        return topics;
+    }
+
+    /**
+     * Inserts the modules together with all of their topics.
+     */
+    public List<Module> insertModules(List<Module> modules) {
+        List<Topic> topics = new ArrayList<>();
+        for (Module module : modules) {
+            if (module.getTopics() != null) {
+                topics.addAll(module.getTopics());
+            }
+        }
+        insertTopics(topics);
+        if (!modules.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Module.class)
+                    .insert(modules)
+                    .execute();
+        }
+        log.debug("Inserted {} modules and {} topics", modules.size(), topics.size());
+        return modules;
+    }
+
+    public List<Topic> insertTopics(List<Topic> topics) {
+        if (!topics.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Topic.class)
+                    .insert(topics)
+                    .execute();
+        }
+        return topics;
+    }
+}
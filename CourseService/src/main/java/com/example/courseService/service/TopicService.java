@@ -11,6 +11,8 @@ import java.util.UUID;
 public interface TopicService {
     Topic createTopic(TopicRequest request);
 
+    List<Topic> createTopics(List<TopicRequest> requests);
+
     Topic updateTopic(@Valid TopicRequest lessonDetails, UUID id);
 
     List<TopicDTO> getAllTopics();
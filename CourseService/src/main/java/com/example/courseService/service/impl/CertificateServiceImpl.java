@@ -109,8 +109,8 @@ public class CertificateServiceImpl implements CertificateService {
 
         if (!existingCertificate.getCertificate().checkSumEquals(checksum)) {
             File uploadedFile = azureBlobService.uploadFile(file);
-            if (existingCertificate.getCertificate() != null && existingCertificate.getCertificate().getName() != null) {
-                azureBlobService.deleteFile(existingCertificate.getCertificate().getName());
+            if (existingCertificate.getCertificate() != null) {
+                azureBlobService.deleteFile(existingCertificate.getCertificate());
             }
             return uploadedFile;
         }
@@ -1,21 +1,23 @@
 package com.example.courseService.service.impl;
 
 import com.example.courseService.dto.request.ModuleRequest;
-import com.example.courseService.dto.request.TopicRequest;
 import com.example.courseService.event.CourseCreatedEvent;
-import com.example.courseService.mapper.ModuleMapper;
-import com.example.courseService.mapper.impl.TopicMapperImpl;
 import com.example.courseService.model.Module;
-import com.example.courseService.model.Topic;
-import com.example.courseService.repository.ModuleRepository;
-import com.example.courseService.repository.TopicRepository;
 import com.example.courseService.service.CourseService;
+import com.example.courseService.service.CourseCacheService;
+import com.example.courseService.service.CourseSimilarityService;
+import com.example.courseService.service.CourseStatsService;
+import com.example.courseService.service.InstructorProfileService;
+import com.example.courseService.service.MediaDeletionService;
 import com.example.courseService.service.StorageService;
+import com.example.courseService.service.SyllabusPersistenceService;
 import com.example.courseService.service.messaging.RabbitMQProducer;
+import com.example.courseService.utils.CourseCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,14 +33,19 @@ import com.example.courseService.dto.request.CourseRequest;
 import com.example.courseService.dto.request.UpdateCourseRequest;
 import com.example.courseService.dto.response.BatchCourseResponse;
 import com.example.courseService.dto.response.CourseDTO;
+import com.example.courseService.dto.response.CursorPageDTO;
+import com.example.courseService.dto.response.PriceStatisticsDTO;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.CourseStats;
 import com.example.courseService.model.File;
+import com.example.courseService.model.MediaDeletionJob;
 import com.example.courseService.repository.CourseRepository;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -46,7 +53,9 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.example.courseService.dto.response.StudyStatisticsResponse;
 import com.example.courseService.event.StudyStatisticsRequestEvent;
@@ -56,16 +65,20 @@ import com.example.courseService.service.messaging.StudyStatisticsResponseListen
 @Service
 @RequiredArgsConstructor
 public class CourseServiceImpl implements CourseService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final RabbitMQProducer rabbitMQProducer;
     private final CourseRepository courseRepository;
     private final CourseMapper courseMapper;
     private final StorageService storageService;
     private final MessageSource messageSource;
-    private final ModuleMapper moduleMapper;
-    private final TopicMapperImpl topicMapperImpl;
-    private final TopicRepository topicRepository;
-    private final ModuleRepository moduleRepository;
+    private final SyllabusPersistenceService syllabusPersistenceService;
     private final StudyStatisticsResponseListener responseListener;
+    private final CourseSimilarityService courseSimilarityService;
+    private final CourseStatsService courseStatsService;
+    private final InstructorProfileService instructorProfileService;
+    private final CourseCacheService courseCacheService;
+    private final MediaDeletionService mediaDeletionService;
 
     @Override
     public CourseDTO createCourse(CourseRequest courseRequest, MultipartFile featuredImage, MultipartFile thumbnail)
@@ -88,7 +101,12 @@ public class CourseServiceImpl implements CourseService {
                 course.getTitle(),
                 course.getDescription()));
 
-        return courseMapper.toDTO(courseRepository.save(course));
+        Course savedCourse = courseRepository.save(course);
+        courseCacheService.invalidate(savedCourse.getId());
+        courseSimilarityService.indexCourse(savedCourse.getId());
+        courseStatsService.markStale();
+
+        return courseMapper.toDTO(savedCourse);
     }
 
     @Override
@@ -131,6 +149,9 @@ public class CourseServiceImpl implements CourseService {
         }
 
         Course savedCourse = courseRepository.save(course);
+        courseCacheService.invalidate(id);
+        courseSimilarityService.indexCourse(savedCourse.getId());
+        courseStatsService.markStale();
         log.info("Successfully updated course {}", id);
 
         return courseMapper.toDTO(savedCourse);
@@ -181,9 +202,9 @@ public class CourseServiceImpl implements CourseService {
                 File oldFeaturedImage = course.getFeaturedImage();
                 File newFeaturedImageFile = storageService.uploadFile(newFeaturedImage);
 
-                if (oldFeaturedImage != null && oldFeaturedImage.getName() != null) {
+                if (oldFeaturedImage != null) {
                     try {
-                        storageService.deleteFile(oldFeaturedImage.getName());
+                        storageService.deleteFile(oldFeaturedImage);
                         log.info("Deleted old featured image: {}", oldFeaturedImage.getName());
                     } catch (Exception e) {
                         log.warn("Failed to delete old featured image: {}", e.getMessage());
@@ -200,9 +221,9 @@ public class CourseServiceImpl implements CourseService {
                 File oldThumbnail = course.getThumbnail();
                 File newThumbnailFile = storageService.uploadFile(newThumbnail);
 
-                if (oldThumbnail != null && oldThumbnail.getName() != null) {
+                if (oldThumbnail != null) {
                     try {
-                        storageService.deleteFile(oldThumbnail.getName());
+                        storageService.deleteFile(oldThumbnail);
                         log.info("Deleted old thumbnail: {}", oldThumbnail.getName());
                     } catch (Exception e) {
                         log.warn("Failed to delete old thumbnail: {}", e.getMessage());
@@ -237,13 +258,16 @@ public class CourseServiceImpl implements CourseService {
         }
 
         if (request.getSyllabus() != null) {
-            // Delete old video files from existing syllabus before replacing
-            deleteTopicMedia(course);
-
             List<Module> newSyllabus = handleSyllabus(request.getSyllabus(), course);
             // Simple comparison - in production you might want more sophisticated
             // comparison
             if (!Objects.equals(course.getSyllabus(), newSyllabus)) {
+                // Videos the new syllabus no longer uses are deleted in the background
+                List<String> replacedVideos = topicVideos(course.getSyllabus());
+                replacedVideos.removeAll(topicVideos(newSyllabus));
+                if (!replacedVideos.isEmpty()) {
+                    mediaDeletionService.enqueue("course", course.getId().toString(), replacedVideos);
+                }
                 course.setSyllabus(newSyllabus);
                 changed = true;
             }
@@ -275,131 +299,146 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public Course getCourseById(UUID id) {
-        return courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + id));
+        return courseCacheService.getCourse(id, () -> courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + id)));
     }
 
     @Override
     public CourseDTO getCourseDTObyId(UUID id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + id));
-        Object instructorDetails = null;
-        if (course.getInstructors() != null && !course.getInstructors().isEmpty()) {
-            instructorDetails = rabbitMQProducer.getInstructorDetails(course.getInstructors());
-        }
-
-        return courseMapper.toFullDTO(course, instructorDetails);
+        return courseCacheService.getCourseDTO(id, () -> {
+            Course course = getCourseById(id);
+            // Served from the local instructor replica, no call to UserService
+            return courseMapper.toFullDTO(course, instructorProfileService.getInstructors(course.getInstructors()));
+        });
     }
 
     @Override
     public Page<CourseDTO> getAllCourses(int page, int size) {
         Page<Course> courses = courseRepository.findAllSortedByCreatedAtDesc(PageRequest.of(page, size));
-        return courses.map(courseMapper::toDTO);
+        return new PageImpl<>(courseMapper.toDTOs(courses.getContent()), courses.getPageable(),
+                courses.getTotalElements());
     }
 
     @Override
     @Transactional
-    public void deleteCourse(UUID id) {
-        Course course = getCourseById(id);
+    public MediaDeletionJob deleteCourse(UUID id) {
+        // Read past the cache: media cleanup must see the stored syllabus
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + id));
 
-        deleteCourseFeaturedMedia(course);
-        deleteModuleMedia(course);
-        deleteTopicMedia(course);
+        List<String> media = new ArrayList<>();
+        collectCourseMedia(course, media);
 
         courseRepository.delete(course);
-    }
+        courseCacheService.invalidate(id);
+        courseSimilarityService.removeCourse(id);
+        courseStatsService.markStale();
 
-    private void deleteCourseFeaturedMedia(Course course) {
-        if (course.getFeaturedImage() != null && course.getFeaturedImage().getName() != null) {
-            try {
-                storageService.deleteFile(course.getFeaturedImage().getName());
-                log.info("Deleted featured image for course: {}", course.getId());
-            } catch (Exception e) {
-                log.error("Error deleting featured image for course {}: {}", course.getId(), e.getMessage());
-            }
-        }
-
-        if (course.getThumbnail() != null && course.getThumbnail().getName() != null) {
-            try {
-                storageService.deleteFile(course.getThumbnail().getName());
-                log.info("Deleted thumbnail for course: {}", course.getId());
-            } catch (Exception e) {
-                log.error("Error deleting thumbnail for course {}: {}", course.getId(), e.getMessage());
-            }
-        }
+        return mediaDeletionService.enqueue("course", id.toString(), media);
     }
 
-    private void deleteModuleMedia(Course course) {
+    // URLs of every stored object the course points at: featured media, module thumbnails, topic videos
+    private void collectCourseMedia(Course course, List<String> media) {
+        addFileMedia(course.getFeaturedImage(), media);
+        addFileMedia(course.getThumbnail(), media);
+
         if (course.getSyllabus() != null) {
             course.getSyllabus().forEach(module -> {
-                if (module != null && module.getThumbnailUrl() != null) {
-                    try {
-                        storageService.deleteFile(extractFileNameFromUrl(module.getThumbnailUrl()));
-                        log.info("Deleted module thumbnail for module: {} in course: {}", module.getId(),
-                                course.getId());
-                    } catch (Exception e) {
-                        log.error("Error deleting module thumbnail for module {} in course {}: {}",
-                                module.getId(), course.getId(), e.getMessage());
-                    }
+                if (module == null) {
+                    return;
+                }
+                if (module.getThumbnailUrl() != null) {
+                    media.add(module.getThumbnailUrl());
                 }
             });
+            media.addAll(topicVideos(course.getSyllabus()));
         }
     }
 
-    private void deleteTopicMedia(Course course) {
-        if (course.getSyllabus() != null) {
-            course.getSyllabus().forEach(module -> {
+    private List<String> topicVideos(List<Module> syllabus) {
+        List<String> videos = new ArrayList<>();
+        if (syllabus != null) {
+            syllabus.forEach(module -> {
                 if (module != null && module.getTopics() != null) {
                     module.getTopics().forEach(topic -> {
                         if (topic != null && topic.getVideoUrl() != null) {
-                            try {
-                                storageService.deleteFile(extractFileNameFromUrl(topic.getVideoUrl()));
-                                log.info("Deleted topic video for topic: {} in module: {} in course: {}",
-                                        topic.getId(), module.getId(), course.getId());
-                            } catch (Exception e) {
-                                log.error("Error deleting topic video for topic {} in module {} in course {}: {}",
-                                        topic.getId(), module.getId(), course.getId(), e.getMessage());
-                            }
+                            videos.add(topic.getVideoUrl());
                         }
                     });
                 }
             });
         }
+        return videos;
     }
 
-    private String extractFileNameFromUrl(String url) {
-        if (url == null)
-            return null;
-        // Extract filename from S3 URL
-        // Example URL: https://bucket.s3.region.amazonaws.com/filename.ext
-        // or: https://bucket.s3.region.amazonaws.com/path/to/filename.ext
-        return url.substring(url.lastIndexOf('/') + 1);
+    private void addFileMedia(File file, List<String> media) {
+        if (file == null) {
+            return;
+        }
+        // The URL carries the full key; the name is only the key for uploads stored at the bucket root
+        if (file.getUrl() != null) {
+            media.add(file.getUrl());
+        } else if (file.getName() != null) {
+            media.add(file.getName());
+        }
     }
 
     @Override
     @Transactional
-    public void deleteAllCoursesBySchoolId(UUID schoolId) {
+    public MediaDeletionJob deleteAllCoursesBySchoolId(UUID schoolId) {
         log.info("Starting deletion of all courses for school: {}", schoolId);
         List<Course> courses = courseRepository.findAllBySchoolId(schoolId);
 
         log.info("Found {} courses to delete for school: {}", courses.size(), schoolId);
+        List<String> media = new ArrayList<>();
+        courses.forEach(course -> collectCourseMedia(course, media));
+
+        courseRepository.deleteAll(courses);
         courses.forEach(course -> {
-            try {
-                deleteCourse(course.getId());
-                log.info("Successfully deleted course: {}", course.getId());
-            } catch (Exception e) {
-                log.error("Error deleting course {}: {}", course.getId(), e.getMessage());
-                throw e;
-            }
+            courseCacheService.invalidate(course.getId());
+            courseSimilarityService.removeCourse(course.getId());
         });
+        courseStatsService.markStale();
 
-        log.info("Completed deletion of all courses for school: {}", schoolId);
+        log.info("Deleted {} courses for school: {}, media cleanup continues in the background", courses.size(), schoolId);
+        return mediaDeletionService.enqueue("school", schoolId.toString(), media);
     }
 
     @Override
     public Page<CourseDTO> getCheapestCourses(Pageable pageable) {
         Page<Course> cheapestCourses = courseRepository.findAllByOrderByPriceAsc(pageable);
-        return cheapestCourses.map(courseMapper::toDTO);
+        return new PageImpl<>(courseMapper.toDTOs(cheapestCourses.getContent()), cheapestCourses.getPageable(),
+                cheapestCourses.getTotalElements());
+    }
+
+    @Override
+    public CursorPageDTO<CourseDTO> getCoursesByCursor(String cursor, int size) {
+        CourseCursor after = cursor != null && !cursor.isBlank()
+                ? CourseCursor.decode(cursor, CourseCursor.Order.NEWEST) : null;
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        return toCursorPage(courseRepository.findNewestAfter(after, pageSize + 1), pageSize, CourseCursor.Order.NEWEST);
+    }
+
+    @Override
+    public CursorPageDTO<CourseDTO> getCheapestCoursesByCursor(String cursor, int size) {
+        CourseCursor after = cursor != null && !cursor.isBlank()
+                ? CourseCursor.decode(cursor, CourseCursor.Order.CHEAPEST) : null;
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        return toCursorPage(courseRepository.findCheapestAfter(after, pageSize + 1), pageSize, CourseCursor.Order.CHEAPEST);
+    }
+
+    // One extra course is fetched to tell whether another page exists, so no count query is needed
+    private CursorPageDTO<CourseDTO> toCursorPage(List<Course> courses, int size, CourseCursor.Order order) {
+        boolean hasNext = courses.size() > size;
+        List<Course> pageContent = hasNext ? courses.subList(0, size) : courses;
+        String nextCursor = hasNext
+                ? CourseCursor.after(pageContent.get(pageContent.size() - 1), order).encode() : null;
+        return CursorPageDTO.<CourseDTO>builder()
+                .content(courseMapper.toDTOs(pageContent))
+                .size(pageContent.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
@@ -442,9 +481,7 @@ public class CourseServiceImpl implements CourseService {
             }
         });
 
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(courseMapper::toDTO)
-                .collect(Collectors.toList());
+        List<CourseDTO> courseDTOs = courseMapper.toDTOs(courses);
 
         return BatchCourseResponse.builder()
                 .success(!courseDTOs.isEmpty())
@@ -464,9 +501,7 @@ public class CourseServiceImpl implements CourseService {
         }
 
         List<Course> courses = courseRepository.findBySchoolIdIn(schoolIds);
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(courseMapper::toDTO)
-                .collect(Collectors.toList());
+        List<CourseDTO> courseDTOs = courseMapper.toDTOs(courses);
 
         return BatchCourseResponse.builder()
                 .success(true)
@@ -501,129 +536,107 @@ public class CourseServiceImpl implements CourseService {
 
     public List<Map<String, Object>> getCoursesBySchoolIdWithDetails(UUID schoolId) {
         log.info("Getting detailed courses for school {}", schoolId);
-        List<Course> courses = courseRepository.findAllBySchoolId(schoolId);
-        
-        return courses.stream().map(course -> {
-            Map<String, Object> courseData = new HashMap<>();
-            courseData.put("courseId", course.getId().toString());
-            courseData.put("title", course.getTitle());
-            courseData.put("description", course.getDescription());
-            courseData.put("longDescription", course.getLongDescription());
-            courseData.put("price", course.getPrice());
-            courseData.put("durationInWeeks", course.getDurationInWeeks());
-            courseData.put("language", course.getLanguage() != null ? course.getLanguage().toString() : null);
-            courseData.put("subtitles", course.getSubtitles());
-            courseData.put("tags", course.getTags());
-            courseData.put("requirements", course.getRequirements());
-            courseData.put("learningObjectives", course.getLearningObjectives());
-            courseData.put("instructors", course.getInstructors() != null ? 
-                course.getInstructors().stream().map(UUID::toString).collect(Collectors.toList()) : new ArrayList<>());
-            courseData.put("categoryId", course.getCategoryId() != null ? course.getCategoryId().toString() : null);
-            courseData.put("enrollmentCount", 0); // Default enrollment count since Course model doesn't have this field
-            courseData.put("status", "ACTIVE"); // Default status since Course model doesn't have this field
-            courseData.put("createdAt", course.getCreatedAt() != null ? course.getCreatedAt().toString() : null);
-            courseData.put("updatedAt", course.getUpdatedAt() != null ? course.getUpdatedAt().toString() : null);
-            
-            // Add featured image info if available
-            if (course.getFeaturedImage() != null) {
-                Map<String, Object> imageData = new HashMap<>();
-                imageData.put("name", course.getFeaturedImage().getName());
-                imageData.put("url", course.getFeaturedImage().getUrl());
-                imageData.put("size", course.getFeaturedImage().getSize());
-                imageData.put("type", course.getFeaturedImage().getType());
-                imageData.put("key", course.getFeaturedImage().getKey());
-                courseData.put("featuredImage", imageData);
-            }
-            
-            // Add thumbnail info if available
-            if (course.getThumbnail() != null) {
-                Map<String, Object> thumbnailData = new HashMap<>();
-                thumbnailData.put("name", course.getThumbnail().getName());
-                thumbnailData.put("url", course.getThumbnail().getUrl());
-                thumbnailData.put("size", course.getThumbnail().getSize());
-                thumbnailData.put("type", course.getThumbnail().getType());
-                thumbnailData.put("key", course.getThumbnail().getKey());
-                courseData.put("thumbnail", thumbnailData);
-            }
-            
-            return courseData;
-        }).collect(Collectors.toList());
+        try (Stream<Course> courses = courseRepository.streamForExportBySchoolId(schoolId)) {
+            return courses.map(course -> toExportData(course, false)).collect(Collectors.toList());
+        }
     }
 
     @Override
     public List<Map<String, Object>> getCoursesByInstructorIdWithDetails(UUID instructorId) {
         log.info("Getting detailed courses for instructor {}", instructorId);
-        List<Course> courses = courseRepository.findCoursesByInstructorId(instructorId);
-        
-        return courses.stream().map(course -> {
-            Map<String, Object> courseData = new HashMap<>();
-            courseData.put("courseId", course.getId().toString());
-            courseData.put("title", course.getTitle());
-            courseData.put("description", course.getDescription());
-            courseData.put("longDescription", course.getLongDescription());
-            courseData.put("price", course.getPrice());
-            courseData.put("durationInWeeks", course.getDurationInWeeks());
-            courseData.put("language", course.getLanguage() != null ? course.getLanguage().toString() : null);
-            courseData.put("subtitles", course.getSubtitles());
-            courseData.put("tags", course.getTags());
-            courseData.put("requirements", course.getRequirements());
-            courseData.put("learningObjectives", course.getLearningObjectives());
-            courseData.put("instructors", course.getInstructors() != null ? 
-                course.getInstructors().stream().map(UUID::toString).collect(Collectors.toList()) : new ArrayList<>());
-            courseData.put("categoryId", course.getCategoryId() != null ? course.getCategoryId().toString() : null);
-            courseData.put("schoolId", course.getSchoolId() != null ? course.getSchoolId().toString() : null);
-            courseData.put("enrollmentCount", 0); // Default enrollment count since Course model doesn't have this field
-            courseData.put("status", "ACTIVE"); // Default status since Course model doesn't have this field
-            courseData.put("createdAt", course.getCreatedAt() != null ? course.getCreatedAt().toString() : null);
-            courseData.put("updatedAt", course.getUpdatedAt() != null ? course.getUpdatedAt().toString() : null);
-            
-            // Add featured image info if available
-            if (course.getFeaturedImage() != null) {
-                Map<String, Object> imageData = new HashMap<>();
-                imageData.put("name", course.getFeaturedImage().getName());
-                imageData.put("url", course.getFeaturedImage().getUrl());
-                imageData.put("size", course.getFeaturedImage().getSize());
-                imageData.put("type", course.getFeaturedImage().getType());
-                imageData.put("key", course.getFeaturedImage().getKey());
-                courseData.put("featuredImage", imageData);
-            }
-            
-            // Add thumbnail info if available
-            if (course.getThumbnail() != null) {
-                Map<String, Object> thumbnailData = new HashMap<>();
-                thumbnailData.put("name", course.getThumbnail().getName());
-                thumbnailData.put("url", course.getThumbnail().getUrl());
-                thumbnailData.put("size", course.getThumbnail().getSize());
-                thumbnailData.put("type", course.getThumbnail().getType());
-                thumbnailData.put("key", course.getThumbnail().getKey());
-                courseData.put("thumbnail", thumbnailData);
-            }
-            
-            return courseData;
-        }).collect(Collectors.toList());
+        try (Stream<Course> courses = courseRepository.streamForExportByInstructorId(instructorId)) {
+            return courses.map(course -> toExportData(course, true)).collect(Collectors.toList());
+        }
     }
 
-    private List<Module> handleSyllabus(List<ModuleRequest> syllabusRequest, Course course) {
-        List<Module> modules = new ArrayList<>();
+    @Override
+    public int exportCoursesBySchoolId(UUID schoolId, int chunkSize, Consumer<List<Map<String, Object>>> chunkConsumer) {
+        log.info("Streaming courses for school {} in chunks of {}", schoolId, chunkSize);
+        try (Stream<Course> courses = courseRepository.streamForExportBySchoolId(schoolId)) {
+            return exportInChunks(courses, chunkSize, false, chunkConsumer);
+        }
+    }
 
-        for (ModuleRequest moduleRequest : syllabusRequest) {
-            Module module = moduleMapper.toEntity(moduleRequest, course);
-            List<Topic> topics = handleTopics(moduleRequest.getTopics(), module);
-            module.setTopics(topics);
-            modules.add(module);
-            moduleRepository.save(module);
+    @Override
+    public int exportCoursesByInstructorId(UUID instructorId, int chunkSize, Consumer<List<Map<String, Object>>> chunkConsumer) {
+        log.info("Streaming courses for instructor {} in chunks of {}", instructorId, chunkSize);
+        try (Stream<Course> courses = courseRepository.streamForExportByInstructorId(instructorId)) {
+            return exportInChunks(courses, chunkSize, true, chunkConsumer);
         }
-        return modules;
     }
 
-    private List<Topic> handleTopics(List<TopicRequest> topicsRequest, Module module) {
-        List<Topic> topics = new ArrayList<>();
-        for (TopicRequest topicRequest : topicsRequest) {
-            Topic topic = topicMapperImpl.toTopic(topicRequest, module);
-            topics.add(topic);
-            topicRepository.save(topic);
+    // Courses are read from an open cursor, so at most one chunk is held in memory at a time
+    private int exportInChunks(Stream<Course> courses, int chunkSize, boolean includeSchoolId,
+                               Consumer<List<Map<String, Object>>> chunkConsumer) {
+        int size = Math.max(1, chunkSize);
+        List<Map<String, Object>> chunk = new ArrayList<>(size);
+        int total = 0;
+        Iterator<Course> iterator = courses.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(toExportData(iterator.next(), includeSchoolId));
+            total++;
+            if (chunk.size() == size) {
+                chunkConsumer.accept(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
         }
-        return topics;
+        return total;
+    }
+
+    private Map<String, Object> toExportData(Course course, boolean includeSchoolId) {
+        Map<String, Object> courseData = new HashMap<>();
+        courseData.put("courseId", course.getId().toString());
+        courseData.put("title", course.getTitle());
+        courseData.put("description", course.getDescription());
+        courseData.put("longDescription", course.getLongDescription());
+        courseData.put("price", course.getPrice());
+        courseData.put("durationInWeeks", course.getDurationInWeeks());
+        courseData.put("language", course.getLanguage() != null ? course.getLanguage().toString() : null);
+        courseData.put("subtitles", course.getSubtitles());
+        courseData.put("tags", course.getTags());
+        courseData.put("requirements", course.getRequirements());
+        courseData.put("learningObjectives", course.getLearningObjectives());
+        courseData.put("instructors", course.getInstructors() != null ? 
+            course.getInstructors().stream().map(UUID::toString).collect(Collectors.toList()) : new ArrayList<>());
+        courseData.put("categoryId", course.getCategoryId() != null ? course.getCategoryId().toString() : null);
+        if (includeSchoolId) {
+            courseData.put("schoolId", course.getSchoolId() != null ? course.getSchoolId().toString() : null);
+        }
+        courseData.put("enrollmentCount", 0); // Default enrollment count since Course model doesn't have this field
+        courseData.put("status", "ACTIVE"); // Default status since Course model doesn't have this field
+        courseData.put("createdAt", course.getCreatedAt() != null ? course.getCreatedAt().toString() : null);
+        courseData.put("updatedAt", course.getUpdatedAt() != null ? course.getUpdatedAt().toString() : null);
+        
+        // Add featured image info if available
+        if (course.getFeaturedImage() != null) {
+            courseData.put("featuredImage", toFileData(course.getFeaturedImage()));
+        }
+        
+        // Add thumbnail info if available
+        if (course.getThumbnail() != null) {
+            courseData.put("thumbnail", toFileData(course.getThumbnail()));
+        }
+        
+        return courseData;
+    }
+
+    private Map<String, Object> toFileData(File file) {
+        Map<String, Object> fileData = new HashMap<>();
+        fileData.put("name", file.getName());
+        fileData.put("url", file.getUrl());
+        fileData.put("size", file.getSize());
+        fileData.put("type", file.getType());
+        fileData.put("key", file.getKey());
+        return fileData;
+    }
+
+    // Two bulk inserts for the whole syllabus instead of a save per module and per lesson
+    private List<Module> handleSyllabus(List<ModuleRequest> syllabusRequest, Course course) {
+        return syllabusPersistenceService.insertModules(
+                syllabusPersistenceService.buildModules(syllabusRequest, course));
     }
 
     @Override
@@ -693,156 +706,62 @@ public class CourseServiceImpl implements CourseService {
         Map<String, Object> stats = new HashMap<>();
         
         try {
+            // Counts and distributions come from the materialized snapshot, not a collection scan
+            CourseStats courseStats = courseStatsService.getCourseStats();
+            
             // === BASIC COURSE COUNTS ===
-            long totalCourses = courseRepository.count();
+            long totalCourses = courseStats.getTotalCourses();
             stats.put("totalCourses", totalCourses);
             
             // Recent courses (last 30 days)
-            long recentCourses = courseRepository.countRecentCourses();
+            long recentCourses = courseStats.getRecentCourses();
             stats.put("recentCourses", recentCourses);
             
             // === COURSE DISTRIBUTION ===
-            // Courses by school
-            List<Object[]> coursesBySchool = courseRepository.countCoursesBySchool();
-            Map<String, Long> schoolCourseCount = new HashMap<>();
-            for (Object[] row : coursesBySchool) {
-                String schoolId = row[0] != null ? row[0].toString() : "unknown";
-                Long count = (Long) row[1];
-                schoolCourseCount.put(schoolId, count);
-            }
+            Map<String, Long> schoolCourseCount = courseStats.getCoursesBySchool();
             stats.put("coursesBySchool", schoolCourseCount);
             
-            // Courses by language
-            List<Object[]> coursesByLanguage = courseRepository.countCoursesByLanguage();
-            Map<String, Long> languageCount = new HashMap<>();
-            for (Object[] row : coursesByLanguage) {
-                String language = row[0] != null ? row[0].toString() : "unknown";
-                Long count = (Long) row[1];
-                languageCount.put(language, count);
-            }
+            Map<String, Long> languageCount = courseStats.getCoursesByLanguage();
             stats.put("coursesByLanguage", languageCount);
             
             // === PRICING ANALYSIS ===
-            // Get all courses with prices for detailed analysis
-            List<Course> coursesWithPrices = courseRepository.findAllWithPrice();
+            // Aggregated by Mongo in one round trip; no course documents are loaded
+            PriceStatisticsDTO priceStatistics = courseRepository.getPriceStatistics();
             
             // Average course price
-            Double avgPrice = courseRepository.getAverageCoursePrice();
-            stats.put("averageCoursePrice", avgPrice != null ? avgPrice : 0.0);
+            stats.put("averageCoursePrice", priceStatistics.getAveragePrice());
             
             // Price distribution
-            Map<String, Long> priceDistribution = new HashMap<>();
-            coursesWithPrices.forEach(course -> {
-                double price = course.getPrice() != null ? course.getPrice().doubleValue() : 0.0;
-                String category;
-                if (price == 0) category = "Free";
-                else if (price <= 50) category = "Budget ($1-50)";
-                else if (price <= 100) category = "Affordable ($51-100)";
-                else if (price <= 200) category = "Standard ($101-200)";
-                else if (price <= 500) category = "Premium ($201-500)";
-                else category = "Luxury ($500+)";
-                
-                priceDistribution.put(category, priceDistribution.getOrDefault(category, 0L) + 1);
-            });
-            stats.put("priceDistribution", priceDistribution);
+            stats.put("priceDistribution", priceStatistics.getDistribution());
+            stats.put("priceHistogram", priceStatistics.getHistogram());
             
             // Price statistics
             Map<String, Object> priceStats = new HashMap<>();
-            if (!coursesWithPrices.isEmpty()) {
-                double minPrice = coursesWithPrices.stream()
-                    .mapToDouble(course -> course.getPrice() != null ? course.getPrice().doubleValue() : 0.0)
-                    .min().orElse(0.0);
-                double maxPrice = coursesWithPrices.stream()
-                    .mapToDouble(course -> course.getPrice() != null ? course.getPrice().doubleValue() : 0.0)
-                    .max().orElse(0.0);
-                
-                priceStats.put("minPrice", minPrice);
-                priceStats.put("maxPrice", maxPrice);
-                priceStats.put("freeCourses", coursesWithPrices.stream()
-                    .mapToLong(course -> (course.getPrice() == null || course.getPrice().compareTo(java.math.BigDecimal.ZERO) == 0) ? 1L : 0L)
-                    .sum());
-                priceStats.put("paidCourses", coursesWithPrices.stream()
-                    .mapToLong(course -> (course.getPrice() != null && course.getPrice().compareTo(java.math.BigDecimal.ZERO) > 0) ? 1L : 0L)
-                    .sum());
+            if (priceStatistics.getPricedCourses() > 0) {
+                priceStats.put("minPrice", priceStatistics.getMinPrice());
+                priceStats.put("maxPrice", priceStatistics.getMaxPrice());
+                priceStats.put("freeCourses", priceStatistics.getFreeCourses());
+                priceStats.put("paidCourses", priceStatistics.getPaidCourses());
+                priceStats.put("percentiles", priceStatistics.getPercentiles());
             }
             stats.put("priceStats", priceStats);
             
             // === CONTENT ANALYSIS ===
-            List<Course> allCourses = courseRepository.findAll();
-            
-            // Duration analysis
-            Map<String, Long> durationDistribution = new HashMap<>();
-            allCourses.forEach(course -> {
-                Integer duration = course.getDurationInWeeks();
-                String category;
-                if (duration == null) category = "Unknown";
-                else if (duration <= 2) category = "Short (1-2 weeks)";
-                else if (duration <= 6) category = "Medium (3-6 weeks)";
-                else if (duration <= 12) category = "Long (7-12 weeks)";
-                else category = "Extended (12+ weeks)";
-                
-                durationDistribution.put(category, durationDistribution.getOrDefault(category, 0L) + 1);
-            });
-            stats.put("durationDistribution", durationDistribution);
-            
-            // Content richness analysis
-            Map<String, Long> contentRichness = new HashMap<>();
-            allCourses.forEach(course -> {
-                int contentCount = 0;
-                if (course.getFeaturedImage() != null) contentCount++;
-                if (course.getThumbnail() != null) contentCount++;
-                if (course.getSyllabus() != null && !course.getSyllabus().isEmpty()) {
-                    contentCount += course.getSyllabus().size();
-                }
-                if (course.getLearningObjectives() != null && !course.getLearningObjectives().isEmpty()) contentCount++;
-                if (course.getRequirements() != null && !course.getRequirements().isEmpty()) contentCount++;
-                
-                String category;
-                if (contentCount == 0) category = "Minimal Content";
-                else if (contentCount <= 3) category = "Basic Content";
-                else if (contentCount <= 8) category = "Rich Content";
-                else category = "Very Rich Content";
-                
-                contentRichness.put(category, contentRichness.getOrDefault(category, 0L) + 1);
-            });
-            stats.put("contentRichness", contentRichness);
+            stats.put("durationDistribution", courseStats.getDurationDistribution());
+            stats.put("contentRichness", courseStats.getContentRichness());
             
             // === INSTRUCTOR ANALYSIS ===
-            Map<String, Long> instructorDistribution = new HashMap<>();
-            allCourses.forEach(course -> {
-                int instructorCount = course.getInstructors() != null ? course.getInstructors().size() : 0;
-                String category;
-                if (instructorCount == 0) category = "No Instructors";
-                else if (instructorCount == 1) category = "Single Instructor";
-                else if (instructorCount <= 3) category = "Small Team (2-3)";
-                else category = "Large Team (4+)";
-                
-                instructorDistribution.put(category, instructorDistribution.getOrDefault(category, 0L) + 1);
-            });
-            stats.put("instructorDistribution", instructorDistribution);
+            stats.put("instructorDistribution", courseStats.getInstructorDistribution());
             
             // === CATEGORY ANALYSIS ===
-            Map<String, Long> categoryDistribution = new HashMap<>();
-            allCourses.forEach(course -> {
-                String categoryId = course.getCategoryId() != null ? course.getCategoryId().toString() : "Uncategorized";
-                categoryDistribution.put(categoryId, categoryDistribution.getOrDefault(categoryId, 0L) + 1);
-            });
-            stats.put("categoryDistribution", categoryDistribution);
+            stats.put("categoryDistribution", courseStats.getCategoryDistribution());
             
             // === QUALITY METRICS ===
             Map<String, Object> qualityMetrics = new HashMap<>();
-            long coursesWithThumbnails = allCourses.stream()
-                .mapToLong(course -> course.getThumbnail() != null ? 1L : 0L)
-                .sum();
-            long coursesWithFeaturedImages = allCourses.stream()
-                .mapToLong(course -> course.getFeaturedImage() != null ? 1L : 0L)
-                .sum();
-            long coursesWithSyllabus = allCourses.stream()
-                .mapToLong(course -> course.getSyllabus() != null && !course.getSyllabus().isEmpty() ? 1L : 0L)
-                .sum();
-            long coursesWithObjectives = allCourses.stream()
-                .mapToLong(course -> course.getLearningObjectives() != null && !course.getLearningObjectives().isEmpty() ? 1L : 0L)
-                .sum();
+            long coursesWithThumbnails = courseStats.getCoursesWithThumbnails();
+            long coursesWithFeaturedImages = courseStats.getCoursesWithFeaturedImages();
+            long coursesWithSyllabus = courseStats.getCoursesWithSyllabus();
+            long coursesWithObjectives = courseStats.getCoursesWithObjectives();
             
             qualityMetrics.put("coursesWithThumbnails", coursesWithThumbnails);
             qualityMetrics.put("coursesWithFeaturedImages", coursesWithFeaturedImages);
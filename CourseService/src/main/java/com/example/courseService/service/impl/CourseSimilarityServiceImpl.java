@@ -2,55 +2,343 @@ package com.example.courseService.service.impl;
 
 import com.example.courseService.dto.response.CourseDTO;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.CourseSimilarity;
+import com.example.courseService.model.CourseSimilarity.Neighbour;
 import com.example.courseService.repository.CourseRepository;
+import com.example.courseService.repository.CourseSimilarityRepository;
 import com.example.courseService.mapper.CourseMapper;
 import com.example.courseService.service.CourseSimilarityService;
+import com.example.courseService.utils.CourseTextSketch;
 import com.example.courseService.utils.SimilarityUtils;
+import com.example.courseService.utils.TextSimilarityEngine;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CourseSimilarityServiceImpl implements CourseSimilarityService {
 
+        private static final Comparator<Neighbour> BY_SCORE_DESC =
+                Comparator.comparingDouble(Neighbour::getScore).reversed();
+
         private final CourseRepository courseRepository;
+        private final CourseSimilarityRepository similarityRepository;
         private  final CourseMapper courseMapper;
+        private final MongoTemplate mongoTemplate;
+
+        // Index writes run on a single worker so concurrent course mutations never interleave neighbour updates
+        private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "course-similarity-index");
+                thread.setDaemon(true);
+                return thread;
+        });
+
+        private static final long CATALOGUE_SYNC_OVERLAP_MILLIS = 60_000;
+
+        // MinHash signatures of title/description/longDescription, reused across scoring passes
+        private final Map<UUID, CourseTextSketch> sketches = new ConcurrentHashMap<>();
+
+        // Scoring fields of every course, only touched from the index worker and kept current by delta syncs
+        private final Map<UUID, Course> catalogue = new HashMap<>();
+        private Date catalogueSyncedAt;
+
+        @Value("${course.similarity.top-k:50}")
+        private int topK;
+
         // Main Method
         @Override
         public Page<CourseDTO> getSimilarCourses(UUID courseId, int page, int size) {
-                Course baseCourse = findCourseById(courseId);
+                CourseSimilarity entry = similarityRepository.findById(courseId)
+                        .orElseGet(() -> {
+                                // Not indexed yet: answer from a one-off scan and let the worker persist it
+                                CourseSimilarity computed = toEntry(findCourseById(courseId),
+                                        courseRepository.findAllForSimilarity());
+                                indexCourse(courseId);
+                                return computed;
+                        });
 
                 Pageable pageable = PageRequest.of(page, size);
-                List<Course> allCourses = getAllCourses(pageable);
+                List<Neighbour> neighbours = entry.getNeighbours();
+                int from = (int) Math.min(pageable.getOffset(), neighbours.size());
+                int to = Math.min(from + size, neighbours.size());
+                List<Neighbour> slice = neighbours.subList(from, to);
 
-                List<CourseDTO> courseDTOs = allCourses.stream()
-                        .filter(course -> !course.getId().equals(courseId))
-                        .peek(course -> course.setSimilarityScore(calculateOverallSimilarity(baseCourse, course)))
-                        .sorted((c1, c2) -> Double.compare(c2.getSimilarityScore(), c1.getSimilarityScore()))
-                        .map(courseMapper::toDTO)
+                Map<UUID, Course> coursesById = courseRepository.findAllById(
+                                slice.stream().map(Neighbour::getCourseId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+                List<Course> similarCourses = slice.stream()
+                        .filter(neighbour -> coursesById.containsKey(neighbour.getCourseId()))
+                        .map(neighbour -> {
+                                Course course = coursesById.get(neighbour.getCourseId());
+                                course.setSimilarityScore(neighbour.getScore());
+                                return course;
+                        })
                         .collect(Collectors.toList());
+                List<CourseDTO> courseDTOs = courseMapper.toDTOs(similarCourses);
+
+                return new PageImpl<>(courseDTOs, pageable, neighbours.size());
+        }
+
+        @Override
+        public void indexCourse(UUID courseId) {
+                sketches.remove(courseId);
+                submit("index " + courseId, () -> courseRepository.findForSimilarityById(courseId)
+                        .ifPresent(this::indexNow));
+        }
+
+        @Override
+        public void removeCourse(UUID courseId) {
+                sketches.remove(courseId);
+                submit("remove " + courseId, () -> {
+                        catalogue.remove(courseId);
+                        similarityRepository.deleteById(courseId);
 
-                return new PageImpl<>(courseDTOs, pageable, courseDTOs.size());
+                        List<CourseSimilarity> affected = similarityRepository.findByNeighboursCourseId(courseId);
+                        if (affected.isEmpty()) {
+                                return;
+                        }
+
+                        syncCatalogue();
+                        List<CourseSimilarity> updated = new ArrayList<>();
+                        for (CourseSimilarity similarity : affected) {
+                                boolean wasFull = similarity.getNeighbours().size() >= topK;
+                                similarity.getNeighbours().removeIf(n -> n.getCourseId().equals(courseId));
+                                Course course = catalogue.get(similarity.getCourseId());
+                                if (wasFull && course != null) {
+                                        // The removed course leaves a gap in a full list, so refill it
+                                        updated.add(toEntry(course, catalogue.values()));
+                                } else {
+                                        similarity.setUpdatedAt(new Date());
+                                        updated.add(similarity);
+                                }
+                        }
+                        similarityRepository.saveAll(updated);
+                        log.info("Removed course {} from the similarity index, refreshed {} neighbour lists",
+                                courseId, updated.size());
+                });
+        }
+
+        @Override
+        public void rebuildIndex() {
+                submit("rebuild", () -> {
+                        reloadCatalogue();
+                        Collection<Course> candidates = catalogue.values();
+                        List<CourseSimilarity> entries = candidates.stream()
+                                .map(course -> toEntry(course, candidates))
+                                .collect(Collectors.toList());
+
+                        similarityRepository.deleteAll();
+                        similarityRepository.saveAll(entries);
+                        log.info("Rebuilt similarity index for {} courses", entries.size());
+                });
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void bootstrapIndex() {
+                if (similarityRepository.count() < courseRepository.count()) {
+                        log.info("Similarity index is incomplete, scheduling a full rebuild");
+                        rebuildIndex();
+                }
+        }
+
+        @PreDestroy
+        public void shutdown() {
+                indexExecutor.shutdownNow();
         }
 
         // Helper Methods
         private Course findCourseById(UUID courseId) {
-                return courseRepository.findById(courseId)
+                return courseRepository.findForSimilarityById(courseId)
                         .orElseThrow(() -> new IllegalArgumentException("Course with ID " + courseId + " not found."));
         }
 
-        private List<Course> getAllCourses(Pageable pageable) {
-                return courseRepository.findAll(pageable).getContent();
+        private void submit(String operation, Runnable task) {
+                indexExecutor.execute(() -> {
+                        try {
+                                task.run();
+                        } catch (Exception e) {
+                                log.error("Similarity index {} failed: {}", operation, e.getMessage(), e);
+                        }
+                });
+        }
+
+        /**
+         * Brings the local copy of the catalogue up to date by fetching only the courses modified
+         * since the last sync. A course count below the local size means something was deleted on
+         * another node, which is only noticed by reloading everything.
+         */
+        private void syncCatalogue() {
+                if (catalogueSyncedAt == null) {
+                        reloadCatalogue();
+                        return;
+                }
+                Date syncStart = new Date();
+                // Overlap the window a little so clock skew between nodes cannot hide a write
+                Date since = new Date(catalogueSyncedAt.getTime() - CATALOGUE_SYNC_OVERLAP_MILLIS);
+                for (Course course : courseRepository.findForSimilarityUpdatedSince(since)) {
+                        catalogue.put(course.getId(), course);
+                }
+                catalogueSyncedAt = syncStart;
+                if (catalogue.size() > courseRepository.count()) {
+                        reloadCatalogue();
+                }
+        }
+
+        private void reloadCatalogue() {
+                Date syncStart = new Date();
+                catalogue.clear();
+                for (Course course : courseRepository.findAllForSimilarity()) {
+                        catalogue.put(course.getId(), course);
+                }
+                catalogueSyncedAt = syncStart;
+        }
+
+        /**
+         * Recomputes the neighbour list of the given course and folds its new scores into the
+         * lists of the other indexed courses. Similarity is symmetric, so scoring the changed
+         * course against the catalogue once is enough to update both directions. Only the lists
+         * that already name the course are read back; every other list receives a conditional
+         * push that Mongo applies only where the new score makes the top K.
+         */
+        private void indexNow(Course baseCourse) {
+                syncCatalogue();
+                UUID baseId = baseCourse.getId();
+                catalogue.put(baseId, baseCourse);
+
+                Map<UUID, Double> scores = new HashMap<>();
+                List<Neighbour> baseNeighbours = new ArrayList<>();
+                for (Course candidate : catalogue.values()) {
+                        if (candidate.getId().equals(baseId)) {
+                                continue;
+                        }
+                        double score = calculateOverallSimilarity(baseCourse, candidate);
+                        scores.put(candidate.getId(), score);
+                        baseNeighbours.add(new Neighbour(candidate.getId(), score));
+                }
+
+                List<CourseSimilarity> updated = new ArrayList<>();
+                for (CourseSimilarity entry : similarityRepository.findByNeighboursCourseId(baseId)) {
+                        Double score = scores.remove(entry.getCourseId());
+                        if (score == null) {
+                                continue;
+                        }
+                        int sizeBefore = entry.getNeighbours().size();
+                        entry.getNeighbours().removeIf(n -> n.getCourseId().equals(baseId));
+                        boolean listed = offer(entry.getNeighbours(), new Neighbour(baseId, score));
+
+                        if (!listed && sizeBefore >= topK) {
+                                // Dropped out of a full list: the next best course is unknown, so recompute it
+                                updated.add(toEntry(catalogue.get(entry.getCourseId()), catalogue.values()));
+                        } else {
+                                entry.setUpdatedAt(new Date());
+                                updated.add(entry);
+                        }
+                }
+
+                updated.add(CourseSimilarity.builder()
+                        .courseId(baseId)
+                        .neighbours(topNeighbours(baseNeighbours))
+                        .updatedAt(new Date())
+                        .build());
+                similarityRepository.saveAll(updated);
+                int offered = offerToOtherLists(baseId, scores);
+
+                log.debug("Indexed course {}, rewrote {} neighbour lists and offered it to {} others",
+                        baseId, updated.size(), offered);
+        }
+
+        // Pushes the course into each list where it has room or beats the current K-th score
+        private int offerToOtherLists(UUID baseId, Map<UUID, Double> scores) {
+                if (scores.isEmpty()) {
+                        return 0;
+                }
+                String lastSlot = "neighbours." + (topK - 1);
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CourseSimilarity.class);
+                for (Map.Entry<UUID, Double> score : scores.entrySet()) {
+                        Query target = query(where("_id").is(score.getKey())
+                                .and("neighbours.courseId").ne(baseId)
+                                .orOperator(where(lastSlot).exists(false), where(lastSlot + ".score").lt(score.getValue())));
+                        Update push = new Update().set("updatedAt", new Date());
+                        push.push("neighbours")
+                                .sort(Sort.by(Sort.Direction.DESC, "score"))
+                                .slice(topK)
+                                .each(new Neighbour(baseId, score.getValue()));
+                        bulk.updateOne(target, push);
+                }
+                return bulk.execute().getModifiedCount();
+        }
+
+        private CourseSimilarity toEntry(Course baseCourse, Collection<Course> candidates) {
+                List<Neighbour> neighbours = candidates.stream()
+                        .filter(course -> !course.getId().equals(baseCourse.getId()))
+                        .map(course -> new Neighbour(course.getId(), calculateOverallSimilarity(baseCourse, course)))
+                        .collect(Collectors.toList());
+
+                return CourseSimilarity.builder()
+                        .courseId(baseCourse.getId())
+                        .neighbours(topNeighbours(neighbours))
+                        .updatedAt(new Date())
+                        .build();
+        }
+
+        private List<Neighbour> topNeighbours(List<Neighbour> neighbours) {
+                return neighbours.stream()
+                        .sorted(BY_SCORE_DESC)
+                        .limit(topK)
+                        .collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        // Inserts the candidate if it ranks within the top K, returns whether it was kept
+        private boolean offer(List<Neighbour> neighbours, Neighbour candidate) {
+                if (neighbours.size() >= topK
+                        && candidate.getScore() <= neighbours.get(neighbours.size() - 1).getScore()) {
+                        return false;
+                }
+                neighbours.add(candidate);
+                neighbours.sort(BY_SCORE_DESC);
+                if (neighbours.size() > topK) {
+                        neighbours.subList(topK, neighbours.size()).clear();
+                }
+                return true;
         }
 
         private double calculateOverallSimilarity(Course course1, Course course2) {
@@ -66,22 +354,27 @@ public class CourseSimilarityServiceImpl implements CourseSimilarityService {
                 double weightLearningObjectives = 0.1, weightDescription = 0.05, weightSchoolId = 0.05, weightTags = 0.05;
                 double weightPrice = 0.05, weightLongDescription = 0.025, weightRequirements = 0.225;
 
-                double titleSimilarity = calculateSimilarity(course1.getTitle(), course2.getTitle());
-                double descriptionSimilarity = calculateSimilarity(course1.getDescription(), course2.getDescription());
-                double longDescriptionSimilarity = calculateSimilarity(course1.getLongDescription(), course2.getLongDescription());
+                CourseTextSketch sketch1 = sketchOf(course1);
+                CourseTextSketch sketch2 = sketchOf(course2);
+                double titleSimilarity = TextSimilarityEngine.similarity(sketch1.getTitle(), sketch2.getTitle());
+                double descriptionSimilarity = TextSimilarityEngine.similarity(
+                        sketch1.getDescription(), sketch2.getDescription());
+                double longDescriptionSimilarity = TextSimilarityEngine.similarity(
+                        sketch1.getLongDescription(), sketch2.getLongDescription());
 
                 double tagSimilarity = SimilarityUtils.calculateJaccardSimilarity(
-                        new HashSet<>(course1.getTags()), new HashSet<>(course2.getTags()));
-                double categorySimilarity = course1.getCategoryId().equals(course2.getCategoryId()) ? 1.0 : 0.0;
-                double priceSimilarity = SimilarityUtils.calculatePriceSimilarity(course1.getPrice().doubleValue(), course2.getPrice().doubleValue());
-                double instructorSimilarity = SimilarityUtils.calculateJaccardSimilarityForUUIDs(course1.getInstructors(), course2.getInstructors());
+                        toSet(course1.getTags()), toSet(course2.getTags()));
+                double categorySimilarity = Objects.equals(course1.getCategoryId(), course2.getCategoryId()) ? 1.0 : 0.0;
+                double priceSimilarity = SimilarityUtils.calculatePriceSimilarity(toDouble(course1), toDouble(course2));
+                double instructorSimilarity = SimilarityUtils.calculateJaccardSimilarityForUUIDs(
+                        orEmpty(course1.getInstructors()), orEmpty(course2.getInstructors()));
                 double learningObjectivesSimilarity = SimilarityUtils.calculateJaccardSimilarity(
-                        new HashSet<>(course1.getLearningObjectives()),
-                        new HashSet<>(course2.getLearningObjectives()));
+                        toSet(course1.getLearningObjectives()),
+                        toSet(course2.getLearningObjectives()));
                 double requirementsSimilarity = SimilarityUtils.calculateJaccardSimilarity(
-                        new HashSet<>(course1.getRequirements()),
-                        new HashSet<>(course2.getRequirements()));
-                double schoolSimilarity = course1.getSchoolId().equals(course2.getSchoolId()) ? 1.0 : 0.0;
+                        toSet(course1.getRequirements()),
+                        toSet(course2.getRequirements()));
+                double schoolSimilarity = Objects.equals(course1.getSchoolId(), course2.getSchoolId()) ? 1.0 : 0.0;
 
                 return (weightTags * tagSimilarity) +
                         (weightTitle * titleSimilarity) +
@@ -95,10 +388,25 @@ public class CourseSimilarityServiceImpl implements CourseSimilarityService {
                         (weightRequirements * requirementsSimilarity);
         }
 
-        private double calculateSimilarity(
-                                           String text1,
-                                           String text2) {
-                return  SimilarityUtils.calculateLevenshteinSimilarity(text1, text2);
+        private CourseTextSketch sketchOf(Course course) {
+                CourseTextSketch sketch = sketches.get(course.getId());
+                if (sketch == null || !sketch.isCurrentFor(course)) {
+                        sketch = CourseTextSketch.of(course);
+                        sketches.put(course.getId(), sketch);
+                }
+                return sketch;
+        }
+
+        private static Set<String> toSet(List<String> values) {
+                return values != null ? new HashSet<>(values) : Collections.emptySet();
+        }
+
+        private static <T> List<T> orEmpty(List<T> values) {
+                return values != null ? values : Collections.emptyList();
+        }
+
+        private static double toDouble(Course course) {
+                return course.getPrice() != null ? course.getPrice().doubleValue() : 0.0;
         }
 
 }
@@ -0,0 +1,108 @@
+package com.example.courseService.service.impl;
+
+import com.example.courseService.model.CourseStats;
+import com.example.courseService.repository.CourseRepository;
+import com.example.courseService.repository.CourseStatsRepository;
+import com.example.courseService.service.CourseStatsService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves course statistics from the materialized course_stats document. Course mutations mark
+ * the snapshot stale and a background worker rebuilds it with one aggregation; bursts of
+ * mutations collapse into a single rebuild. The document is shared by every node, and each
+ * node re-reads it once its local copy is a few seconds old, so a rebuild triggered by a
+ * write on one node is served by all of them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseStatsServiceImpl implements CourseStatsService {
+
+    private static final long RECENT_WINDOW_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+    private final CourseRepository courseRepository;
+    private final CourseStatsRepository courseStatsRepository;
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    private volatile CourseStats current;
+    private volatile long currentReadAt;
+
+    @Value("${course.stats.local-ttl-seconds:5}")
+    private long localTtlSeconds;
+
+    // recentCourses drifts with time even without mutations, so snapshots also expire
+    @Value("${course.stats.max-age-minutes:15}")
+    private long maxAgeMinutes;
+
+    @Override
+    public CourseStats getCourseStats() {
+        CourseStats stats = current;
+        if (stats == null || System.currentTimeMillis() - currentReadAt > TimeUnit.SECONDS.toMillis(localTtlSeconds)) {
+            // One small document by id, picks up rebuilds made by other nodes
+            stats = courseStatsRepository.findById(CourseStats.GLOBAL_ID).orElse(null);
+            if (stats == null) {
+                return refresh();
+            }
+            remember(stats);
+        }
+        if (isExpired(stats)) {
+            markStale();
+        }
+        return stats;
+    }
+
+    @Override
+    public void markStale() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshPending.set(false);
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.error("Failed to refresh course statistics: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public synchronized CourseStats refresh() {
+        Date recentSince = new Date(System.currentTimeMillis() - RECENT_WINDOW_MILLIS);
+        CourseStats stats = courseStatsRepository.save(courseRepository.aggregateCourseStats(recentSince));
+        remember(stats);
+        log.debug("Course statistics refreshed: {} courses", stats.getTotalCourses());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void remember(CourseStats stats) {
+        current = stats;
+        currentReadAt = System.currentTimeMillis();
+    }
+
+    private boolean isExpired(CourseStats stats) {
+        return stats.getComputedAt() == null
+                || System.currentTimeMillis() - stats.getComputedAt().getTime() > TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+}
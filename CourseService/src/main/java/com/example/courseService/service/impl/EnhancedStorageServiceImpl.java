@@ -3,29 +3,50 @@ package com.example.courseService.service.impl;
 import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.*;
+import com.example.courseService.dto.request.FileUploadInitRequest;
+import com.example.courseService.dto.request.PartUploadBatchRequest;
+import com.example.courseService.exception.implementation.BadRequestException;
 import com.example.courseService.model.File;
 import com.example.courseService.model.FileType;
 import com.example.courseService.model.FileUpload;
 import com.example.courseService.model.UploadStatus;
 import com.example.courseService.model.Course;
+import com.example.courseService.model.StoredFile;
 import com.example.courseService.repository.FileUploadRepository;
 import com.example.courseService.repository.CourseRepository;
+import com.example.courseService.service.CourseCacheService;
 import com.example.courseService.service.StorageService;
+import com.example.courseService.service.StoredFileService;
+import com.example.courseService.utils.HashChecksum;
+import com.example.courseService.utils.S3RangeDownload;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Service
 @Primary
@@ -39,19 +60,37 @@ public class EnhancedStorageServiceImpl implements StorageService {
     @Value("${application.bucket.temp-prefix}")
     private String tempPrefix;
 
+    @Value("${application.bucket.presigned-url-expiry-minutes:60}")
+    private long presignedUrlExpiryMinutes;
+
     private final AmazonS3 s3Client;
     private final FileUploadRepository fileUploadRepository;
     private final CourseRepository courseRepository;
-
-    public FileUpload initiateMultipartUpload(MultipartFile file, String sessionId, FileType fileType) {
-        return initiateMultipartUpload(file, sessionId, fileType, null, null, null);
-    }
-
-    public FileUpload initiateMultipartUpload(MultipartFile file, String sessionId, FileType fileType,
-            String courseId, Integer sectionIndex, Integer topicIndex) {
+    private final CourseCacheService courseCacheService;
+    private final MongoTemplate mongoTemplate;
+    private final StoredFileService storedFileService;
+
+    // Size of the parts clients are expected to send, which fixes totalChunks
+    private static final long PART_SIZE = 10L * 1024 * 1024;
+    private static final int MAX_PARTS = 10000;
+
+    /**
+     * Starts a multipart upload from the file's metadata alone; the content goes straight to S3
+     * through presigned part URLs.
+     */
+    public FileUpload initiateMultipartUpload(FileUploadInitRequest request) {
+        String sessionId = request.getSessionId();
+        String courseId = request.getCourseId();
+        Integer sectionIndex = request.getSectionIndex();
+        Integer topicIndex = request.getTopicIndex();
         String tempKey = tempPrefix + "/" + sessionId + "/" + UUID.randomUUID().toString();
 
         InitiateMultipartUploadRequest initRequest = new InitiateMultipartUploadRequest(bucketName, tempKey);
+        if (request.getMimeType() != null) {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentType(request.getMimeType());
+            initRequest.setObjectMetadata(objectMetadata);
+        }
         InitiateMultipartUploadResult initResult = s3Client.initiateMultipartUpload(initRequest);
         String s3UploadId = initResult.getUploadId();
 
@@ -82,12 +121,12 @@ public class EnhancedStorageServiceImpl implements StorageService {
                 .sessionId(sessionId)
                 .tempKey(tempKey)
                 .uploadId(s3UploadId)
-                .type(fileType)
+                .type(request.getFileType())
                 .status(UploadStatus.INITIALIZED)
-                .originalFileName(file.getOriginalFilename())
-                .mimeType(file.getContentType())
-                .fileSize(file.getSize())
-                .totalChunks((int) Math.ceil(file.getSize() / (10.0 * 1024 * 1024)))
+                .originalFileName(request.getFileName())
+                .mimeType(request.getMimeType())
+                .fileSize(request.getFileSize())
+                .totalChunks((int) Math.ceil(request.getFileSize() / (double) PART_SIZE))
                 .uploadedChunks(0)
                 .partETags(new ArrayList<>())
                 .courseId(courseId)
@@ -104,21 +143,57 @@ public class EnhancedStorageServiceImpl implements StorageService {
     public String generatePresignedUrl(String uploadId, String key, int partNumber) {
         try {
             String fullKey = key.startsWith(tempPrefix) ? key : tempPrefix + "/" + key;
-
-            GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, fullKey)
-                    .withMethod(HttpMethod.PUT)
-                    .withExpiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)));
-
-            request.addRequestParameter("uploadId", uploadId);
-            request.addRequestParameter("partNumber", String.valueOf(partNumber));
-
-            return s3Client.generatePresignedUrl(request).toString();
+            return presignPart(fullKey, uploadId, partNumber, presignedUrlExpiry());
         } catch (Exception e) {
             log.error("Failed to generate presigned URL", e);
             throw new RuntimeException("Failed to generate upload URL", e);
         }
     }
 
+    /**
+     * Presigned PUT URLs for parts fromPart..toPart of an upload, every part when both are null.
+     * Signing is local CPU work, so the parts are signed in parallel and no S3 call is made.
+     */
+    public Map<String, Object> generatePresignedUrls(String uploadId, Integer fromPart, Integer toPart) {
+        FileUpload fileUpload = getFileUpload(uploadId);
+        int first = fromPart != null ? fromPart : 1;
+        int last = toPart != null ? toPart : fileUpload.getTotalChunks();
+        if (first < 1 || last > lastPart(fileUpload) || first > last) {
+            throw new BadRequestException("Invalid part range " + first + "-" + last);
+        }
+
+        Date expiration = presignedUrlExpiry();
+        try {
+            Map<Integer, String> urls = IntStream.rangeClosed(first, last)
+                    .parallel()
+                    .boxed()
+                    .collect(Collectors.toMap(
+                            partNumber -> partNumber,
+                            partNumber -> presignPart(fileUpload.getTempKey(), uploadId, partNumber, expiration),
+                            (a, b) -> a,
+                            TreeMap::new));
+            return Map.of("urls", urls, "expiresAt", expiration);
+        } catch (Exception e) {
+            log.error("Failed to generate presigned URLs for upload {}", uploadId, e);
+            throw new RuntimeException("Failed to generate upload URLs", e);
+        }
+    }
+
+    private String presignPart(String fullKey, String uploadId, int partNumber, Date expiration) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, fullKey)
+                .withMethod(HttpMethod.PUT)
+                .withExpiration(expiration);
+
+        request.addRequestParameter("uploadId", uploadId);
+        request.addRequestParameter("partNumber", String.valueOf(partNumber));
+
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+
+    private Date presignedUrlExpiry() {
+        return Date.from(Instant.now().plus(presignedUrlExpiryMinutes, ChronoUnit.MINUTES));
+    }
+
     public void completeMultipartUpload(FileUpload fileUpload) {
         if (fileUpload.getPartETags() == null || fileUpload.getPartETags().isEmpty()) {
             String errorMsg = "No parts found for upload: " + fileUpload.getUploadId();
@@ -129,9 +204,21 @@ public class EnhancedStorageServiceImpl implements StorageService {
             throw new RuntimeException(errorMsg);
         }
 
+        // S3 would assemble whatever parts it is given, so a partial upload must never get this far.
+        // Missing parts can still arrive, so the upload is rejected but not failed
+        Integer totalChunks = fileUpload.getTotalChunks();
+        if (totalChunks == null || fileUpload.getPartETags().size() != totalChunks) {
+            throw new BadRequestException("Upload " + fileUpload.getUploadId() + " has "
+                    + fileUpload.getPartETags().size() + " of " + totalChunks + " parts recorded");
+        }
+
         List<PartETag> partETags = new ArrayList<>();
-        for (int i = 0; i < fileUpload.getPartETags().size(); i++) {
+        for (int i = 0; i < totalChunks; i++) {
             String eTag = fileUpload.getPartETags().get(i);
+            // Parts recorded out of order leave gaps until the missing ones arrive
+            if (eTag == null) {
+                throw new BadRequestException("Part " + (i + 1) + " was not recorded for upload: " + fileUpload.getUploadId());
+            }
             partETags.add(new PartETag(i + 1, eTag));
         }
 
@@ -234,6 +321,7 @@ public class EnhancedStorageServiceImpl implements StorageService {
             course.getSyllabus().get(sectionIndex).getTopics().get(topicIndex).setVideoUrl(newVideoUrl);
 
             courseRepository.save(course);
+            courseCacheService.invalidate(courseId);
 
             log.info("Successfully updated course video URL: courseId={}, sectionIndex={}, topicIndex={}, newUrl={}",
                     courseId, sectionIndex, topicIndex, newVideoUrl);
@@ -242,8 +330,8 @@ public class EnhancedStorageServiceImpl implements StorageService {
                 try {
                     String oldKey = extractKeyFromUrl(oldVideoUrl);
                     if (oldKey != null) {
-                        s3Client.deleteObject(bucketName, oldKey);
-                        log.info("Successfully deleted old video: {}", oldKey);
+                        deleteFile(oldKey);
+                        log.info("Released old video: {}", oldKey);
                     }
                 } catch (Exception e) {
                     log.warn("Failed to delete old video: {}", oldVideoUrl, e);
@@ -282,54 +370,124 @@ public class EnhancedStorageServiceImpl implements StorageService {
         return null;
     }
 
+    /**
+     * Records one uploaded part in a single atomic update, so parts uploaded in parallel cannot
+     * overwrite each other. Recording a part again replaces its ETag without counting it twice.
+     */
     public void recordPartUpload(String uploadId, int partNumber, String eTag) {
-        FileUpload fileUpload = fileUploadRepository.findById(uploadId)
-                .orElseThrow(() -> new RuntimeException("Upload not found: " + uploadId));
-
         if (eTag == null || eTag.trim().isEmpty()) {
             throw new RuntimeException("Invalid ETag provided for upload: " + uploadId);
         }
-
-        synchronized (fileUpload) {
-            List<String> partETags = fileUpload.getPartETags();
-            while (partETags.size() < partNumber) {
-                partETags.add(null);
+        checkPartNumber(getFileUpload(uploadId), partNumber);
+
+        UpdateResult firstRecord = mongoTemplate.updateFirst(
+                query(where("_id").is(uploadId).and(partField(partNumber)).is(null)),
+                partUpdate(partNumber, eTag).inc("uploadedChunks", 1),
+                FileUpload.class);
+        if (firstRecord.getMatchedCount() == 0) {
+            UpdateResult retry = mongoTemplate.updateFirst(
+                    query(where("_id").is(uploadId)),
+                    partUpdate(partNumber, eTag),
+                    FileUpload.class);
+            if (retry.getMatchedCount() == 0) {
+                throw new RuntimeException("Upload not found: " + uploadId);
             }
-            partETags.set(partNumber - 1, eTag);
+        }
 
-            fileUpload.setUploadedChunks(fileUpload.getUploadedChunks() + 1);
-            fileUpload.setStatus(UploadStatus.IN_PROGRESS);
-            fileUpload.setUpdatedAt(new Date());
-            fileUploadRepository.save(fileUpload);
+        log.info("Recorded part upload: uploadId={}, partNumber={}, eTag={}", uploadId, partNumber, eTag);
+    }
+
+    /**
+     * Records many parts in one round trip: each part is counted by its own conditional update,
+     * then every ETag is written, so parts sent again are replaced but counted once. The bulk is
+     * ordered because the final write would otherwise stop the conditional ones from matching.
+     */
+    public void recordPartUploads(String uploadId, List<PartUploadBatchRequest.Part> parts) {
+        FileUpload fileUpload = fileUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found: " + uploadId));
+        for (PartUploadBatchRequest.Part part : parts) {
+            checkPartNumber(fileUpload, part.getPartNumber());
+        }
 
-            log.info("Recorded part upload: uploadId={}, partNumber={}, eTag={}, progress={}/{}",
-                    uploadId, partNumber, eTag, fileUpload.getUploadedChunks(), fileUpload.getTotalChunks());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, FileUpload.class);
+        Update allParts = new Update()
+                .set("status", UploadStatus.IN_PROGRESS)
+                .set("updatedAt", new Date());
+        for (PartUploadBatchRequest.Part part : parts) {
+            bulk.updateOne(
+                    query(where("_id").is(uploadId).and(partField(part.getPartNumber())).is(null)),
+                    partUpdate(part.getPartNumber(), part.getETag()).inc("uploadedChunks", 1));
+            allParts.set(partField(part.getPartNumber()), part.getETag());
         }
+        bulk.updateOne(query(where("_id").is(uploadId)), allParts);
+        bulk.execute();
+
+        log.info("Recorded {} part uploads: uploadId={}", parts.size(), uploadId);
     }
 
-    @Override
-    public byte[] downloadFile(String key) {
-        try {
-            S3Object s3Object = s3Client.getObject(bucketName, key);
-            S3ObjectInputStream inputStream = s3Object.getObjectContent();
-            return IOUtils.toByteArray(inputStream);
-        } catch (IOException e) {
-            log.error("Error downloading file from S3", e);
-            throw new RuntimeException("Failed to download file", e);
+    // Parts are numbered from 1 and stored at index partNumber - 1, so anything outside the
+    // upload's own part count would write a stray or negative index
+    private static void checkPartNumber(FileUpload fileUpload, int partNumber) {
+        if (partNumber < 1 || partNumber > lastPart(fileUpload)) {
+            throw new BadRequestException("Part number " + partNumber + " is out of range for upload "
+                    + fileUpload.getId());
         }
     }
 
+    private static int lastPart(FileUpload fileUpload) {
+        Integer totalChunks = fileUpload.getTotalChunks();
+        return totalChunks != null ? Math.min(totalChunks, MAX_PARTS) : 0;
+    }
+
+    private static String partField(int partNumber) {
+        return "partETags." + (partNumber - 1);
+    }
+
+    private static Update partUpdate(int partNumber, String eTag) {
+        return new Update()
+                .set(partField(partNumber), eTag)
+                .set("status", UploadStatus.IN_PROGRESS)
+                .set("updatedAt", new Date());
+    }
+
+    @Override
+    public void downloadFile(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        S3RangeDownload.stream(s3Client, bucketName, key, request, response);
+    }
+
+    /**
+     * Uploads the file unless identical content is already stored, in which case the existing
+     * object is reused. The checksum is streamed from the spooled upload, never held in the heap.
+     */
     @Override
     public File uploadFile(MultipartFile file) throws IOException {
-        String key = tempPrefix + "/" + UUID.randomUUID().toString();
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(file.getContentType());
-        metadata.setContentLength(file.getSize());
+        String checksum = HashChecksum.calculateFileChecksum(file);
 
-        PutObjectRequest putRequest = new PutObjectRequest(bucketName, key, file.getInputStream(), metadata);
-        s3Client.putObject(putRequest);
+        StoredFile stored = storedFileService.acquire(checksum).orElse(null);
+        if (stored != null) {
+            log.info("Reusing stored object {} for identical upload {}", stored.getKey(), file.getOriginalFilename());
+        } else {
+            String key = tempPrefix + "/" + UUID.randomUUID().toString();
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentType(file.getContentType());
+            metadata.setContentLength(file.getSize());
 
-        String url = s3Client.getUrl(bucketName, key).toString();
+            try (InputStream content = file.getInputStream()) {
+                s3Client.putObject(new PutObjectRequest(bucketName, key, content, metadata));
+            }
+
+            stored = storedFileService.register(StoredFile.builder()
+                    .sha256(checksum)
+                    .key(key)
+                    .url(s3Client.getUrl(bucketName, key).toString())
+                    .size(file.getSize())
+                    .contentType(file.getContentType())
+                    .build());
+            if (!key.equals(stored.getKey())) {
+                // A concurrent upload of the same content registered first
+                s3Client.deleteObject(bucketName, key);
+            }
+        }
 
         FileType fileType;
         String contentType = file.getContentType().toLowerCase();
@@ -342,9 +500,10 @@ public class EnhancedStorageServiceImpl implements StorageService {
         }
 
         return File.builder()
-                .key(key)
-                .url(url)
+                .key(stored.getKey())
+                .url(stored.getUrl())
                 .name(file.getOriginalFilename())
+                .checkSum(checksum)
                 .type(fileType)
                 .size(file.getSize())
                 .build();
@@ -352,6 +511,10 @@ public class EnhancedStorageServiceImpl implements StorageService {
 
     public void deleteFile(String key) {
         try {
+            if (!storedFileService.release(key)) {
+                log.info("File {} is still referenced, keeping it", key);
+                return;
+            }
             s3Client.deleteObject(bucketName, key);
             log.info("Successfully deleted file: {}", key);
         } catch (Exception e) {
@@ -360,6 +523,23 @@ public class EnhancedStorageServiceImpl implements StorageService {
         }
     }
 
+    /**
+     * Files stored before the key was recorded only carry their URL, so the key is taken from it.
+     * The name is the original filename and never identifies the object.
+     */
+    @Override
+    public void deleteFile(File file) {
+        if (file == null) {
+            return;
+        }
+        String key = file.getKey() != null && !file.getKey().isBlank() ? file.getKey() : extractKeyFromUrl(file.getUrl());
+        if (key == null) {
+            log.warn("Cannot resolve the stored object of file {}, leaving it", file.getName());
+            return;
+        }
+        deleteFile(key);
+    }
+
     public String getFileUrl(String key) {
         return s3Client.getUrl(bucketName, key).toString();
     }
@@ -0,0 +1,170 @@
+package com.example.courseService.service.impl;
+
+import com.example.courseService.dto.response.InstructorDTO;
+import com.example.courseService.model.InstructorProfile;
+import com.example.courseService.model.Course;
+import com.example.courseService.repository.CourseRepository;
+import com.example.courseService.repository.InstructorProfileRepository;
+import com.example.courseService.service.CourseCacheService;
+import com.example.courseService.service.InstructorProfileService;
+import com.example.courseService.service.messaging.RabbitMQProducer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instructor profiles replicated from UserService. Reads are served from memory, backed by the
+ * instructor_profiles collection, so rendering a course never waits on another service.
+ * An empty replica, or an instructor nobody has announced yet, triggers a rate-limited
+ * snapshot request that UserService answers with one upsert event per instructor.
+ * Events reach one node through the shared durable queue, which persists them, and every node
+ * through its own queue, which only refreshes the in-memory copy.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InstructorProfileServiceImpl implements InstructorProfileService {
+
+    private final InstructorProfileRepository instructorProfileRepository;
+    private final RabbitMQProducer rabbitMQProducer;
+    private final CourseRepository courseRepository;
+    private final CourseCacheService courseCacheService;
+
+    private final Map<UUID, InstructorProfile> profiles = new ConcurrentHashMap<>();
+    private final AtomicLong lastBackfillRequest = new AtomicLong();
+
+    @Value("${instructor.replica.backfill-interval-minutes:10}")
+    private long backfillIntervalMinutes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        List<InstructorProfile> stored = instructorProfileRepository.findAll();
+        stored.forEach(profile -> profiles.put(profile.getId(), profile));
+        log.info("Loaded {} replicated instructor profiles", stored.size());
+        if (stored.isEmpty()) {
+            requestBackfill();
+        }
+    }
+
+    @Override
+    public List<InstructorDTO> getInstructors(List<UUID> instructorIds) {
+        List<InstructorDTO> instructors = new ArrayList<>();
+        if (instructorIds == null || instructorIds.isEmpty()) {
+            return instructors;
+        }
+
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : instructorIds) {
+            if (!profiles.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Another instance may have replicated them already
+            instructorProfileRepository.findAllById(missing)
+                    .forEach(profile -> profiles.putIfAbsent(profile.getId(), profile));
+            if (missing.stream().anyMatch(id -> !profiles.containsKey(id))) {
+                log.debug("No replicated profile yet for some of instructors {}", missing);
+                requestBackfill();
+            }
+        }
+
+        for (UUID id : instructorIds) {
+            InstructorProfile profile = profiles.get(id);
+            if (profile != null) {
+                instructors.add(toDTO(profile));
+            }
+        }
+        return instructors;
+    }
+
+    @Override
+    public synchronized void upsert(InstructorProfile profile) {
+        InstructorProfile current = profiles.get(profile.getId());
+        if (current == null) {
+            current = instructorProfileRepository.findById(profile.getId()).orElse(null);
+        }
+        if (current != null && current.getVersion() > profile.getVersion()) {
+            log.debug("Ignoring stale event for instructor {} (version {} < {})",
+                    profile.getId(), profile.getVersion(), current.getVersion());
+            return;
+        }
+        profile.setUpdatedAt(new Date());
+        instructorProfileRepository.save(profile);
+        profiles.put(profile.getId(), profile);
+        invalidateCoursesOf(profile.getId());
+    }
+
+    @Override
+    public synchronized void delete(UUID instructorId, long version) {
+        InstructorProfile current = profiles.get(instructorId);
+        if (current != null && current.getVersion() > version) {
+            log.debug("Ignoring stale deletion of instructor {}", instructorId);
+            return;
+        }
+        instructorProfileRepository.deleteById(instructorId);
+        profiles.remove(instructorId);
+        invalidateCoursesOf(instructorId);
+    }
+
+    @Override
+    public synchronized void applyLocally(InstructorProfile profile) {
+        InstructorProfile current = profiles.get(profile.getId());
+        if (current != null && current.getVersion() >= profile.getVersion()) {
+            return;
+        }
+        profiles.put(profile.getId(), profile);
+    }
+
+    @Override
+    public synchronized void evictLocally(UUID instructorId, long version) {
+        InstructorProfile current = profiles.get(instructorId);
+        if (current != null && current.getVersion() <= version) {
+            profiles.remove(instructorId);
+        }
+    }
+
+    // Cached course pages embed the instructor, so they are dropped along with the old profile
+    private void invalidateCoursesOf(UUID instructorId) {
+        for (Course course : courseRepository.findCourseIdsByInstructorId(instructorId)) {
+            courseCacheService.invalidate(course.getId());
+        }
+    }
+
+    @Override
+    public void requestBackfill() {
+        long now = System.currentTimeMillis();
+        long previous = lastBackfillRequest.get();
+        if (now - previous < TimeUnit.MINUTES.toMillis(backfillIntervalMinutes)
+                || !lastBackfillRequest.compareAndSet(previous, now)) {
+            return;
+        }
+        log.info("Requesting instructor snapshot from UserService");
+        rabbitMQProducer.publishInstructorSnapshotRequest();
+    }
+
+    private InstructorDTO toDTO(InstructorProfile profile) {
+        return InstructorDTO.builder()
+                .id(profile.getId())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .fathersName(profile.getFathersName())
+                .avatarUrl(profile.getAvatarUrl())
+                .bio(profile.getBio())
+                .rating(profile.getRating())
+                .build();
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.courseService.service.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 import com.example.courseService.dto.request.ModuleRequest;
+import com.example.courseService.model.Course;
 import com.example.courseService.model.Module;
+import com.example.courseService.service.CourseCacheService;
 import com.example.courseService.service.CourseService;
 import com.example.courseService.service.ModuleService;
+import com.example.courseService.service.SyllabusPersistenceService;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
@@ -28,6 +34,8 @@ public class ModuleServiceImpl implements ModuleService {
     private final ModuleRepository repository;
     private final MessageSource messageSource;
     private final ModuleMapper moduleMapper;
+    private final CourseCacheService courseCacheService;
+    private final SyllabusPersistenceService syllabusPersistenceService;
 
     @Override
     public List<ModuleDTO> findAll() {
@@ -56,7 +64,30 @@ public class ModuleServiceImpl implements ModuleService {
         }
         Module module = moduleMapper.toEntity(request, course);
 
-        return moduleMapper.toDto(repository.save(module));
+        ModuleDTO saved = moduleMapper.toDto(repository.save(module));
+        courseCacheService.invalidate(request.getCourseId());
+        return saved;
+    }
+
+    @Override
+    public List<ModuleDTO> createSyllabi(List<ModuleRequest> requests) {
+        Map<UUID, List<ModuleRequest>> requestsByCourse = new LinkedHashMap<>();
+        for (ModuleRequest request : requests) {
+            requestsByCourse.computeIfAbsent(request.getCourseId(), id -> new ArrayList<>()).add(request);
+        }
+
+        List<Module> modules = new ArrayList<>(requests.size());
+        requestsByCourse.forEach((courseId, courseRequests) -> {
+            Course course = cService.getCourseById(courseId);
+            if (course == null) {
+                throw new ResourceNotFoundException("No existing section with id: " + courseId);
+            }
+            modules.addAll(syllabusPersistenceService.buildModules(courseRequests, course));
+        });
+
+        List<ModuleDTO> saved = moduleMapper.toDtoList(syllabusPersistenceService.insertModules(modules));
+        requestsByCourse.keySet().forEach(courseCacheService::invalidate);
+        return saved;
     }
 
     @Override
@@ -79,11 +110,17 @@ public class ModuleServiceImpl implements ModuleService {
 
         newModule.setCourse(oldModule.getCourse());
 
-        return moduleMapper.toDto(repository.save(oldModule));
+        ModuleDTO saved = moduleMapper.toDto(repository.save(oldModule));
+        courseCacheService.invalidate(request.getCourseId());
+        return saved;
     }
 
     @Override
     public void deleteById(UUID id) {
+        Module module = repository.findById(id).orElse(null);
         repository.deleteById(id);
+        if (module != null && module.getCourse() != null) {
+            courseCacheService.invalidate(module.getCourse().getId());
+        }
     }
 }
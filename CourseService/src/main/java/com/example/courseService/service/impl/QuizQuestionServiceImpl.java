@@ -1,6 +1,8 @@
 package com.example.courseService.service.impl;
 
+import com.example.courseService.service.QuizAnswerKeyService;
 import com.example.courseService.service.QuizQuestionService;
+import com.example.courseService.utils.QuizAnswerKey;
 import org.javers.core.Javers;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -24,10 +26,8 @@ import lombok.RequiredArgsConstructor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +37,7 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
     private final QuizQuestionRepository quizQuestionRepository;
     private final QuizRepository quizRepository;
     private final Javers javers;
+    private final QuizAnswerKeyService quizAnswerKeyService;
 
     @Override
     public List<QuizQuestion> getAllQuizQuestions() {
@@ -66,6 +67,7 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
         }
         quiz.getQuestions().add(savedQuestion);
         quizRepository.save(quiz);
+        quizAnswerKeyService.invalidate(quiz.getId());
         
         return savedQuestion;
     }
@@ -85,7 +87,10 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
             throw new BadRequestException("No changes to update");
         }
 
-        return quizQuestionRepository.save(updatedQuizQuestion);
+        QuizQuestion savedQuestion = quizQuestionRepository.save(updatedQuizQuestion);
+        quizAnswerKeyService.invalidate(existingQuizQuestion.getQuizId());
+        quizAnswerKeyService.invalidate(savedQuestion.getQuizId());
+        return savedQuestion;
     }
 
     @Override
@@ -104,6 +109,7 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
         }
         
         quizQuestionRepository.deleteById(id);
+        quizAnswerKeyService.invalidate(question.getQuizId());
     }
 
     @Override
@@ -120,13 +126,15 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
 
     @Override
     public int calculateScore(UUID quizId, @NotNull List<QuizAnswerRequest> userAnswers) {
-        List<QuizQuestion> questions = getQuestionsByQuizId(quizId);
-        Map<UUID, QuizQuestion> questionMap = questions.stream()
-                .collect(Collectors.toMap(QuizQuestion::getId, question -> question));
-
-        return userAnswers.stream()
-                .mapToInt(answer -> calculateQuestionScore(answer, questionMap))
-                .sum();
+        QuizAnswerKey answerKey = quizAnswerKeyService.getAnswerKey(quizId);
+        int score = 0;
+        for (QuizAnswerRequest userAnswer : userAnswers) {
+            QuizAnswerKey.Answer expected = answerKey.get(userAnswer.getQuestionId());
+            if (expected != null && expected.matches(userAnswer.getAnswer())) {
+                score += expected.getPoints();
+            }
+        }
+        return score;
     }
 
     private void validateQuestionTypeAndOptions(QuizQuestionRequest request) {
@@ -153,10 +161,4 @@ public class QuizQuestionServiceImpl implements QuizQuestionService {
     private boolean hasChanges(QuizQuestion oldQuizQuestion, QuizQuestion newQuizQuestion) {
         return !javers.compare(oldQuizQuestion, newQuizQuestion).getChanges().isEmpty();
     }
-
-    private int calculateQuestionScore(QuizAnswerRequest userAnswer, Map<UUID, QuizQuestion> questionMap) {
-        QuizQuestion question = questionMap.get(userAnswer.getQuestionId());
-        return (question != null && userAnswer.getAnswer().equals(question.getCorrectAnswer()))
-                ? question.getPoints() : 0;
-    }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import com.example.courseService.model.QuizQuestion;
 import com.example.courseService.repository.QuizRepository;
 import com.example.courseService.repository.TopicRepository;
 import com.example.courseService.repository.QuizQuestionRepository;
+import com.example.courseService.service.CourseCacheService;
+import com.example.courseService.service.QuizAnswerKeyService;
 import com.example.courseService.service.QuizService;
 import com.example.courseService.service.QuizQuestionService;
 import com.example.courseService.mapper.QuizMapper;
@@ -22,7 +24,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +38,8 @@ public class QuizServiceImpl implements QuizService {
     private final TopicRepository topicRepository;
     private final QuizQuestionService quizQuestionService;
     private final QuizQuestionRepository quizQuestionRepository;
+    private final QuizAnswerKeyService quizAnswerKeyService;
+    private final CourseCacheService courseCacheService;
     private static final Logger log = LoggerFactory.getLogger(QuizServiceImpl.class);
 
     @Override
@@ -92,6 +98,7 @@ public class QuizServiceImpl implements QuizService {
         Quiz finalQuiz = quizRepository.findById(savedQuiz.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found after saving"));
         
+        courseCacheService.invalidate(finalQuiz.getCourseId());
         log.info("Successfully created quiz with id: {} and {} questions", 
                 finalQuiz.getId(), 
                 finalQuiz.getQuestions() != null ? finalQuiz.getQuestions().size() : 0);
@@ -163,6 +170,8 @@ public class QuizServiceImpl implements QuizService {
             updatedQuiz.setQuestions(newQuestions);
             updatedQuiz = quizRepository.save(updatedQuiz);
         }
+        quizAnswerKeyService.invalidate(id);
+        courseCacheService.invalidate(originalCourseId);
 
         // Fetch fresh quiz with all relations
         Quiz finalQuiz = quizRepository.findById(updatedQuiz.getId())
@@ -180,6 +189,8 @@ public class QuizServiceImpl implements QuizService {
         Quiz quiz = quizRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz with id " + id + " not found"));
         quizRepository.delete(quiz);
+        quizAnswerKeyService.invalidate(id);
+        courseCacheService.invalidate(quiz.getCourseId());
     }
 
     @Override
@@ -189,4 +200,10 @@ public class QuizServiceImpl implements QuizService {
                 .map(mapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public Map<UUID, List<QuizDTO>> getQuizSummariesByCourseIds(Collection<UUID> courseIds) {
+        return quizRepository.findSummariesByCourseIdIn(courseIds).stream()
+                .collect(Collectors.groupingBy(QuizDTO::getCourseId));
+    }
 }
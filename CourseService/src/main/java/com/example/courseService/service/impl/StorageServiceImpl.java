@@ -1,23 +1,22 @@
 package com.example.courseService.service.impl;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
-import com.amazonaws.util.IOUtils;
 import com.example.courseService.service.StorageService;
 import com.example.courseService.utils.HashChecksum;
+import com.example.courseService.utils.S3RangeDownload;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Objects;
+import java.io.InputStream;
 
 @Service
 @Slf4j
@@ -32,35 +31,29 @@ public class StorageServiceImpl implements StorageService {
     @Override
     public com.example.courseService.model.File uploadFile(MultipartFile file) throws IOException {
 
-        File fileObj = convertMultiPartFileToFile(file);
         String checksum = HashChecksum.calculateFileChecksum(file);
         String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
 
-        s3Client.putObject(new PutObjectRequest(bucketName, fileName, fileObj));
-        fileObj.delete();
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(file.getContentType());
+        metadata.setContentLength(file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            s3Client.putObject(new PutObjectRequest(bucketName, fileName, content, metadata));
+        }
 
         String fileUrl = s3Client.getUrl(bucketName, fileName).toString();
 
         return com.example.courseService.model.File.builder()
                 .name(fileName)
+                .key(fileName)
                 .checkSum(checksum)
                 .url(fileUrl)
                 .build();
     }
 
     @Override
-    public byte[] downloadFile(String fileName) {
-
-        S3Object s3Object = s3Client.getObject(bucketName, fileName);
-        S3ObjectInputStream inputStream = s3Object.getObjectContent();
-
-        try {
-            return IOUtils.toByteArray(inputStream);
-        } catch (IOException e) {
-            log.warn(e.getMessage(), e);
-        }
-
-        return null;
+    public void downloadFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        S3RangeDownload.stream(s3Client, bucketName, fileName, request, response);
     }
 
     @Override
@@ -68,14 +61,15 @@ public class StorageServiceImpl implements StorageService {
         s3Client.deleteObject(bucketName, fileName);
     }
 
-    private File convertMultiPartFileToFile(MultipartFile file) {
-        File convertedFile = new File(Objects.requireNonNull(file.getOriginalFilename()));
-
-        try (FileOutputStream fos = new FileOutputStream(convertedFile)) {
-            fos.write(file.getBytes());
-        } catch (IOException e) {
-            log.error("Error converting multipartFile to file", e);
+    // Objects uploaded here are named after their key
+    @Override
+    public void deleteFile(com.example.courseService.model.File file) {
+        if (file == null) {
+            return;
+        }
+        String key = file.getKey() != null ? file.getKey() : file.getName();
+        if (key != null) {
+            deleteFile(key);
         }
-        return convertedFile;
     }
 }
\ No newline at end of file
@@ -92,7 +92,7 @@ public class StudentAssignmentServiceImpl implements StudentAssignmentService {
     @Transactional
     public void deleteAssignment(UUID id) {
         StudentAssignment assignment = getStudentAssignmentById(id);
-        blobService.deleteFile(assignment.getFile().getName());
+        blobService.deleteFile(assignment.getFile());
         repository.deleteById(id);
     }
 
@@ -151,7 +151,7 @@ public class StudentAssignmentServiceImpl implements StudentAssignmentService {
 
     private void deleteFileIfPresent(File file) {
         if (file != null) {
-            blobService.deleteFile(file.getName());
+            blobService.deleteFile(file);
         }
     }
 
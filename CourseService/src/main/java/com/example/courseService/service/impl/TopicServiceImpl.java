@@ -1,14 +1,21 @@
 package com.example.courseService.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.example.courseService.dto.request.TopicRequest;
 import com.example.courseService.dto.response.TopicDTO;
 import com.example.courseService.model.Module;
+import com.example.courseService.service.CourseCacheService;
+import com.example.courseService.service.SyllabusPersistenceService;
 import com.example.courseService.service.TopicService;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.MessageSource;
@@ -33,6 +40,8 @@ public class TopicServiceImpl implements TopicService {
     private final TopicMapper mapper;
     private final ModuleRepository moduleRepository;
     private final MessageSource messageSource;
+    private final SyllabusPersistenceService syllabusPersistenceService;
+    private final CourseCacheService courseCacheService;
 
     // Main Methods
     @Override
@@ -40,7 +49,30 @@ public class TopicServiceImpl implements TopicService {
         Module module = findSectionById(request.getSectionId());
         Topic topic = mapper.toTopic(request, module);
 
-        return repository.save(topic);
+        Topic saved = repository.save(topic);
+        invalidateCourseOf(module);
+        return saved;
+    }
+
+    @Override
+    public List<Topic> createTopics(@NotNull List<TopicRequest> requests) {
+        Set<UUID> sectionIds = new HashSet<>();
+        requests.forEach(request -> sectionIds.add(request.getSectionId()));
+        // One query for every section involved instead of one per lesson
+        Map<UUID, Module> modules = moduleRepository.findAllById(sectionIds).stream()
+                .collect(Collectors.toMap(Module::getId, Function.identity()));
+
+        List<Topic> topics = new ArrayList<>(requests.size());
+        for (TopicRequest request : requests) {
+            Module module = modules.get(request.getSectionId());
+            if (module == null) {
+                throw new ResourceNotFoundException("Section with id: " + request.getSectionId() + " not found");
+            }
+            topics.add(mapper.toTopic(request, module));
+        }
+        List<Topic> saved = syllabusPersistenceService.insertTopics(topics);
+        modules.values().forEach(this::invalidateCourseOf);
+        return saved;
     }
 
     @Override
@@ -56,7 +88,11 @@ public class TopicServiceImpl implements TopicService {
             throw new NoChangesException(messageSource, locale);
         }
 
-        return repository.save(updatedTopic);
+        Topic saved = repository.save(updatedTopic);
+        // The lesson may have moved to a section of another course
+        invalidateCourseOf(existingTopic.getModule());
+        invalidateCourseOf(module);
+        return saved;
     }
 
     @Override
@@ -81,7 +117,11 @@ public class TopicServiceImpl implements TopicService {
 
     @Override
     public void deleteTopic(UUID id) {
+        Topic topic = repository.findById(id).orElse(null);
         repository.deleteById(id);
+        if (topic != null) {
+            invalidateCourseOf(topic.getModule());
+        }
     }
 
     // Helper Methods
@@ -90,6 +130,13 @@ public class TopicServiceImpl implements TopicService {
                 .orElseThrow(() -> new ResourceNotFoundException("Section with id: " + sectionId + " not found"));
     }
 
+    // Cached course pages embed the syllabus, so every lesson change drops the owning course
+    private void invalidateCourseOf(Module module) {
+        if (module != null && module.getCourse() != null) {
+            courseCacheService.invalidate(module.getCourse().getId());
+        }
+    }
+
     private Topic findLessonById(UUID id) {
         return repository.findById(id)
                 .orElseThrow(() -> new BadRequestException("Lesson with the provided ID does not exist"));
@@ -0,0 +1,41 @@
+package com.example.courseService.service.messaging;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running totals over streamed course chunks, so the completion marker can report the same
+ * figures as a single-message response without keeping the courses around.
+ */
+class CourseExportTotals {
+
+    private int chunks;
+    private long enrollments;
+    private double priceSum;
+    private int pricedCourses;
+
+    // Returns the index of the chunk just added
+    int add(List<Map<String, Object>> courses) {
+        for (Map<String, Object> course : courses) {
+            enrollments += (Integer) course.getOrDefault("enrollmentCount", 0);
+            if (course.get("price") != null) {
+                priceSum += ((Number) course.get("price")).doubleValue();
+                pricedCourses++;
+            }
+        }
+        return chunks++;
+    }
+
+    int getChunks() {
+        return chunks;
+    }
+
+    long getEnrollments() {
+        return enrollments;
+    }
+
+    double getAveragePrice() {
+        double average = pricedCourses == 0 ? 0.0 : priceSum / pricedCourses;
+        return Math.round(average * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.courseService.service.messaging;
+
+import com.example.courseService.config.RabbitMQConfig;
+import com.example.courseService.model.InstructorProfile;
+import com.example.courseService.service.InstructorProfileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Feeds the local instructor replica from UserService instructor events.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InstructorEventConsumer {
+    private final InstructorProfileService instructorProfileService;
+
+    // Shared durable queue: one node persists each event to the replica collection
+    @RabbitListener(queues = RabbitMQConfig.INSTRUCTOR_EVENTS_QUEUE)
+    public void handleInstructorEvent(Map<String, Object> message) {
+        handle(message, true);
+    }
+
+    // This node's own queue: keeps its in-memory copy current even when another node persisted the event
+    @RabbitListener(queues = "#{instructorCacheQueue.name}")
+    public void handleInstructorCacheEvent(Map<String, Object> message) {
+        handle(message, false);
+    }
+
+    private void handle(Map<String, Object> message, boolean persist) {
+        try {
+            String eventType = (String) message.get("eventType");
+            String instructorIdStr = (String) message.get("instructorId");
+            if (instructorIdStr == null) {
+                log.error("Received instructor event without instructorId");
+                return;
+            }
+            UUID instructorId = UUID.fromString(instructorIdStr);
+            long version = longValue(message.get("version"));
+
+            if ("INSTRUCTOR_UPSERTED".equals(eventType)) {
+                InstructorProfile profile = InstructorProfile.builder()
+                        .id(instructorId)
+                        .firstName((String) message.get("firstName"))
+                        .lastName((String) message.get("lastName"))
+                        .fathersName((String) message.get("fathersName"))
+                        .avatarUrl((String) message.get("avatarUrl"))
+                        .bio((String) message.get("bio"))
+                        .rating(message.get("rating") instanceof Number ? ((Number) message.get("rating")).doubleValue() : 0.0)
+                        .ratingsCount(longValue(message.get("ratingsCount")))
+                        .version(version)
+                        .build();
+                if (persist) {
+                    instructorProfileService.upsert(profile);
+                } else {
+                    instructorProfileService.applyLocally(profile);
+                }
+            } else if ("INSTRUCTOR_DELETED".equals(eventType)) {
+                if (persist) {
+                    instructorProfileService.delete(instructorId, version);
+                } else {
+                    instructorProfileService.evictLocally(instructorId, version);
+                }
+            } else {
+                log.warn("Unexpected instructor event type: {}", eventType);
+            }
+        } catch (Exception e) {
+            log.error("Error processing instructor event: {}", e.getMessage(), e);
+        }
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -11,9 +11,7 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 @Slf4j
@@ -28,19 +26,18 @@ public class RabbitMQProducer {
     }
 
     /**
-     * Sends a synchronous request to retrieve instructor details.
+     * Asks UserService to replay every instructor, used to backfill the local instructor replica.
      */
-    public Object getInstructorDetails(List<UUID> instructorIds) {
+    public void publishInstructorSnapshotRequest() {
         Map<String, Object> request = new HashMap<>();
-        request.put("instructorIds", instructorIds);
+        request.put("eventType", "INSTRUCTOR_SNAPSHOT_REQUEST");
+        request.put("requester", "COURSE_SERVICE");
 
         try {
-            String message = objectMapper.writeValueAsString(request);
-            return rabbitTemplate.convertSendAndReceive(
-                    RabbitMQConfig.EXCHANGE_NAME, "request.instructorDetails", message);
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.USER_EVENTS_EXCHANGE, "instructor.snapshot.request", request);
         } catch (Exception e) {
-            log.error("Failed to send instructor details request: {}", e.getMessage(), e);
-            return null;
+            log.error("Failed to send instructor snapshot request: {}", e.getMessage(), e);
         }
     }
 
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
@@ -23,17 +24,29 @@ public class SchoolDataConsumer {
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
 
+    @Value("${course.export.max-chunk-size:500}")
+    private int maxChunkSize;
+
     @RabbitListener(queues = "school_data_request_queue")
     public void handleSchoolDataRequest(Map<String, Object> message) {
         try {
             String schoolIdStr = (String) message.get("schoolId");
             String eventType = (String) message.get("eventType");
+            // Echoed back so the requester can match replies to its request
+            Object correlationId = message.get("correlationId");
 
             log.info("Received school data request for schoolId: {} with eventType: {}", schoolIdStr, eventType);
 
             if ("SCHOOL_DATA_REQUEST".equals(eventType) && schoolIdStr != null) {
                 UUID schoolId = UUID.fromString(schoolIdStr);
                 
+                // Requesters that send a chunkSize get the courses streamed in bounded chunks
+                Object chunkSize = message.get("chunkSize");
+                if (chunkSize instanceof Number && ((Number) chunkSize).intValue() > 0) {
+                    publishInChunks(schoolId, schoolIdStr, correlationId, Math.min(((Number) chunkSize).intValue(), maxChunkSize));
+                    return;
+                }
+                
                 // Get school-related course data with enhanced details
                 List<Map<String, Object>> schoolCourses = courseService.getCoursesBySchoolIdWithDetails(schoolId);
                 int courseCount = schoolCourses.size();
@@ -54,6 +67,7 @@ public class SchoolDataConsumer {
                 Map<String, Object> responseData = new HashMap<>();
                 responseData.put("schoolId", schoolIdStr);
                 responseData.put("serviceType", "COURSE_SERVICE");
+                responseData.put("correlationId", correlationId);
                 responseData.put("courseCount", courseCount);
                 responseData.put("totalEnrollments", totalEnrollments);
                 responseData.put("averagePrice", Math.round(averagePrice * 100.0) / 100.0);
@@ -73,4 +87,37 @@ public class SchoolDataConsumer {
             log.error("Error processing school data request: {}", e.getMessage(), e);
         }
     }
+
+    /**
+     * Sends each chunk as it is read from the cursor, followed by a completion marker carrying the
+     * totals. The marker's chunkCount lets the requester tell when every chunk has arrived.
+     */
+    private void publishInChunks(UUID schoolId, String schoolIdStr, Object correlationId, int chunkSize) {
+        CourseExportTotals totals = new CourseExportTotals();
+
+        int courseCount = courseService.exportCoursesBySchoolId(schoolId, chunkSize, courses -> {
+            Map<String, Object> chunk = new HashMap<>();
+            chunk.put("schoolId", schoolIdStr);
+            chunk.put("serviceType", "COURSE_SERVICE");
+            chunk.put("correlationId", correlationId);
+            chunk.put("chunkIndex", totals.add(courses));
+            chunk.put("courses", courses);
+            chunk.put("complete", false);
+            rabbitTemplate.convertAndSend("school_events", "school.data.response.courses", chunk);
+        });
+
+        Map<String, Object> completion = new HashMap<>();
+        completion.put("schoolId", schoolIdStr);
+        completion.put("serviceType", "COURSE_SERVICE");
+        completion.put("correlationId", correlationId);
+        completion.put("complete", true);
+        completion.put("chunkCount", totals.getChunks());
+        completion.put("courseCount", courseCount);
+        completion.put("totalEnrollments", totals.getEnrollments());
+        completion.put("averagePrice", totals.getAveragePrice());
+        rabbitTemplate.convertAndSend("school_events", "school.data.response.courses", completion);
+
+        log.info("Streamed school data response for schoolId: {} with {} courses in {} chunks",
+            schoolIdStr, courseCount, totals.getChunks());
+    }
 }
\ No newline at end of file
@@ -30,17 +30,29 @@ public class UserDataConsumer {
     @Value("${student.service.api.url}")
     private String studentServiceUrl;
 
+    @Value("${course.export.max-chunk-size:500}")
+    private int maxChunkSize;
+
     @RabbitListener(queues = "user_data_request_queue")
     public void handleUserDataRequest(Map<String, Object> message) {
         try {
             String userIdStr = (String) message.get("userId");
             String eventType = (String) message.get("eventType");
+            // Echoed back so the requester can match replies to its request
+            Object correlationId = message.get("correlationId");
 
             log.info("Received user data request for userId: {} with eventType: {}", userIdStr, eventType);
 
             if ("USER_DATA_REQUEST".equals(eventType) && userIdStr != null) {
                 UUID userId = UUID.fromString(userIdStr);
                 
+                // Requesters that send a chunkSize get the taught courses streamed in bounded chunks
+                Object chunkSize = message.get("chunkSize");
+                if (chunkSize instanceof Number && ((Number) chunkSize).intValue() > 0) {
+                    publishInChunks(userId, userIdStr, correlationId, Math.min(((Number) chunkSize).intValue(), maxChunkSize));
+                    return;
+                }
+                
                 // Get courses taught by the user (if they are an instructor)
                 List<Map<String, Object>> taughtCourses = courseService.getCoursesByInstructorIdWithDetails(userId);
                 
@@ -67,6 +79,7 @@ public class UserDataConsumer {
                 Map<String, Object> responseData = new HashMap<>();
                 responseData.put("userId", userIdStr);
                 responseData.put("serviceType", "COURSE_SERVICE");
+                responseData.put("correlationId", correlationId);
                 responseData.put("taughtCoursesCount", taughtCoursesCount);
                 responseData.put("enrolledCoursesCount", enrolledCoursesCount);
                 responseData.put("totalEnrollmentsInTaughtCourses", totalEnrollmentsInTaughtCourses);
@@ -96,6 +109,51 @@ public class UserDataConsumer {
         }
     }
 
+    /**
+     * Sends the taught courses chunk by chunk as they are read from the cursor. The completion
+     * marker carries the totals, the enrolled courses and the chunkCount the requester waits for.
+     */
+    private void publishInChunks(UUID userId, String userIdStr, Object correlationId, int chunkSize) {
+        CourseExportTotals totals = new CourseExportTotals();
+
+        int taughtCoursesCount = courseService.exportCoursesByInstructorId(userId, chunkSize, courses -> {
+            Map<String, Object> chunk = new HashMap<>();
+            chunk.put("userId", userIdStr);
+            chunk.put("serviceType", "COURSE_SERVICE");
+            chunk.put("correlationId", correlationId);
+            chunk.put("chunkIndex", totals.add(courses));
+            chunk.put("taughtCourses", courses);
+            chunk.put("complete", false);
+            rabbitTemplate.convertAndSend("user_events", "user.data.response.courses", chunk);
+        });
+
+        List<Map<String, Object>> enrolledCourses = getEnrolledCourses(userId);
+        int enrolledCoursesCount = enrolledCourses.size();
+
+        Map<String, Object> completion = new HashMap<>();
+        completion.put("userId", userIdStr);
+        completion.put("serviceType", "COURSE_SERVICE");
+        completion.put("correlationId", correlationId);
+        completion.put("complete", true);
+        completion.put("chunkCount", totals.getChunks());
+        completion.put("taughtCoursesCount", taughtCoursesCount);
+        completion.put("enrolledCoursesCount", enrolledCoursesCount);
+        completion.put("totalEnrollmentsInTaughtCourses", totals.getEnrollments());
+        completion.put("averagePriceOfTaughtCourses", totals.getAveragePrice());
+        completion.put("enrolledCourses", enrolledCourses);
+
+        Map<String, Object> courseStats = new HashMap<>();
+        courseStats.put("totalCourses", taughtCoursesCount + enrolledCoursesCount);
+        courseStats.put("asInstructor", taughtCoursesCount);
+        courseStats.put("asStudent", enrolledCoursesCount);
+        completion.put("courseStatistics", courseStats);
+
+        rabbitTemplate.convertAndSend("user_events", "user.data.response.courses", completion);
+
+        log.info("Streamed user data response for userId: {} with {} taught courses in {} chunks",
+            userIdStr, taughtCoursesCount, totals.getChunks());
+    }
+
     private List<Map<String, Object>> getEnrolledCourses(UUID userId) {
         try {
             log.info("Fetching enrollment data for user: {}", userId);
@@ -0,0 +1,68 @@
+package com.example.courseService.utils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import com.example.courseService.exception.implementation.BadRequestException;
+import com.example.courseService.model.Course;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of the last course of a keyset page: its sort value and id. Clients only see the
+ * opaque token, which also records the ordering so it cannot be replayed against another listing.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CourseCursor {
+
+    public enum Order {
+        NEWEST,
+        CHEAPEST
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final Order order;
+    // createdAt for NEWEST, price for CHEAPEST; null when the course has no value
+    private final Object value;
+    private final UUID id;
+
+    public static CourseCursor after(Course course, Order order) {
+        Object value = order == Order.NEWEST ? course.getCreatedAt() : course.getPrice();
+        return new CourseCursor(order, value, course.getId());
+    }
+
+    public String encode() {
+        String encodedValue = "";
+        if (value instanceof Date) {
+            encodedValue = String.valueOf(((Date) value).getTime());
+        } else if (value instanceof BigDecimal) {
+            encodedValue = ((BigDecimal) value).toPlainString();
+        }
+        String raw = order.name() + SEPARATOR + encodedValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CourseCursor decode(String token, Order expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || Order.valueOf(parts[0]) != expected) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            Object value = null;
+            if (!parts[1].isEmpty()) {
+                value = expected == Order.NEWEST ? new Date(Long.parseLong(parts[1])) : new BigDecimal(parts[1]);
+            }
+            return new CourseCursor(expected, value, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
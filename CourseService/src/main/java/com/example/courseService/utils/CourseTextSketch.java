@@ -0,0 +1,34 @@
+package com.example.courseService.utils;
+
+import java.util.Date;
+
+import com.example.courseService.model.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Precomputed MinHash signatures of a course's free-text fields. The course's
+ * updatedAt is kept so a cached sketch can be recognised as stale.
+ */
+@Getter
+@AllArgsConstructor
+public class CourseTextSketch {
+
+        private final Date updatedAt;
+        private final int[] title;
+        private final int[] description;
+        private final int[] longDescription;
+
+        public static CourseTextSketch of(Course course) {
+                return new CourseTextSketch(
+                        course.getUpdatedAt(),
+                        TextSimilarityEngine.signature(course.getTitle()),
+                        TextSimilarityEngine.signature(course.getDescription()),
+                        TextSimilarityEngine.signature(course.getLongDescription()));
+        }
+
+        public boolean isCurrentFor(Course course) {
+                return updatedAt == null ? course.getUpdatedAt() == null : updatedAt.equals(course.getUpdatedAt());
+        }
+}
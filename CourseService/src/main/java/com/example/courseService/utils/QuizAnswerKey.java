@@ -0,0 +1,69 @@
+package com.example.courseService.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.example.courseService.model.QuizQuestion;
+import com.example.courseService.model.enums.QuestionType;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable grading view of a quiz: question id to trimmed correct answer, points and type.
+ * Built once from the quiz questions so grading a submission is a map lookup per answer.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class QuizAnswerKey {
+
+    private final UUID quizId;
+    private final Map<UUID, Answer> answers;
+    private final int totalPoints;
+
+    public static QuizAnswerKey of(UUID quizId, List<QuizQuestion> questions) {
+        Map<UUID, Answer> answers = new HashMap<>(questions.size() * 2);
+        int totalPoints = 0;
+        for (QuizQuestion question : questions) {
+            int points = question.getPoints() != null ? question.getPoints() : 0;
+            answers.put(question.getId(), new Answer(
+                    normalise(question.getCorrectAnswer()), points, question.getType()));
+            totalPoints += points;
+        }
+        return new QuizAnswerKey(quizId, Map.copyOf(answers), totalPoints);
+    }
+
+    public Answer get(UUID questionId) {
+        return answers.get(questionId);
+    }
+
+    public Set<UUID> questionIds() {
+        return answers.keySet();
+    }
+
+    public boolean isEmpty() {
+        return answers.isEmpty();
+    }
+
+    // Grading has always been an exact comparison of the trimmed answers for every question
+    // type; changing that would change the grade of existing submissions
+    static String normalise(String answer) {
+        return answer != null ? answer.trim() : null;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Answer {
+        private final String correctAnswer;
+        private final int points;
+        private final QuestionType type;
+
+        public boolean matches(String answer) {
+            return correctAnswer != null && correctAnswer.equals(normalise(answer));
+        }
+    }
+}
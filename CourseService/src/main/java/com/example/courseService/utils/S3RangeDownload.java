@@ -0,0 +1,148 @@
+package com.example.courseService.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.example.courseService.exception.implementation.ResourceNotFoundException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Pipes an S3 object to the servlet response through one fixed-size buffer, so a download
+ * costs the same memory whatever the object size. Honours If-None-Match and a single-range
+ * Range header (guarded by If-Range); multi-range and malformed requests get the whole object.
+ */
+public class S3RangeDownload {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    static final long[] UNSATISFIABLE = new long[0];
+
+    public static void stream(AmazonS3 s3Client, String bucketName, String key,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ObjectMetadata metadata;
+        try {
+            metadata = s3Client.getObjectMetadata(bucketName, key);
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpServletResponse.SC_NOT_FOUND) {
+                throw new ResourceNotFoundException("File not found: " + key);
+            }
+            throw e;
+        }
+        long length = metadata.getContentLength();
+        String eTag = "\"" + metadata.getETag() + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long[] range = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range means the client's partial copy is outdated, so it gets everything
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(eTag))) {
+            range = parseRange(rangeHeader, length);
+        }
+        if (range == UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        GetObjectRequest getRequest = new GetObjectRequest(bucketName, key);
+        if (range != null) {
+            getRequest.setRange(range[0], range[1]);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+            response.setContentLengthLong(range[1] - range[0] + 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLengthLong(length);
+        }
+        response.setContentType(metadata.getContentType() != null
+                ? metadata.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        S3Object object = s3Client.getObject(getRequest);
+        S3ObjectInputStream content = object.getObjectContent();
+        try {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Usually the client went away; drop the connection rather than drain the rest of the object
+            content.abort();
+            throw e;
+        } finally {
+            object.close();
+        }
+    }
+
+    // Inclusive {start, end}, null to ignore the header, UNSATISFIABLE when it selects nothing
+    static long[] parseRange(String header, long length) {
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+            return new long[]{start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matchesAny(String header, String eTag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
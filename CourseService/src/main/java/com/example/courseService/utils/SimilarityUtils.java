@@ -17,13 +17,12 @@ public class SimilarityUtils {
                 Set<String> union = new HashSet<>(set1);
                 union.addAll(set2);
 
-                return (double) intersection.size() / union.size();
+                return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
         }
 
         // Levenshtein Similarity for Strings (Title, Description)
         public static double calculateLevenshteinSimilarity(String str1, String str2) {
-                LevenshteinDistance levenshtein = new LevenshteinDistance();
-                int distance = levenshtein.apply(str1, str2);
+                int distance = LevenshteinDistance.getDefaultInstance().apply(str1, str2);
                 int maxLen = Math.max(str1.length(), str2.length());
                 return (maxLen == 0) ? 1.0 : (1.0 - (double) distance / maxLen);
         }
@@ -33,6 +32,7 @@ public class SimilarityUtils {
                 double tolerance = 0.10; // 10% tolerance
                 double priceDifference = Math.abs(price1 - price2);
                 double maxPrice = Math.max(price1, price2);
+                if (maxPrice == 0) return 1.0;
                 return (priceDifference <= tolerance * maxPrice) ? 1.0 : 1.0 - (priceDifference / maxPrice);
         }
 
@@ -46,6 +46,6 @@ public class SimilarityUtils {
                 Set<UUID> union = new HashSet<>(set1);
                 union.addAll(set2);
 
-                return (double) intersection.size() / union.size();
+                return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
         }
 }
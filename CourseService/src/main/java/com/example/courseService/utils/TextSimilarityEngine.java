@@ -0,0 +1,74 @@
+package com.example.courseService.utils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * MinHash based text similarity. Texts are reduced to a fixed-size signature over their
+ * normalised word tokens, and two signatures estimate the Jaccard similarity of the
+ * underlying token sets in O(SIGNATURE_SIZE) regardless of how long the texts are.
+ */
+public class TextSimilarityEngine {
+
+        public static final int SIGNATURE_SIZE = 128;
+
+        private static final long PRIME = 2147483647L; // 2^31 - 1
+        private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+        // Fixed seed so signatures stay comparable across restarts and nodes
+        private static final long[] HASH_A = new long[SIGNATURE_SIZE];
+        private static final long[] HASH_B = new long[SIGNATURE_SIZE];
+
+        static {
+                Random random = new Random(0x5eedL);
+                for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                        HASH_A[i] = 1 + (long) (random.nextDouble() * (PRIME - 1));
+                        HASH_B[i] = (long) (random.nextDouble() * PRIME);
+                }
+        }
+
+        // Lower-cased word tokens, punctuation and whitespace removed
+        public static Set<String> tokenize(String text) {
+                Set<String> tokens = new HashSet<>();
+                if (text == null) {
+                        return tokens;
+                }
+                for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                        if (!token.isEmpty()) {
+                                tokens.add(token);
+                        }
+                }
+                return tokens;
+        }
+
+        public static int[] signature(String text) {
+                int[] signature = new int[SIGNATURE_SIZE];
+                Arrays.fill(signature, Integer.MAX_VALUE);
+
+                for (String token : tokenize(text)) {
+                        long x = token.hashCode() & 0x7fffffffL;
+                        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                                int hash = (int) ((HASH_A[i] * x + HASH_B[i]) % PRIME);
+                                if (hash < signature[i]) {
+                                        signature[i] = hash;
+                                }
+                        }
+                }
+                return signature;
+        }
+
+        // Estimated Jaccard similarity; two empty texts are considered identical
+        public static double similarity(int[] signature1, int[] signature2) {
+                int matches = 0;
+                for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                        if (signature1[i] == signature2[i]) {
+                                matches++;
+                        }
+                }
+                return (double) matches / SIGNATURE_SIZE;
+        }
+}
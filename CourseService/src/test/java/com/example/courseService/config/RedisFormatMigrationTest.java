@@ -0,0 +1,123 @@
+package com.example.courseService.config;
+
+import com.example.courseService.dto.QuizResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RedisFormatMigrationTest {
+
+    private final Map<String, byte[]> store = new HashMap<>();
+    private RedisConfig redisConfig;
+    private ObjectMapper redisObjectMapper;
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisConfig = new RedisConfig();
+        redisObjectMapper = redisConfig.redisObjectMapper();
+
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(keyCommands.type(any())).thenReturn(DataType.STRING);
+        when(keyCommands.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+            String prefix = ((ScanOptions) invocation.getArgument(0)).getPattern().replace("*", "");
+            Iterator<byte[]> keys = store.keySet().stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                    .toList()
+                    .iterator();
+            Cursor<byte[]> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> keys.hasNext());
+            when(cursor.next()).thenAnswer(i -> keys.next());
+            return cursor;
+        });
+        when(stringCommands.get(any())).thenAnswer(invocation ->
+                store.get(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8)));
+        when(stringCommands.set(any(), any(), any(), any())).thenAnswer(invocation -> {
+            store.put(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8), invocation.getArgument(1));
+            return true;
+        });
+
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        when(stringRedisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void testMigrate_LegacyQuizResultMapIsReadBackAsResult() {
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        legacy.put("submissionId", "s-1");
+        legacy.put("userEmail", "a@b.c");
+        legacy.put("score", 7);
+        legacy.put("passed", true);
+        legacy.put("attemptNumber", 2);
+        store.put("quiz_result:s-1", new GenericJackson2JsonRedisSerializer(redisObjectMapper).serialize(legacy));
+
+        migration().migrate();
+
+        byte[] rewritten = store.get("quiz_result:s-1");
+        assertTrue(redisConfig.redisValueSerializer(redisObjectMapper).isCurrentFormat(rewritten));
+        // Written with the registered result type id, not as an untyped map
+        assertEquals(1, ByteBuffer.wrap(rewritten, 2, 2).getShort());
+        Object value = quizResultTemplate().getValueSerializer().deserialize(rewritten);
+        QuizResultDTO result = assertInstanceOf(QuizResultDTO.class, value);
+        assertEquals("s-1", result.getSubmissionId());
+        assertEquals(7, result.getScore());
+        assertEquals(2, result.getAttemptNumber());
+        assertTrue(result.isPassed());
+    }
+
+    @Test
+    void testMigrate_OtherPatternsKeepGenericSerializer() {
+        store.put("sessionId:abc", redisConfig.redisValueSerializer(redisObjectMapper).serialize(List.of("x")));
+        byte[] current = store.get("sessionId:abc");
+
+        migration().migrate();
+
+        assertSame(current, store.get("sessionId:abc"));
+    }
+
+    private RedisFormatMigration migration() {
+        RedisFormatMigration migration = new RedisFormatMigration(stringRedisTemplate,
+                redisConfig.redisValueSerializer(redisObjectMapper),
+                redisConfig.quizResultValueSerializer(redisObjectMapper));
+        ReflectionTestUtils.setField(migration, "patterns", List.of("quiz_result:*", "sessionId:*"));
+        return migration;
+    }
+
+    private RedisTemplate<String, QuizResultDTO> quizResultTemplate() {
+        return redisConfig.quizResultRedisTemplate(mock(RedisConnectionFactory.class),
+                redisConfig.quizResultValueSerializer(redisObjectMapper));
+    }
+}
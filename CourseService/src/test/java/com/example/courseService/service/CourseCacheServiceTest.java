@@ -0,0 +1,115 @@
+package com.example.courseService.service;
+
+import com.example.courseService.model.Course;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CourseCacheServiceTest {
+
+    // Shared by both nodes, standing in for Redis
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final UUID courseId = UUID.randomUUID();
+    private CourseCacheService nodeA;
+    private CourseCacheService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = fakeRedis();
+        nodeA = newNode(redisTemplate);
+        nodeB = newNode(redisTemplate);
+    }
+
+    @Test
+    void testGetCourse_LoadedValueIsWrittenToL2() {
+        Course course = course("Original");
+
+        nodeA.getCourse(courseId, () -> course);
+
+        assertTrue(redis.containsKey("course:entity:" + courseId));
+        assertEquals("Original", nodeB.getCourse(courseId, () -> fail("should be served from L2")).getTitle());
+    }
+
+    @Test
+    void testGetCourse_LoadOverlappingAnotherNodesInvalidationIsNotWrittenToL2() {
+        Course stale = course("Stale");
+
+        // Node B persists a change and invalidates while node A is still loading the old data
+        Course served = nodeA.getCourse(courseId, () -> {
+            nodeB.invalidate(courseId);
+            return stale;
+        });
+
+        assertSame(stale, served);
+        assertFalse(redis.containsKey("course:entity:" + courseId));
+        assertEquals("Fresh", nodeB.getCourse(courseId, () -> course("Fresh")).getTitle());
+    }
+
+    @Test
+    void testInvalidate_DropsL2AndBumpsVersion() {
+        nodeA.getCourse(courseId, () -> course("Original"));
+
+        nodeA.invalidate(courseId);
+        nodeA.invalidate(courseId);
+
+        assertFalse(redis.containsKey("course:entity:" + courseId));
+        assertEquals("2", redis.get("course:version:" + courseId));
+    }
+
+    private Course course(String title) {
+        Course course = new Course();
+        course.setId(courseId);
+        course.setTitle(title);
+        return course;
+    }
+
+    private static CourseCacheService newNode(StringRedisTemplate redisTemplate) {
+        CourseCacheService node = new CourseCacheService(redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(), 100);
+        ReflectionTestUtils.setField(node, "l1TtlSeconds", 60L);
+        ReflectionTestUtils.setField(node, "l2TtlMinutes", 30L);
+        node.init();
+        return node;
+    }
+
+    // Runs the cache scripts against the map with the same semantics as on the server
+    @SuppressWarnings("unchecked")
+    private StringRedisTemplate fakeRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.multiGet(anyCollection())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                .stream().map(redis::get).toList());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            String script = ((RedisScript<?>) invocation.getArgument(0)).getScriptAsString();
+            List<String> keys = invocation.getArgument(1);
+            Object[] args = (Object[]) invocation.getRawArguments()[2];
+            if (script.contains("INCR")) {
+                long version = Long.parseLong(redis.getOrDefault(keys.get(0), "0")) + 1;
+                redis.put(keys.get(0), String.valueOf(version));
+                keys.subList(1, keys.size()).forEach(redis::remove);
+                return version;
+            }
+            if (!redis.getOrDefault(keys.get(0), "").equals(args[0])) {
+                return 0L;
+            }
+            redis.put(keys.get(1), (String) args[1]);
+            return 1L;
+        });
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.courseService.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.example.courseService.model.DeletionJobStatus;
+import com.example.courseService.model.MediaDeletionJob;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MediaDeletionServiceTest {
+
+    private AmazonS3 s3Client;
+    private MongoTemplate mongoTemplate;
+    private StoredFileService storedFileService;
+    private MediaDeletionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3Client = mock(AmazonS3.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        storedFileService = mock(StoredFileService.class);
+        when(s3Client.getUrl("bucket", "")).thenReturn(new URL("https://bucket.s3.amazonaws.com/"));
+        service = new MediaDeletionService(s3Client, mongoTemplate, storedFileService, 1);
+        ReflectionTestUtils.setField(service, "bucketName", "bucket");
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testEnqueue_KeepsOneReferencePerFile() {
+        when(mongoTemplate.insert(any(MediaDeletionJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MediaDeletionJob job = service.enqueue("course", "c-1", List.of(
+                "https://bucket.s3.amazonaws.com/videos/a.mp4", "videos/a.mp4", "videos/b.mp4"));
+
+        assertEquals(List.of("videos/a.mp4", "videos/b.mp4"), job.getPendingKeys());
+        assertEquals(List.of("videos/a.mp4", "videos/a.mp4", "videos/b.mp4"), job.getReferencedKeys());
+        assertEquals(2, job.getTotalKeys());
+    }
+
+    @Test
+    void testRun_ReleasesSharedKeyOncePerReferenceAndDeletesIt() {
+        MediaDeletionJob job = job(List.of("a.mp4", "a.mp4"), List.of());
+        when(storedFileService.release("a.mp4")).thenReturn(false, true);
+
+        ReflectionTestUtils.invokeMethod(service, "run", job.getId());
+
+        verify(storedFileService, times(2)).release("a.mp4");
+        ArgumentCaptor<DeleteObjectsRequest> request = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client).deleteObjects(request.capture());
+        assertEquals("a.mp4", request.getValue().getKeys().get(0).getKey());
+        assertEquals(List.of("a.mp4#1", "a.mp4#2"), addedToSet("releasedKeys"));
+    }
+
+    @Test
+    void testRun_KeepsObjectStillReferencedElsewhere() {
+        MediaDeletionJob job = job(List.of("a.mp4"), List.of());
+        when(storedFileService.release("a.mp4")).thenReturn(false);
+
+        ReflectionTestUtils.invokeMethod(service, "run", job.getId());
+
+        verify(s3Client, never()).deleteObjects(any());
+    }
+
+    @Test
+    void testRun_RetriedJobDoesNotReleaseRecordedReferencesAgain() {
+        // The first reference was dropped before the node went down, the second was not
+        MediaDeletionJob job = job(List.of("a.mp4", "a.mp4"), List.of("a.mp4#1"));
+        when(storedFileService.release("a.mp4")).thenReturn(true);
+
+        ReflectionTestUtils.invokeMethod(service, "run", job.getId());
+
+        verify(storedFileService, times(1)).release("a.mp4");
+        assertEquals(List.of("a.mp4#2"), addedToSet("releasedKeys"));
+        verify(s3Client).deleteObjects(any());
+    }
+
+    @Test
+    void testRun_FullyReleasedJobOnlyRetriesTheDelete() {
+        MediaDeletionJob job = job(List.of("a.mp4"), List.of("a.mp4#1"));
+        job.setDeletableKeys(new ArrayList<>(List.of("a.mp4")));
+
+        ReflectionTestUtils.invokeMethod(service, "run", job.getId());
+
+        verify(storedFileService, never()).release(any());
+        verify(s3Client).deleteObjects(any());
+    }
+
+    private MediaDeletionJob job(List<String> references, List<String> released) {
+        MediaDeletionJob job = MediaDeletionJob.builder()
+                .id("job-1")
+                .status(DeletionJobStatus.RUNNING)
+                .pendingKeys(new ArrayList<>(references.stream().distinct().toList()))
+                .referencedKeys(new ArrayList<>(references))
+                .releasedKeys(new ArrayList<>(released))
+                .attempts(1)
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MediaDeletionJob.class))).thenReturn(job);
+        return job;
+    }
+
+    // References recorded with $addToSet on the given field, in call order
+    @SuppressWarnings("unchecked")
+    private List<Object> addedToSet(String field) {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), updates.capture(), eq(MediaDeletionJob.class));
+        List<Object> added = new ArrayList<>();
+        for (Update update : updates.getAllValues()) {
+            Object addToSet = update.getUpdateObject().get("$addToSet");
+            if (addToSet instanceof Document document && document.containsKey(field)) {
+                Object each = ((Update.Modifier) document.get(field)).getValue();
+                added.addAll(each instanceof Object[] array ? List.of(array) : (List<Object>) each);
+            }
+        }
+        return added;
+    }
+}
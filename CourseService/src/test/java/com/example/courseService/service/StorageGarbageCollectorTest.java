@@ -0,0 +1,204 @@
+package com.example.courseService.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.example.courseService.dto.response.StorageGcReport;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.MediaDeletionJob;
+import com.example.courseService.model.MediaUploadSession;
+import com.example.courseService.model.Module;
+import com.example.courseService.model.StoredFile;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StorageGarbageCollectorTest {
+
+    private static final Date OLD = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3));
+    private static final Date RECENT = new Date();
+
+    private final Map<String, List<Document>> collections = new HashMap<>();
+    private final List<S3ObjectSummary> objects = new ArrayList<>();
+    private final List<MultipartUpload> uploads = new ArrayList<>();
+    private AmazonS3 s3Client;
+    private MongoTemplate mongoTemplate;
+    private MediaDeletionService mediaDeletionService;
+    private ValueOperations<String, String> redisValues;
+    private StorageGarbageCollector collector;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        s3Client = mock(AmazonS3.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        mediaDeletionService = mock(MediaDeletionService.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        redisValues = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(redisValues);
+        when(redisValues.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        when(mediaDeletionService.toKey(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mediaDeletionService.enqueue(anyString(), anyString(), anyCollection()))
+                .thenReturn(MediaDeletionJob.builder().id("job-1").build());
+        when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation ->
+                ((Class<?>) invocation.getArgument(0)).getSimpleName());
+        when(mongoTemplate.getCollection(anyString())).thenAnswer(invocation ->
+                collectionOf(collections.getOrDefault((String) invocation.getArgument(0), List.of())));
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Result result = new ListObjectsV2Result();
+            result.getObjectSummaries().addAll(objects);
+            return result;
+        });
+        when(s3Client.listMultipartUploads(any(ListMultipartUploadsRequest.class))).thenAnswer(invocation -> {
+            MultipartUploadListing listing = new MultipartUploadListing();
+            listing.setMultipartUploads(uploads);
+            return listing;
+        });
+
+        collector = new StorageGarbageCollector(s3Client, mongoTemplate, mediaDeletionService, redisTemplate);
+        ReflectionTestUtils.setField(collector, "bucketName", "bucket");
+        ReflectionTestUtils.setField(collector, "prefixes", List.of("courses/"));
+        ReflectionTestUtils.setField(collector, "intervalHours", 24L);
+        ReflectionTestUtils.setField(collector, "graceHours", 24L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.shutdown();
+    }
+
+    @Test
+    void testCollect_DeletesOnlyUnreferencedObjectsPastTheGracePeriod() {
+        givenReferencesAndObjects();
+
+        StorageGcReport report = collector.collect(false);
+
+        assertEquals(5, report.getScannedObjects());
+        assertEquals(1, report.getOrphanedObjects());
+        assertEquals(40, report.getOrphanedBytes());
+        assertEquals(List.of("job-1"), report.getDeletionJobIds());
+        assertEquals(List.of("courses/orphan.mp4"), enqueuedKeys());
+    }
+
+    @Test
+    void testCollect_DryRunOnlyReports() {
+        givenReferencesAndObjects();
+        uploads.add(upload("courses/stale.mp4", "stale-upload", OLD));
+
+        StorageGcReport report = collector.collect(true);
+
+        assertTrue(report.isDryRun());
+        assertEquals(1, report.getOrphanedObjects());
+        assertEquals(List.of("courses/orphan.mp4"), report.getSampleOrphans());
+        assertEquals(1, report.getStaleUploads());
+        verify(mediaDeletionService, never()).enqueue(anyString(), anyString(), anyCollection());
+        verify(s3Client, never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    void testCollect_AbortsStaleUploadsButNotActiveOrRecentOnes() {
+        collections.put("MediaUploadSession", List.of(new Document("uploadId", "active-upload")));
+        uploads.add(upload("courses/stale.mp4", "stale-upload", OLD));
+        uploads.add(upload("courses/active.mp4", "active-upload", OLD));
+        uploads.add(upload("courses/recent.mp4", "recent-upload", RECENT));
+
+        StorageGcReport report = collector.collect(false);
+
+        ArgumentCaptor<AbortMultipartUploadRequest> aborted = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(aborted.capture());
+        assertEquals("stale-upload", aborted.getValue().getUploadId());
+        assertEquals(1, report.getAbortedUploads());
+    }
+
+    @Test
+    void testCollect_SkippedWhileAnotherInstanceHoldsTheLock() {
+        when(redisValues.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertNull(collector.collect(false));
+        verifyNoInteractions(s3Client);
+    }
+
+    private void givenReferencesAndObjects() {
+        collections.put(Course.class.getSimpleName(), List.of(
+                new Document("thumbnail", new Document("url", "courses/thumb.png"))));
+        // Nested through an array of embedded topics
+        collections.put(Module.class.getSimpleName(), List.of(
+                new Document("topics", List.of(new Document("videoUrl", "courses/video.mp4")))));
+        collections.put(StoredFile.class.getSimpleName(), List.of(new Document("key", "courses/shared.mp4")));
+        collections.put(MediaUploadSession.class.getSimpleName(), List.of());
+
+        objects.add(object("courses/thumb.png", OLD, 10));
+        objects.add(object("courses/video.mp4", OLD, 20));
+        objects.add(object("courses/shared.mp4", OLD, 30));
+        objects.add(object("courses/orphan.mp4", OLD, 40));
+        objects.add(object("courses/just-uploaded.mp4", RECENT, 50));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> enqueuedKeys() {
+        ArgumentCaptor<Collection<String>> keys = ArgumentCaptor.forClass(Collection.class);
+        verify(mediaDeletionService).enqueue(eq("storage-gc"), eq("bucket"), keys.capture());
+        return new ArrayList<>(keys.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> collectionOf(List<Document> documents) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(collection.find()).thenReturn(found);
+        when(found.projection(any())).thenReturn(found);
+        when(found.iterator()).thenAnswer(invocation -> {
+            Iterator<Document> iterator = documents.iterator();
+            MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> iterator.hasNext());
+            when(cursor.next()).thenAnswer(i -> iterator.next());
+            return cursor;
+        });
+        return collection;
+    }
+
+    private static S3ObjectSummary object(String key, Date lastModified, long size) {
+        S3ObjectSummary object = new S3ObjectSummary();
+        object.setKey(key);
+        object.setLastModified(lastModified);
+        object.setSize(size);
+        return object;
+    }
+
+    private static MultipartUpload upload(String key, String uploadId, Date initiated) {
+        MultipartUpload upload = new MultipartUpload();
+        upload.setKey(key);
+        upload.setUploadId(uploadId);
+        upload.setInitiated(initiated);
+        return upload;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.courseService.service;
+
+import com.example.courseService.model.StoredFile;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StoredFileServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private StoredFileService storedFileService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        storedFileService = new StoredFileService(mongoTemplate);
+    }
+
+    @Test
+    void testAcquire_ReturnsExistingObjectWithReferenceTaken() {
+        StoredFile existing = storedFile(2);
+        whenFindAndModify().thenReturn(existing);
+
+        Optional<StoredFile> acquired = storedFileService.acquire("sha");
+
+        assertSame(existing, acquired.orElseThrow());
+        assertEquals(1, incrementOf(captureFindAndModifyUpdate()));
+    }
+
+    @Test
+    void testAcquire_UnknownContent() {
+        assertTrue(storedFileService.acquire("sha").isEmpty());
+    }
+
+    @Test
+    void testRegister_NewContentStartsWithOneReference() {
+        when(mongoTemplate.insert(any(StoredFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StoredFile registered = storedFileService.register(storedFile(0));
+
+        assertEquals(1, registered.getRefCount());
+        assertNotNull(registered.getCreatedAt());
+    }
+
+    @Test
+    void testRegister_LosingTheRaceReferencesTheWinnersObject() {
+        StoredFile winner = storedFile(2);
+        winner.setKey("winner-key");
+        when(mongoTemplate.insert(any(StoredFile.class))).thenThrow(new DuplicateKeyException("sha"));
+        whenFindAndModify().thenReturn(winner);
+
+        StoredFile registered = storedFileService.register(storedFile(0));
+
+        assertEquals("winner-key", registered.getKey());
+    }
+
+    @Test
+    void testRegister_WinnerReleasedBeforeItCouldBeReferencedIsRegisteredAgain() {
+        StoredFile mine = storedFile(0);
+        when(mongoTemplate.insert(any(StoredFile.class)))
+                .thenThrow(new DuplicateKeyException("sha"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        StoredFile registered = storedFileService.register(mine);
+
+        assertSame(mine, registered);
+        verify(mongoTemplate, times(2)).insert(any(StoredFile.class));
+    }
+
+    @Test
+    void testRelease_SharedObjectIsKept() {
+        whenFindAndModify().thenReturn(storedFile(1));
+
+        assertFalse(storedFileService.release("key"));
+        assertEquals(-1, incrementOf(captureFindAndModifyUpdate()));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(StoredFile.class));
+    }
+
+    @Test
+    void testRelease_LastReferenceRemovesEntry() {
+        whenFindAndModify().thenReturn(storedFile(0));
+        when(mongoTemplate.remove(any(Query.class), eq(StoredFile.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertTrue(storedFileService.release("key"));
+    }
+
+    @Test
+    void testRelease_ReacquiredAfterLastReferenceIsKept() {
+        // Another upload took a reference between the decrement and the removal
+        whenFindAndModify().thenReturn(storedFile(0));
+        when(mongoTemplate.remove(any(Query.class), eq(StoredFile.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        assertFalse(storedFileService.release("key"));
+    }
+
+    @Test
+    void testRelease_UnregisteredObjectIsDeletable() {
+        assertTrue(storedFileService.release("legacy-key"));
+    }
+
+    private OngoingStubbing<StoredFile> whenFindAndModify() {
+        return when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(StoredFile.class)));
+    }
+
+    private Update captureFindAndModifyUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(),
+                any(FindAndModifyOptions.class), eq(StoredFile.class));
+        return update.getValue();
+    }
+
+    private static long incrementOf(Update update) {
+        return ((Number) update.getUpdateObject().get("$inc", Document.class).get("refCount")).longValue();
+    }
+
+    private static StoredFile storedFile(long refCount) {
+        return StoredFile.builder()
+                .sha256("sha")
+                .key("key")
+                .refCount(refCount)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.courseService.service;
+
+import com.example.courseService.dto.request.ModuleRequest;
+import com.example.courseService.dto.request.TopicRequest;
+import com.example.courseService.mapper.ModuleMapper;
+import com.example.courseService.mapper.TopicMapper;
+import com.example.courseService.model.Course;
+import com.example.courseService.model.Module;
+import com.example.courseService.model.Topic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SyllabusPersistenceServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ModuleMapper moduleMapper;
+    private TopicMapper topicMapper;
+    private BulkOperations moduleBulk;
+    private BulkOperations topicBulk;
+    private SyllabusPersistenceService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        moduleMapper = mock(ModuleMapper.class);
+        topicMapper = mock(TopicMapper.class);
+        moduleBulk = mock(BulkOperations.class);
+        topicBulk = mock(BulkOperations.class);
+        when(moduleBulk.insert(anyList())).thenReturn(moduleBulk);
+        when(topicBulk.insert(anyList())).thenReturn(topicBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Module.class)).thenReturn(moduleBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Topic.class)).thenReturn(topicBulk);
+        service = new SyllabusPersistenceService(mongoTemplate, moduleMapper, topicMapper);
+    }
+
+    @Test
+    void testBuildModules_MapsTopicsOntoTheirModuleWithoutPersisting() {
+        Course course = new Course();
+        Module module = new Module();
+        Topic topic = new Topic();
+        ModuleRequest request = ModuleRequest.builder().topics(List.of(new TopicRequest())).build();
+        when(moduleMapper.toEntity(request, course)).thenReturn(module);
+        when(topicMapper.toTopic(any(TopicRequest.class), same(module))).thenReturn(topic);
+
+        List<Module> modules = service.buildModules(List.of(request), course);
+
+        assertSame(module, modules.get(0));
+        assertSame(topic, module.getTopics().get(0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testInsertModules_OneBatchForAllTopicsThenOneForTheModules() {
+        Module first = moduleWithTopics(2);
+        Module second = moduleWithTopics(3);
+        Module empty = moduleWithTopics(0);
+        empty.setTopics(null);
+
+        service.insertModules(List.of(first, second, empty));
+
+        // Topics first, so no module is ever stored pointing at lessons that do not exist yet
+        InOrder order = inOrder(topicBulk, moduleBulk);
+        ArgumentCaptor<List<Topic>> topics = captor();
+        order.verify(topicBulk).insert(topics.capture());
+        order.verify(topicBulk).execute();
+        order.verify(moduleBulk).insert(List.of(first, second, empty));
+        order.verify(moduleBulk).execute();
+        assertEquals(5, topics.getValue().size());
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, Topic.class);
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, Module.class);
+    }
+
+    @Test
+    void testInsertModules_NothingToWrite() {
+        service.insertModules(List.of());
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void testInsertModules_ModulesWithoutTopicsSkipTheTopicBatch() {
+        Module module = moduleWithTopics(0);
+
+        service.insertModules(List.of(module));
+
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, Topic.class);
+        verify(moduleBulk).execute();
+    }
+
+    private static Module moduleWithTopics(int count) {
+        Module module = new Module();
+        module.setId(UUID.randomUUID());
+        List<Topic> topics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Topic topic = new Topic();
+            topic.setId(UUID.randomUUID());
+            topics.add(topic);
+        }
+        module.setTopics(topics);
+        return module;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Topic>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.courseService.utils;
+
+import com.example.courseService.model.QuizQuestion;
+import com.example.courseService.model.enums.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizAnswerKeyTest {
+
+    @Test
+    void testMatches_ShortAnswerIgnoresSurroundingWhitespaceOnly() {
+        QuizAnswerKey.Answer answer = answerFor(QuestionType.SHORT_ANSWER, "Dependency Injection");
+        assertTrue(answer.matches("  Dependency Injection "));
+        assertFalse(answer.matches("dependency injection"));
+        assertFalse(answer.matches("Dependency  Injection"));
+    }
+
+    @Test
+    void testMatches_ChoiceIgnoresSurroundingWhitespaceOnly() {
+        QuizAnswerKey.Answer answer = answerFor(QuestionType.MULTIPLE_CHOICE, "Option B");
+        assertTrue(answer.matches(" Option B\n"));
+        assertFalse(answer.matches("option b"));
+    }
+
+    @Test
+    void testMatches_UntypedAnswerIgnoresSurroundingWhitespaceOnly() {
+        QuizAnswerKey.Answer answer = answerFor(null, "def f():\n    return 1\n");
+        assertTrue(answer.matches("def f():\n    return 1"));
+        assertFalse(answer.matches("def f():\n  return 1"));
+    }
+
+    @Test
+    void testMatches_NullAnswer() {
+        assertFalse(answerFor(QuestionType.TRUE_FALSE, "true").matches(null));
+    }
+
+    private static QuizAnswerKey.Answer answerFor(QuestionType type, String correctAnswer) {
+        QuizQuestion question = QuizQuestion.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .correctAnswer(correctAnswer)
+                .points(1)
+                .build();
+        return QuizAnswerKey.of(UUID.randomUUID(), List.of(question)).get(question.getId());
+    }
+}
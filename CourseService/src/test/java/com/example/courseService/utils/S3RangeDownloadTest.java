@@ -0,0 +1,53 @@
+package com.example.courseService.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3RangeDownloadTest {
+
+    @Test
+    void testParseRange_ClosedRange() {
+        assertArrayEquals(new long[]{0, 499}, S3RangeDownload.parseRange("bytes=0-499", 1000));
+    }
+
+    @Test
+    void testParseRange_OpenEndedRangeRunsToTheEnd() {
+        assertArrayEquals(new long[]{900, 999}, S3RangeDownload.parseRange("bytes=900-", 1000));
+    }
+
+    @Test
+    void testParseRange_EndPastTheObjectIsClamped() {
+        assertArrayEquals(new long[]{500, 999}, S3RangeDownload.parseRange("bytes=500-5000", 1000));
+    }
+
+    @Test
+    void testParseRange_Suffix() {
+        assertArrayEquals(new long[]{500, 999}, S3RangeDownload.parseRange("bytes=-500", 1000));
+    }
+
+    @Test
+    void testParseRange_SuffixLongerThanObjectSelectsAll() {
+        assertArrayEquals(new long[]{0, 999}, S3RangeDownload.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    void testParseRange_Unsatisfiable() {
+        assertSame(S3RangeDownload.UNSATISFIABLE, S3RangeDownload.parseRange("bytes=1000-", 1000));
+        assertSame(S3RangeDownload.UNSATISFIABLE, S3RangeDownload.parseRange("bytes=-0", 1000));
+        assertSame(S3RangeDownload.UNSATISFIABLE, S3RangeDownload.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void testParseRange_MultipleRangesAreIgnored() {
+        assertNull(S3RangeDownload.parseRange("bytes=0-99,200-299", 1000));
+    }
+
+    @Test
+    void testParseRange_MalformedHeadersAreIgnored() {
+        assertNull(S3RangeDownload.parseRange("bytes=-", 1000));
+        assertNull(S3RangeDownload.parseRange("bytes=500-100", 1000));
+        assertNull(S3RangeDownload.parseRange("items=0-99", 1000));
+        assertNull(S3RangeDownload.parseRange("bytes=99999999999999999999-", 1000));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.courseService.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextSimilarityEngineTest {
+
+    @Test
+    void testTokenize_NormalisesCaseAndPunctuation() {
+        assertEquals(Set.of("java", "spring", "boot"), TextSimilarityEngine.tokenize("Java, Spring-Boot!  java"));
+        assertTrue(TextSimilarityEngine.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void testSimilarity_IdenticalTexts() {
+        int[] signature = TextSimilarityEngine.signature("Introduction to Java programming");
+        assertEquals(1.0, TextSimilarityEngine.similarity(signature,
+                TextSimilarityEngine.signature("introduction TO java Programming")));
+    }
+
+    @Test
+    void testSimilarity_DisjointTexts() {
+        double similarity = TextSimilarityEngine.similarity(
+                TextSimilarityEngine.signature("Introduction to Java programming"),
+                TextSimilarityEngine.signature("Watercolour painting for beginners"));
+        assertTrue(similarity < 0.1);
+    }
+
+    @Test
+    void testSimilarity_ApproximatesJaccard() {
+        // 3 shared tokens out of 5 distinct ones
+        double similarity = TextSimilarityEngine.similarity(
+                TextSimilarityEngine.signature("spring boot java rest"),
+                TextSimilarityEngine.signature("spring boot java mongo"));
+        assertEquals(0.6, similarity, 0.15);
+    }
+
+    @Test
+    void testSimilarity_EmptyTexts() {
+        assertEquals(1.0, TextSimilarityEngine.similarity(
+                TextSimilarityEngine.signature(""), TextSimilarityEngine.signature(null)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.kafka.coursera.configs;
+
+import com.amazonaws.services.cognitoidp.AWSCognitoIdentityProvider;
+import com.amazonaws.services.cognitoidp.AWSCognitoIdentityProviderClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CognitoConfig {
+
+    @Value("${aws.cognito.region}")
+    private String region;
+
+    @Bean
+    public AWSCognitoIdentityProvider cognitoClient() {
+        return AWSCognitoIdentityProviderClientBuilder.standard()
+                .withRegion(region)
+                .build();
+    }
+}
@@ -43,6 +43,7 @@ public class RabbitMQConfig {
     public static final String USER_DATA_RESPONSE_QUEUE = "user_data_response_queue";
     public static final String STUDY_STATISTICS_REQUEST_QUEUE = "study_statistics_request_queue";
     public static final String STUDY_STATISTICS_RESPONSE_QUEUE = "study_statistics_response_queue";
+    public static final String INSTRUCTOR_SNAPSHOT_REQUEST_QUEUE = "instructor_snapshot_request_queue";
 
     @Bean
     public Queue quizCompletionQueue() {
@@ -254,6 +255,19 @@ public class RabbitMQConfig {
                 .with("instructor.details");
     }
 
+    @Bean
+    public Queue instructorSnapshotRequestQueue() {
+        return new Queue(INSTRUCTOR_SNAPSHOT_REQUEST_QUEUE, true);
+    }
+
+    @Bean
+    public Binding instructorSnapshotRequestBinding(Queue instructorSnapshotRequestQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder
+                .bind(instructorSnapshotRequestQueue)
+                .to(userEventsExchange)
+                .with("instructor.snapshot.request");
+    }
+
     @Bean
     public Queue courseCreatedQueue() {
         return new Queue(COURSE_CREATED_QUEUE, true);
@@ -13,6 +13,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import com.example.kafka.coursera.DTO.InstructorDTO;
+import com.example.kafka.coursera.DTO.PostDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -34,9 +36,15 @@ public class RedisConfig {
         return mapper;
     }
 
+    /**
+     * The type ids are stored with every value: append new ones, never change existing ones.
+     * The JSON serializer used before stays as the reader for entries written by it.
+     */
     @Bean
-    public GenericJackson2JsonRedisSerializer jsonRedisSerializer(ObjectMapper objectMapper) {
-        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    public VersionedSmileRedisSerializer redisValueSerializer(ObjectMapper objectMapper) {
+        return new VersionedSmileRedisSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))
+                .register(1, PostDTO.class)
+                .register(2, InstructorDTO.class);
     }
 
     @Bean
@@ -50,28 +58,28 @@ public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, 
-                                                      GenericJackson2JsonRedisSerializer jsonRedisSerializer) {
+                                                      VersionedSmileRedisSerializer redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         // Set serializers
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(jsonRedisSerializer);
+        template.setValueSerializer(redisValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(jsonRedisSerializer);
+        template.setHashValueSerializer(redisValueSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
 
     @Bean
-    public RedisCacheConfiguration cacheConfiguration(GenericJackson2JsonRedisSerializer jsonRedisSerializer) {
+    public RedisCacheConfiguration cacheConfiguration(VersionedSmileRedisSerializer redisValueSerializer) {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(5))
                 .serializeKeysWith(
                     RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(
-                    RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer))
+                    RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer))
                 .disableCachingNullValues();
     }
 }
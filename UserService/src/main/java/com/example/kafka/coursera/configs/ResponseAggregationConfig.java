@@ -0,0 +1,35 @@
+package com.example.kafka.coursera.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool that completes aggregated data requests and runs their enrichment, so neither the
+ * servlet threads nor the RabbitMQ listener threads wait on other services. A full pool rejects
+ * the task instead of running it on the caller, which would be a listener thread.
+ */
+@Configuration
+public class ResponseAggregationConfig {
+
+    @Value("${aggregation.executor.pool-size:8}")
+    private int poolSize;
+
+    @Value("${aggregation.executor.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor responseAggregationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("response-aggregation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
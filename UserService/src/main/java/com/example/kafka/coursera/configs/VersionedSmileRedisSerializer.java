@@ -0,0 +1,159 @@
+package com.example.kafka.coursera.configs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Binary Redis values: a four byte header (marker, format version, registered type id) followed
+ * by a Smile document. Registered classes are written without any type metadata and read back
+ * straight into their class; anything else falls back to Smile with embedded class names.
+ * Values written by the previous JSON serializer carry no marker and are still readable, so
+ * existing cache entries keep working until they expire.
+ */
+public class VersionedSmileRedisSerializer implements RedisSerializer<Object> {
+    // 0xB7 is a UTF-8 continuation byte, so no JSON document can start with it
+    static final byte MARKER = (byte) 0xB7;
+    static final byte FORMAT_VERSION = 1;
+    private static final short UNREGISTERED = 0;
+    private static final int HEADER_LENGTH = 4;
+
+    private final ObjectMapper typedMapper;
+    private final ObjectMapper polymorphicMapper;
+    private final RedisSerializer<Object> legacySerializer;
+    private final Map<Short, Class<?>> typesById = new HashMap<>();
+    private final Map<Class<?>, Short> idsByType = new HashMap<>();
+    private Class<?> legacyTargetType = Object.class;
+
+    public VersionedSmileRedisSerializer(RedisSerializer<Object> legacySerializer) {
+        this.legacySerializer = legacySerializer;
+        this.typedMapper = SmileMapper.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                // Fields added later must not break reading older values, and vice versa
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build();
+        this.polymorphicMapper = typedMapper.copy();
+        this.polymorphicMapper.activateDefaultTyping(polymorphicMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+
+    /**
+     * Binds a class to a type id. Ids are part of the stored format: never reuse or renumber one.
+     */
+    public VersionedSmileRedisSerializer register(int typeId, Class<?> type) {
+        if (typeId <= UNREGISTERED || typeId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Type id out of range: " + typeId);
+        }
+        short id = (short) typeId;
+        if (typesById.containsKey(id) || idsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate registration of " + type.getName() + " as " + typeId);
+        }
+        typesById.put(id, type);
+        idsByType.put(type, id);
+        return this;
+    }
+
+    /**
+     * Class that legacy values of a single-type template are converted to when the old JSON
+     * did not carry its class name.
+     */
+    public VersionedSmileRedisSerializer legacyTargetType(Class<?> type) {
+        this.legacyTargetType = type;
+        return this;
+    }
+
+    public boolean isCurrentFormat(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MARKER && bytes[1] == FORMAT_VERSION;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Short typeId = idsByType.get(value.getClass());
+        try {
+            byte[] payload = typeId != null
+                    ? typedMapper.writeValueAsBytes(value)
+                    : polymorphicMapper.writeValueAsBytes(mutableCopy(value));
+            return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                    .put(MARKER)
+                    .put(FORMAT_VERSION)
+                    .putShort(typeId != null ? typeId : UNREGISTERED)
+                    .put(payload)
+                    .array();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName() + " to Redis", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARKER) {
+            return fromLegacy(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported Redis value format version " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        short typeId = ByteBuffer.wrap(bytes, 2, 2).getShort();
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+        try {
+            if (typeId == UNREGISTERED) {
+                return polymorphicMapper.readValue(payload, Object.class);
+            }
+            Class<?> type = typesById.get(typeId);
+            if (type == null) {
+                throw new SerializationException("Unknown Redis value type id " + typeId);
+            }
+            return typedMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Redis value of type id " + typeId, e);
+        }
+    }
+
+    // Unmodifiable collections (List.of, Stream.toList) record a class name that cannot be read back
+    private static Object mutableCopy(Object value) {
+        if (value instanceof List) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        if (value instanceof Set) {
+            return new LinkedHashSet<>((Collection<?>) value);
+        }
+        if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        }
+        return value;
+    }
+
+    private Object fromLegacy(byte[] bytes) {
+        Object value = legacySerializer.deserialize(bytes);
+        if (value == null || legacyTargetType.isInstance(value)) {
+            return value;
+        }
+        return typedMapper.convertValue(value, legacyTargetType);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -30,8 +31,8 @@ public class AdminController {
     }
 
     @GetMapping("/school/{id}")
-    public ResponseEntity<SchoolDTO> getSchoolById(@PathVariable UUID id) {
-        return ResponseEntity.ok(schoolService.getSchoolById(id));
+    public CompletableFuture<ResponseEntity<SchoolDTO>> getSchoolById(@PathVariable UUID id) {
+        return schoolService.getSchoolById(id).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/pending/schools")
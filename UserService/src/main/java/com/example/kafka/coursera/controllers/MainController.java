@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/main")
@@ -26,8 +27,8 @@ public class MainController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SchoolDTO> getSchoolById(@PathVariable UUID id) {
-        return ResponseEntity.ok(service.getSchoolById(id));
+    public CompletableFuture<ResponseEntity<SchoolDTO>> getSchoolById(@PathVariable UUID id) {
+        return service.getSchoolById(id).thenApply(ResponseEntity::ok);
     }
 
 }
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/school")
@@ -31,8 +32,8 @@ public class SchoolController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getById(@PathVariable("id") UUID id) {
-        return ResponseEntity.ok(service.getSchoolById(id));
+    public CompletableFuture<ResponseEntity<?>> getById(@PathVariable("id") UUID id) {
+        return service.getSchoolById(id).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping
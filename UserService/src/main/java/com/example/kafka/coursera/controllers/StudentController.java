@@ -1,11 +1,14 @@
 package com.example.kafka.coursera.controllers;
 
+import com.example.kafka.coursera.DTO.StudentDTO;
 import com.example.kafka.coursera.requests.StudentProfileRequest;
 import com.example.kafka.coursera.services.StudentService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -19,9 +22,15 @@ import org.springframework.web.multipart.MultipartFile;
 public class StudentController {
     private final StudentService studentService;
 
+    // Without paging parameters the whole list is returned, as existing clients expect
     @GetMapping
-    public ResponseEntity<?> getAllStudents() {
-        return ResponseEntity.ok(studentService.findAllStudents());
+    public CompletableFuture<ResponseEntity<List<StudentDTO>>> getAllStudents(@RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return studentService.findAllStudents().thenApply(ResponseEntity::ok);
+        }
+        return studentService.findAllStudents(page != null ? page : 0, size != null ? size : 100)
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/{id}")
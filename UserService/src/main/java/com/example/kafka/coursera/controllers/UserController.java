@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,8 +21,8 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUser(@PathVariable UUID id) {
-        return ResponseEntity.ok(userService.findById(id));
+    public CompletableFuture<ResponseEntity<UserDTO>> getUser(@PathVariable UUID id) {
+        return userService.findById(id).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/byEmail/{email}")
@@ -0,0 +1,39 @@
+package com.example.kafka.coursera.db.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One stored S3 object per distinct content, keyed by its SHA-256. refCount is the number of
+ * files currently pointing at the object; it is deleted when the last one lets go.
+ */
+@Entity
+@Table(name = "stored_file")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    @Id
+    private String sha256;
+
+    @Column(name = "object_key", nullable = false, unique = true)
+    private String objectKey;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
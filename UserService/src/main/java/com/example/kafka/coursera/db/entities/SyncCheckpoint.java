@@ -0,0 +1,38 @@
+package com.example.kafka.coursera.db.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of a background sync job, so a restart resumes from the last successful run
+ * instead of replaying the whole source.
+ */
+@Entity
+@Table(name = "sync_checkpoint")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncCheckpoint {
+    @Id
+    private String name;
+
+    // Newest source modification already applied locally
+    @Column(name = "last_modified_at")
+    private Instant lastModifiedAt;
+
+    // Start of the last run that completed; everything changed before it is reflected locally
+    @Column(name = "synced_at")
+    private Instant syncedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
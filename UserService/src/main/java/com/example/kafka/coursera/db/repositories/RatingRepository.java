@@ -3,7 +3,14 @@ package com.example.kafka.coursera.db.repositories;
 
 import com.example.kafka.coursera.db.entities.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.UUID;
 
 public interface RatingRepository extends JpaRepository<Rating, UUID> {
-}
\ No newline at end of file
+    @Query("SELECT AVG(r.score) FROM Rating r WHERE r.instructor.id = :instructorId")
+    Double averageScoreByInstructorId(@Param("instructorId") UUID instructorId);
+
+    long countByInstructor_Id(UUID instructorId);
+}
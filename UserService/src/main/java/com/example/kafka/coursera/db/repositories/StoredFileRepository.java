@@ -0,0 +1,38 @@
+package com.example.kafka.coursera.db.repositories;
+
+import com.example.kafka.coursera.db.entities.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    // Loses quietly to a concurrent insert of the same content instead of overwriting it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stored_file (sha256, object_key, url, ref_count, created_at) " +
+            "VALUES (:sha256, :objectKey, :url, 1, :createdAt) ON CONFLICT (sha256) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256, @Param("objectKey") String objectKey,
+                       @Param("url") String url, @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile s SET s.refCount = s.refCount + 1 WHERE s.sha256 = :sha256")
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile s SET s.refCount = s.refCount - 1 WHERE s.objectKey = :objectKey")
+    int decrementRefCount(@Param("objectKey") String objectKey);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredFile s WHERE s.objectKey = :objectKey AND s.refCount <= 0")
+    int deleteUnreferenced(@Param("objectKey") String objectKey);
+}
@@ -0,0 +1,9 @@
+package com.example.kafka.coursera.db.repositories;
+
+import com.example.kafka.coursera.db.entities.SyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncCheckpointRepository extends JpaRepository<SyncCheckpoint, String> {
+}
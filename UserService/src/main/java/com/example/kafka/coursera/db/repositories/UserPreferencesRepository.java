@@ -5,10 +5,14 @@ import com.example.kafka.coursera.db.entities.UserPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferences, UUID> {
     Optional<UserPreferences> findByUser(User user);
+
+    List<UserPreferences> findAllByUserIn(Collection<User> users);
 }
@@ -21,6 +21,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
     
     Page<User> findAll(Pageable pageable);
+
+    Page<User> findAllByRole(RoleEnum role, Pageable pageable);
     
     void deleteByEmail(String email);
 
@@ -0,0 +1,233 @@
+package com.example.kafka.coursera.events.aggregation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects the responses other services send for a data request without parking a thread.
+ * One request per scope and id is in flight at a time and concurrent callers share its future,
+ * which completes once every expected source answered or ran past its own deadline. The future
+ * is always completed on the aggregation pool and outside any lock, so the callers' dependent
+ * stages never run on a listener or timer thread; when the pool is saturated the request fails.
+ */
+@Component
+@Slf4j
+public class ScatterGatherAggregator {
+    public static final String COURSE_SERVICE = "COURSE_SERVICE";
+    public static final String STUDENT_MANAGEMENT_SERVICE = "STUDENT_MANAGEMENT_SERVICE";
+
+    private final Map<String, Gathering> inFlight = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    @Value("${aggregation.deadline.course-service-ms:5000}")
+    private long courseServiceDeadlineMs;
+
+    @Value("${aggregation.deadline.student-management-service-ms:5000}")
+    private long studentManagementServiceDeadlineMs;
+
+    @Value("${aggregation.deadline.default-ms:5000}")
+    private long defaultDeadlineMs;
+
+    public ScatterGatherAggregator(@Qualifier("responseAggregationExecutor") ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Joins the in-flight request for the id or starts a new one. The publisher is called only
+     * for a new request, with the correlation id the responders are expected to echo.
+     *
+     * @return responses keyed by serviceType; sources that missed their deadline are absent
+     */
+    public CompletableFuture<Map<String, Object>> gather(String scope, UUID id, Set<String> sources,
+                                                         Consumer<String> publisher) {
+        String key = key(scope, id);
+        boolean[] created = {false};
+        Gathering gathering = inFlight.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Gathering(k, UUID.randomUUID().toString(), sources);
+        });
+
+        if (created[0]) {
+            for (String source : sources) {
+                // Expiring is cheap and hands the completion to the pool, so it runs on the timer thread
+                CompletableFuture.delayedExecutor(deadlineFor(source), TimeUnit.MILLISECONDS, Runnable::run)
+                        .execute(() -> gathering.expire(source));
+            }
+            try {
+                publisher.accept(gathering.correlationId);
+            } catch (Exception e) {
+                log.error("❌ Failed to publish {} data request for {}: {}", scope, id, e.getMessage(), e);
+                gathering.abandon();
+            }
+        } else {
+            log.debug("Joining in-flight {} data request for {}", scope, id);
+        }
+        return gathering.future;
+    }
+
+    /**
+     * Routes a response to the request it answers. Responses whose correlation id belongs to an
+     * earlier request are dropped; responders that do not echo it are matched on the id alone.
+     */
+    public void accept(String scope, UUID id, Map<String, Object> message) {
+        Gathering gathering = inFlight.get(key(scope, id));
+        if (gathering == null) {
+            log.debug("Dropping {} response for {} with no request in flight", scope, id);
+            return;
+        }
+        Object correlationId = message.get("correlationId");
+        if (correlationId != null && !gathering.correlationId.equals(correlationId)) {
+            log.debug("Dropping stale {} response for {} (correlation {})", scope, id, correlationId);
+            return;
+        }
+        gathering.accept(message);
+    }
+
+    private long deadlineFor(String source) {
+        if (COURSE_SERVICE.equals(source)) {
+            return courseServiceDeadlineMs;
+        }
+        if (STUDENT_MANAGEMENT_SERVICE.equals(source)) {
+            return studentManagementServiceDeadlineMs;
+        }
+        return defaultDeadlineMs;
+    }
+
+    private static String key(String scope, UUID id) {
+        return scope + ":" + id;
+    }
+
+    private final class Gathering {
+        private final String key;
+        private final String correlationId;
+        private final Set<String> pending;
+        private final Map<String, Object> responses = new HashMap<>();
+        // Streamed sources: chunks by index, plus the completion marker once it arrives
+        private final Map<String, TreeMap<Integer, Map<String, Object>>> chunks = new HashMap<>();
+        private final Map<String, Map<String, Object>> completions = new HashMap<>();
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        private boolean finished;
+
+        private Gathering(String key, String correlationId, Collection<String> sources) {
+            this.key = key;
+            this.correlationId = correlationId;
+            this.pending = new HashSet<>(sources);
+        }
+
+        private void accept(Map<String, Object> message) {
+            complete(add(message));
+        }
+
+        private void expire(String source) {
+            complete(drop(source));
+        }
+
+        private void abandon() {
+            complete(finish());
+        }
+
+        // The methods below return the result once the request is finished, and null until then
+        private synchronized Map<String, Object> add(Map<String, Object> message) {
+            String source = (String) message.get("serviceType");
+            if (finished || source == null || !pending.contains(source)) {
+                return null;
+            }
+
+            Object complete = message.get("complete");
+            if (complete == null) {
+                return resolve(source, message);
+            }
+            if (Boolean.TRUE.equals(complete)) {
+                completions.put(source, message);
+            } else {
+                int index = ((Number) message.getOrDefault("chunkIndex", 0)).intValue();
+                chunks.computeIfAbsent(source, s -> new TreeMap<>()).put(index, message);
+            }
+
+            Map<String, Object> completion = completions.get(source);
+            int received = chunks.getOrDefault(source, new TreeMap<>()).size();
+            if (completion != null && received >= ((Number) completion.getOrDefault("chunkCount", 0)).intValue()) {
+                completions.remove(source);
+                return resolve(source, assemble(completion, chunks.remove(source)));
+            }
+            return null;
+        }
+
+        private synchronized Map<String, Object> drop(String source) {
+            if (finished || !pending.remove(source)) {
+                return null;
+            }
+            log.warn("⚠️ {} did not answer {} before its deadline", source, key);
+            return pending.isEmpty() ? finish() : null;
+        }
+
+        private Map<String, Object> resolve(String source, Map<String, Object> response) {
+            responses.put(source, response);
+            pending.remove(source);
+            return pending.isEmpty() ? finish() : null;
+        }
+
+        private synchronized Map<String, Object> finish() {
+            if (finished) {
+                return null;
+            }
+            finished = true;
+            inFlight.remove(key, this);
+            return Collections.unmodifiableMap(new HashMap<>(responses));
+        }
+
+        // Called without the lock: dependent stages run on the aggregation pool, never on the
+        // listener or timer thread that finished the request
+        private void complete(Map<String, Object> result) {
+            if (result == null) {
+                return;
+            }
+            try {
+                executor.execute(() -> future.complete(result));
+            } catch (RejectedExecutionException e) {
+                log.warn("⚠️ Aggregation pool is saturated, failing {}", key);
+                future.completeExceptionally(e);
+            }
+        }
+
+        // Rebuilds the single-message shape: the completion marker's totals plus every chunk's lists
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> assemble(Map<String, Object> completion,
+                                             TreeMap<Integer, Map<String, Object>> sourceChunks) {
+            Map<String, Object> assembled = new HashMap<>(completion);
+            assembled.remove("complete");
+            assembled.remove("chunkCount");
+            if (sourceChunks != null) {
+                for (Map<String, Object> chunk : sourceChunks.values()) {
+                    chunk.forEach((field, value) -> {
+                        if (value instanceof List) {
+                            ((List<Object>) assembled.computeIfAbsent(field, f -> new ArrayList<>()))
+                                    .addAll((List<Object>) value);
+                        }
+                    });
+                }
+            }
+            return assembled;
+        }
+    }
+}
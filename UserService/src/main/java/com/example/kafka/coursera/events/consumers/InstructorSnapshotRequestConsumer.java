@@ -0,0 +1,29 @@
+package com.example.kafka.coursera.events.consumers;
+
+import com.example.kafka.coursera.configs.RabbitMQConfig;
+import com.example.kafka.coursera.services.InstructorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Replays every instructor as an upsert event so a new or empty replica can backfill itself
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InstructorSnapshotRequestConsumer {
+    private final InstructorService instructorService;
+
+    @RabbitListener(queues = RabbitMQConfig.INSTRUCTOR_SNAPSHOT_REQUEST_QUEUE)
+    public void handleSnapshotRequest(Map<String, Object> message) {
+        try {
+            log.info("Received instructor snapshot request from {}", message.get("requester"));
+            int published = instructorService.publishAllInstructors();
+            log.info("✅ Replayed {} instructors", published);
+        } catch (Exception e) {
+            log.error("❌ Error processing instructor snapshot request: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.kafka.coursera.events.emitters;
+
+import com.example.kafka.coursera.configs.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Announces instructor changes so other services can keep their own copy of the public profile.
+ * Every event carries a version; consumers ignore events older than what they already hold.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InstructorEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publishInstructorUpserted(Map<String, Object> profile) {
+        Map<String, Object> message = new HashMap<>(profile);
+        message.put("eventType", "INSTRUCTOR_UPSERTED");
+        message.put("version", System.currentTimeMillis());
+        publish("instructor.upserted", message);
+    }
+
+    public void publishInstructorDeleted(UUID instructorId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("instructorId", instructorId.toString());
+        message.put("eventType", "INSTRUCTOR_DELETED");
+        message.put("version", System.currentTimeMillis());
+        publish("instructor.deleted", message);
+    }
+
+    // Inside a transaction the event waits for the commit, so consumers never see a rolled back change
+    private void publish(String routingKey, Map<String, Object> message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(routingKey, message);
+                }
+            });
+        } else {
+            send(routingKey, message);
+        }
+    }
+
+    private void send(String routingKey, Map<String, Object> message) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.USER_EVENTS_EXCHANGE, routingKey, message);
+            log.debug("📡 Published {} for instructor {}", message.get("eventType"), message.get("instructorId"));
+        } catch (Exception e) {
+            log.error("❌ Failed to publish {} for instructor {}", message.get("eventType"), message.get("instructorId"), e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.example.kafka.coursera.configs.RabbitMQConfig;
 
+import java.util.HashMap;
 import java.util.UUID;
 import java.util.Map;
 
@@ -28,11 +29,12 @@ public class SchoolEventPublisher {
         );
     }
 
-    public void publishSchoolDataRequest(UUID schoolId) {
-        Map<String, String> message = Map.of(
-            "schoolId", schoolId.toString(),
-            "eventType", "SCHOOL_DATA_REQUEST"
-        );
+    public void publishSchoolDataRequest(UUID schoolId, String correlationId, int chunkSize) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("schoolId", schoolId.toString());
+        message.put("eventType", "SCHOOL_DATA_REQUEST");
+        message.put("correlationId", correlationId);
+        message.put("chunkSize", chunkSize);
 
         try {
             log.info("📡 Publishing school data request for school: {} to exchange: {} with routing key: school.data.request", 
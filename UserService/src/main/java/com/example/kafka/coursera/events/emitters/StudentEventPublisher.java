@@ -2,24 +2,33 @@ package com.example.kafka.coursera.events.emitters;
 
 import com.example.kafka.coursera.configs.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class StudentEventPublisher {
     private final RabbitTemplate rabbitTemplate;
 
-    public void publishStudentDataRequest(List<UUID> studentIds) {
-        Map<String, Object> message = Map.of(
-            "studentIds", studentIds,
-            "eventType", "STUDENT_DATA_REQUEST"
-        );
-        
+    /**
+     * Asks for the related data of a whole page of students at once. Responders answer with a
+     * single message carrying the batch id, the correlation id and the data of every student.
+     */
+    public void publishStudentDataBatchRequest(UUID batchId, List<UUID> studentIds, String correlationId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("batchId", batchId.toString());
+        message.put("studentIds", studentIds.stream().map(UUID::toString).toList());
+        message.put("eventType", "STUDENT_DATA_BATCH_REQUEST");
+        message.put("correlationId", correlationId);
+
+        log.info("📡 Publishing student data request for {} students (batch {})", studentIds.size(), batchId);
         rabbitTemplate.convertAndSend(
             RabbitMQConfig.STUDENT_EVENTS_EXCHANGE,
             "student.data.request",
@@ -39,4 +48,4 @@ public class StudentEventPublisher {
             message
         );
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.example.kafka.coursera.configs.RabbitMQConfig;
 
+import java.util.HashMap;
 import java.util.UUID;
 import java.util.Map;
 
@@ -15,11 +16,12 @@ import java.util.Map;
 public class UserEventPublisher {
     private final RabbitTemplate rabbitTemplate;
 
-    public void publishUserDataRequest(UUID userId) {
-        Map<String, String> message = Map.of(
-            "userId", userId.toString(),
-            "eventType", "USER_DATA_REQUEST"
-        );
+    public void publishUserDataRequest(UUID userId, String correlationId, int chunkSize) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", userId.toString());
+        message.put("eventType", "USER_DATA_REQUEST");
+        message.put("correlationId", correlationId);
+        message.put("chunkSize", chunkSize);
 
         try {
             log.info("📡 Publishing user data request for user: {} to exchange: {} with routing key: user.data.request", 
@@ -1,178 +1,349 @@
 package com.example.kafka.coursera.services;
 
 import com.amazonaws.services.cognitoidp.AWSCognitoIdentityProvider;
-import com.amazonaws.services.cognitoidp.AWSCognitoIdentityProviderClientBuilder;
 import com.amazonaws.services.cognitoidp.model.AttributeType;
 import com.amazonaws.services.cognitoidp.model.ListUsersRequest;
 import com.amazonaws.services.cognitoidp.model.ListUsersResult;
 import com.amazonaws.services.cognitoidp.model.UserType;
+import com.example.kafka.coursera.db.entities.SyncCheckpoint;
 import com.example.kafka.coursera.db.entities.User;
 import com.example.kafka.coursera.db.entities.UserPreferences;
 import com.example.kafka.coursera.db.enums.LanguageEnum;
 import com.example.kafka.coursera.db.enums.RoleEnum;
 import com.example.kafka.coursera.db.enums.StatusEnum;
+import com.example.kafka.coursera.db.repositories.SyncCheckpointRepository;
 import com.example.kafka.coursera.db.repositories.UserRepository;
 import com.example.kafka.coursera.db.repositories.UserPreferencesRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Keeps the local users in step with the Cognito pool in the background. Each run only writes
+ * users modified since the checkpoint of the last completed run, in batched upserts, so request
+ * paths can read Postgres directly.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CognitoSyncService {
+    static final String CHECKPOINT = "cognito-users";
+    private static final int PAGE_LIMIT = 60; // Maximum allowed by AWS
 
+    private final AWSCognitoIdentityProvider cognitoClient;
     private final UserRepository userRepository;
     private final UserPreferencesRepository userPreferencesRepository;
+    private final SyncCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<Instant> lastSyncedAt = new AtomicReference<>();
+    private Counter upsertedUsers;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Value("${aws.cognito.userPoolId}")
     private String userPoolId;
 
-    @Value("${aws.cognito.region}")
-    private String region;
-
-    @Transactional
-    public List<User> syncAllCognitoUsers() {
-        log.info("Starting sync of all Cognito users");
-        
-        try {
-            AWSCognitoIdentityProvider cognitoClient = AWSCognitoIdentityProviderClientBuilder.standard()
-                    .withRegion(region)
-                    .build();
+    @Value("${cognito.sync.enabled:true}")
+    private boolean enabled;
 
-            List<UserType> cognitoUsers = getAllCognitoUsers(cognitoClient);
-            log.info("Found {} users in Cognito", cognitoUsers.size());
+    @Value("${cognito.sync.batch-size:500}")
+    private int batchSize;
 
-            List<User> syncedUsers = cognitoUsers.stream()
-                    .map(this::createOrUpdateUserFromCognito)
-                    .collect(Collectors.toList());
+    // Re-reads a short window before the checkpoint to tolerate clock skew between runs
+    @Value("${cognito.sync.overlap-seconds:60}")
+    private long overlapSeconds;
 
-            log.info("Successfully synced {} users from Cognito", syncedUsers.size());
-            return syncedUsers;
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("cognito.sync.lag", this, CognitoSyncService::lagSeconds)
+                .description("Seconds since the start of the last completed Cognito sync")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        upsertedUsers = Counter.builder("cognito.sync.users.upserted")
+                .description("Users written by the Cognito sync")
+                .register(meterRegistry);
+        try {
+            checkpointRepository.findById(CHECKPOINT).ifPresent(c -> lastSyncedAt.set(c.getSyncedAt()));
+        } catch (Exception e) {
+            log.warn("Could not read Cognito sync checkpoint: {}", e.getMessage());
+        }
+    }
 
+    @Scheduled(fixedDelayString = "${cognito.sync.interval-ms:60000}",
+            initialDelayString = "${cognito.sync.initial-delay-ms:10000}")
+    public void scheduledSync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            syncChangedUsers();
         } catch (Exception e) {
             log.error("Error syncing users from Cognito: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to sync users from Cognito", e);
         }
     }
 
-    private List<UserType> getAllCognitoUsers(AWSCognitoIdentityProvider cognitoClient) {
-        List<UserType> allUsers = new java.util.ArrayList<>();
-        String paginationToken = null;
-        
-        do {
-            ListUsersRequest request = new ListUsersRequest()
-                    .withUserPoolId(userPoolId)
-                    .withLimit(60); // Maximum allowed by AWS
-            
-            if (paginationToken != null) {
-                request.withPaginationToken(paginationToken);
+    /**
+     * Upserts the users changed since the last completed run and advances the checkpoint.
+     * Cognito cannot filter ListUsers by modification date, so the pool is still paged through,
+     * but unchanged users cost nothing locally.
+     *
+     * @return number of users written, or 0 when another run is in progress
+     */
+    public int syncChangedUsers() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Cognito sync already running, skipping");
+            return 0;
+        }
+        try {
+            Instant runStartedAt = Instant.now();
+            SyncCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                    .orElseGet(() -> SyncCheckpoint.builder().name(CHECKPOINT).build());
+            Instant since = checkpoint.getLastModifiedAt() != null
+                    ? checkpoint.getLastModifiedAt().minusSeconds(overlapSeconds)
+                    : Instant.EPOCH;
+            Instant newest = checkpoint.getLastModifiedAt();
+
+            List<UserType> changed = new ArrayList<>();
+            List<UserType> skipped = new ArrayList<>();
+            int synced = 0;
+            String paginationToken = null;
+            do {
+                ListUsersRequest request = new ListUsersRequest()
+                        .withUserPoolId(userPoolId)
+                        .withLimit(PAGE_LIMIT);
+                if (paginationToken != null) {
+                    request.withPaginationToken(paginationToken);
+                }
+
+                ListUsersResult result = cognitoClient.listUsers(request);
+                for (UserType cognitoUser : result.getUsers()) {
+                    Instant modifiedAt = modifiedAt(cognitoUser);
+                    if (modifiedAt == null || modifiedAt.isAfter(since)) {
+                        changed.add(cognitoUser);
+                    }
+                    if (modifiedAt != null && (newest == null || modifiedAt.isAfter(newest))) {
+                        newest = modifiedAt;
+                    }
+                    if (changed.size() >= batchSize) {
+                        synced += upsertBatch(changed, skipped);
+                        changed.clear();
+                    }
+                }
+                paginationToken = result.getPaginationToken();
+            } while (paginationToken != null);
+
+            if (!changed.isEmpty()) {
+                synced += upsertBatch(changed, skipped);
             }
-            
-            ListUsersResult result = cognitoClient.listUsers(request);
-            allUsers.addAll(result.getUsers());
-            paginationToken = result.getPaginationToken();
-            
-        } while (paginationToken != null);
-        
-        return allUsers;
-    }
 
-    private User createOrUpdateUserFromCognito(UserType cognitoUser) {
-        try {
-            String email = getAttributeValue(cognitoUser.getAttributes(), "email");
-            if (email == null) {
-                log.warn("Skipping user without email: {}", cognitoUser.getUsername());
-                return null;
+            // Users that were not written stay after the checkpoint, so the next run retries them
+            for (UserType cognitoUser : skipped) {
+                Instant modifiedAt = modifiedAt(cognitoUser);
+                if (modifiedAt != null && newest != null && !modifiedAt.isAfter(newest)) {
+                    newest = modifiedAt.minusMillis(1);
+                }
+            }
+            if (!skipped.isEmpty()) {
+                log.warn("Cognito sync left {} users for the next run", skipped.size());
             }
 
-            // Find existing user or create new one
-            User user = userRepository.findByEmail(email).orElse(new User());
-            boolean isNewUser = user.getId() == null;
-            
-            // Set user data from Cognito
-            if (isNewUser) {
-                user.setId(UUID.fromString(getAttributeValue(cognitoUser.getAttributes(), "sub")));
-                user.setCreatedAt(cognitoUser.getUserCreateDate().toInstant());
+            checkpoint.setLastModifiedAt(newest);
+            checkpoint.setSyncedAt(runStartedAt);
+            checkpoint.setUpdatedAt(Instant.now());
+            checkpointRepository.save(checkpoint);
+            lastSyncedAt.set(runStartedAt);
+
+            log.info("Cognito sync wrote {} changed users in {} ms", synced,
+                    Duration.between(runStartedAt, Instant.now()).toMillis());
+            return synced;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private double lagSeconds() {
+        Instant syncedAt = lastSyncedAt.get();
+        return syncedAt == null ? Double.NaN : Duration.between(syncedAt, Instant.now()).toMillis() / 1000.0;
+    }
+
+    // One transaction per batch: two lookups, then inserts and updates flushed together.
+    // Users that could not be written are added to skipped.
+    private int upsertBatch(List<UserType> cognitoUsers, List<UserType> skipped) {
+        Integer written = transactionTemplate.execute(status -> {
+            Map<String, UserType> byEmail = new LinkedHashMap<>();
+            for (UserType cognitoUser : cognitoUsers) {
+                String email = getAttributeValue(cognitoUser.getAttributes(), "email");
+                if (email == null) {
+                    log.warn("Skipping user without email: {}", cognitoUser.getUsername());
+                    skipped.add(cognitoUser);
+                    continue;
+                }
+                byEmail.put(email, cognitoUser);
+            }
+            if (byEmail.isEmpty()) {
+                return 0;
             }
 
-            user.setEmail(email);
-            user.setFirstName(getAttributeValue(cognitoUser.getAttributes(), "given_name"));
-            user.setLastName(getAttributeValue(cognitoUser.getAttributes(), "family_name"));
-            user.setMiddleName(getAttributeValue(cognitoUser.getAttributes(), "middle_name"));
-            
-            // Set status based on Cognito user status
-            switch (cognitoUser.getUserStatus()) {
-                case "CONFIRMED":
-                    user.setStatus(StatusEnum.ACTIVE);
-                    break;
-                case "UNCONFIRMED":
-                case "RESET_REQUIRED":
-                    user.setStatus(StatusEnum.INACTIVE);
-                    break;
-                default:
-                    user.setStatus(StatusEnum.INACTIVE);
+            Map<String, User> existingByEmail = new HashMap<>();
+            for (User user : userRepository.findAllByEmailIn(new ArrayList<>(byEmail.keySet()))) {
+                existingByEmail.put(user.getEmail(), user);
             }
-            
-            // Only set role for new users - preserve existing role for existing users
-            if (isNewUser) {
-                String roleValue = getAttributeValue(cognitoUser.getAttributes(), "custom:role");
-                if (roleValue == null) {
-                    roleValue = "STUDENT";
+            // Users whose email changed in Cognito are still matched by their sub
+            List<UUID> unmatchedIds = new ArrayList<>();
+            for (Map.Entry<String, UserType> entry : byEmail.entrySet()) {
+                String sub = getAttributeValue(entry.getValue().getAttributes(), "sub");
+                if (!existingByEmail.containsKey(entry.getKey()) && sub != null) {
+                    unmatchedIds.add(UUID.fromString(sub));
                 }
+            }
+            Map<UUID, User> existingById = new HashMap<>();
+            if (!unmatchedIds.isEmpty()) {
+                for (User user : userRepository.findAllById(unmatchedIds)) {
+                    existingById.put(user.getId(), user);
+                }
+            }
+
+            List<User> users = new ArrayList<>();
+            for (Map.Entry<String, UserType> entry : byEmail.entrySet()) {
+                UserType cognitoUser = entry.getValue();
                 try {
-                    user.setRole(RoleEnum.valueOf(roleValue.toUpperCase()));
-                } catch (IllegalArgumentException e) {
-                    log.warn("Invalid role '{}' for new user {}, defaulting to STUDENT", roleValue, email);
-                    user.setRole(RoleEnum.STUDENT);
+                    String sub = getAttributeValue(cognitoUser.getAttributes(), "sub");
+                    User user = existingByEmail.get(entry.getKey());
+                    if (user == null && sub != null) {
+                        user = existingById.get(UUID.fromString(sub));
+                    }
+                    boolean isNewUser = user == null;
+                    if (isNewUser) {
+                        if (sub == null) {
+                            log.warn("Skipping new user without sub: {}", entry.getKey());
+                            skipped.add(cognitoUser);
+                            continue;
+                        }
+                        user = new User();
+                        user.setId(UUID.fromString(sub));
+                        user.setCreatedAt(cognitoUser.getUserCreateDate() != null
+                                ? cognitoUser.getUserCreateDate().toInstant() : Instant.now());
+                    }
+                    applyCognitoAttributes(user, cognitoUser, isNewUser);
+                    if (isNewUser) {
+                        entityManager.persist(user);
+                    }
+                    users.add(user);
+                } catch (Exception e) {
+                    log.error("Error syncing user {} from Cognito: {}", entry.getKey(), e.getMessage(), e);
+                    skipped.add(cognitoUser);
                 }
-                log.debug("Set role {} for new user: {}", user.getRole(), email);
-            } else {
-                log.debug("Preserving existing role {} for user: {}", user.getRole(), email);
             }
-            
-            user.setEmailVerified("true".equals(getAttributeValue(cognitoUser.getAttributes(), "email_verified")));
-            user.setUpdatedAt(cognitoUser.getUserLastModifiedDate() != null ? 
-                cognitoUser.getUserLastModifiedDate().toInstant() : Instant.now());
 
-            // Save user
-            user = userRepository.save(user);
+            upsertPreferences(users);
+            entityManager.flush();
+            entityManager.clear();
+            return users.size();
+        });
+        int count = written != null ? written : 0;
+        upsertedUsers.increment(count);
+        return count;
+    }
+
+    private void applyCognitoAttributes(User user, UserType cognitoUser, boolean isNewUser) {
+        List<AttributeType> attributes = cognitoUser.getAttributes();
+        String email = getAttributeValue(attributes, "email");
 
-            // Create or update user preferences
-            createOrUpdateUserPreferences(user);
+        user.setEmail(email);
+        user.setFirstName(getAttributeValue(attributes, "given_name"));
+        user.setLastName(getAttributeValue(attributes, "family_name"));
+        user.setMiddleName(getAttributeValue(attributes, "middle_name"));
 
-            log.debug("Successfully synced user: {}", email);
-            return user;
+        // Set status based on Cognito user status
+        switch (String.valueOf(cognitoUser.getUserStatus())) {
+            case "CONFIRMED":
+                user.setStatus(StatusEnum.ACTIVE);
+                break;
+            case "UNCONFIRMED":
+            case "RESET_REQUIRED":
+                user.setStatus(StatusEnum.INACTIVE);
+                break;
+            default:
+                user.setStatus(StatusEnum.INACTIVE);
+        }
 
-        } catch (Exception e) {
-            log.error("Error syncing user from Cognito: {}", e.getMessage(), e);
-            return null;
+        // Only set role for new users - preserve existing role for existing users
+        if (isNewUser) {
+            String roleValue = getAttributeValue(attributes, "custom:role");
+            if (roleValue == null) {
+                roleValue = "STUDENT";
+            }
+            try {
+                user.setRole(RoleEnum.valueOf(roleValue.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid role '{}' for new user {}, defaulting to STUDENT", roleValue, email);
+                user.setRole(RoleEnum.STUDENT);
+            }
         }
+
+        user.setEmailVerified("true".equals(getAttributeValue(attributes, "email_verified")));
+        user.setUpdatedAt(cognitoUser.getUserLastModifiedDate() != null ?
+            cognitoUser.getUserLastModifiedDate().toInstant() : Instant.now());
     }
 
-    private void createOrUpdateUserPreferences(User user) {
-        UserPreferences preferences = userPreferencesRepository.findByUser(user)
-                .orElse(new UserPreferences());
-        
-        if (preferences.getId() == null) {
+    private void upsertPreferences(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Set<UUID> withPreferences = new HashSet<>();
+        for (UserPreferences preferences : userPreferencesRepository.findAllByUserIn(users)) {
+            preferences.setUpdatedAt(now);
+            withPreferences.add(preferences.getUser().getId());
+        }
+        for (User user : users) {
+            if (withPreferences.contains(user.getId())) {
+                continue;
+            }
+            UserPreferences preferences = new UserPreferences();
             preferences.setId(UUID.randomUUID());
             preferences.setUser(user);
             preferences.setLanguage(LanguageEnum.EN);
             preferences.setEmailNotifications(true);
             preferences.setMarketingCommunications(false);
             preferences.setPushNotifications(true);
-            preferences.setCreatedAt(Instant.now());
+            preferences.setCreatedAt(now);
+            preferences.setUpdatedAt(now);
+            entityManager.persist(preferences);
         }
-        preferences.setUpdatedAt(Instant.now());
+    }
 
-        userPreferencesRepository.save(preferences);
+    private Instant modifiedAt(UserType cognitoUser) {
+        if (cognitoUser.getUserLastModifiedDate() != null) {
+            return cognitoUser.getUserLastModifiedDate().toInstant();
+        }
+        return cognitoUser.getUserCreateDate() != null ? cognitoUser.getUserCreateDate().toInstant() : null;
     }
 
     private String getAttributeValue(List<AttributeType> attributes, String attributeName) {
@@ -182,4 +353,4 @@ public class CognitoSyncService {
                 .map(AttributeType::getValue)
                 .orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import com.example.kafka.coursera.db.entities.Instructor;
 import com.example.kafka.coursera.db.entities.Rating;
 import com.example.kafka.coursera.db.repositories.InstructorRepository;
 import com.example.kafka.coursera.db.repositories.RatingRepository;
+import com.example.kafka.coursera.events.emitters.InstructorEventPublisher;
 import com.example.kafka.coursera.exceptions.implementation.ResourceNotFoundException;
 import com.example.kafka.coursera.exceptions.implementation.NoChangesException;
 import com.example.kafka.coursera.mappers.InstructorMapper;
@@ -17,12 +18,17 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,6 +41,9 @@ public class InstructorService {
     private final RabbitMQProducer rabbitMQProducer;
     private final InstructorMapper instructorMapper;
     private final RabbitTemplate rabbitTemplate;
+    private final InstructorEventPublisher instructorEventPublisher;
+
+    private static final int SNAPSHOT_PAGE_SIZE = 200;
 
     @Autowired
     public InstructorService(StorageService storageService,
@@ -42,18 +51,22 @@ public class InstructorService {
                              RatingRepository ratingRepository,
                              RabbitMQProducer rabbitMQProducer,
                              RabbitTemplate rabbitTemplate,
-                             InstructorMapper instructorMapper) {
+                             InstructorMapper instructorMapper,
+                             InstructorEventPublisher instructorEventPublisher) {
         this.storageService = storageService;
         this.instructorRepository = instructorRepository;
         this.ratingRepository = ratingRepository;
         this.rabbitMQProducer = rabbitMQProducer;
         this.rabbitTemplate = rabbitTemplate;
         this.instructorMapper = instructorMapper;
+        this.instructorEventPublisher = instructorEventPublisher;
     }
 
     @Transactional
     public Instructor saveInstructor(Instructor instructor) {
-        return instructorRepository.save(instructor);
+        Instructor saved = instructorRepository.save(instructor);
+        publishInstructorChanged(saved);
+        return saved;
     }
 
     public List<Instructor> getInstructorEntitiesByIdList(List<UUID> instructorIds) {
@@ -86,6 +99,7 @@ public class InstructorService {
         instructor.setAvatar(avatar);
 
         instructorRepository.save(instructor);
+        publishInstructorChanged(instructor);
 
         return instructorMapper.toDto(instructor);
     }
@@ -114,14 +128,51 @@ public class InstructorService {
         updatedInstructor.setId(id);
         updatedInstructor.setRatings(existingInstructor.getRatings());
 
+        updatedInstructor = instructorRepository.save(updatedInstructor);
+        publishInstructorChanged(updatedInstructor);
+
         return instructorMapper.toDto(updatedInstructor);
     }
 
     public boolean deleteInstructor(UUID id) {
         if (instructorRepository.existsById(id)) {
             instructorRepository.deleteById(id);
+            instructorEventPublisher.publishInstructorDeleted(id);
             return true;
         }
         return false;
     }
+
+    /**
+     * Publishes the public profile other services replicate: names, avatar, bio and the
+     * rating summary. Called after every change to the instructor or one of their ratings.
+     */
+    public void publishInstructorChanged(Instructor instructor) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("instructorId", instructor.getId().toString());
+        profile.put("firstName", instructor.getFirstName());
+        profile.put("lastName", instructor.getLastName());
+        profile.put("fathersName", instructor.getFathersName());
+        profile.put("avatarUrl", instructor.getAvatar() != null ? instructor.getAvatar().getUrl() : null);
+        profile.put("bio", instructor.getBio());
+        Double rating = ratingRepository.averageScoreByInstructorId(instructor.getId());
+        profile.put("rating", rating != null ? rating : 0.0);
+        profile.put("ratingsCount", ratingRepository.countByInstructor_Id(instructor.getId()));
+        instructorEventPublisher.publishInstructorUpserted(profile);
+    }
+
+    // Backfill for replicas: every instructor, page by page, as upsert events
+    public int publishAllInstructors() {
+        int published = 0;
+        Page<Instructor> page;
+        int pageNumber = 0;
+        do {
+            page = instructorRepository.findAll(PageRequest.of(pageNumber++, SNAPSHOT_PAGE_SIZE, Sort.by("id")));
+            for (Instructor instructor : page.getContent()) {
+                publishInstructorChanged(instructor);
+                published++;
+            }
+        } while (page.hasNext());
+        return published;
+    }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ public class RatingService {
     private final RatingRepository ratingRepository;
     private final InstructorRepository instructorRepository;
     private final RatingMapper ratingMapper;
+    private final InstructorService instructorService;
 
     // Create a new Rating
     public RatingDTO addRating(RatingRequest ratingRequest) {
@@ -36,6 +37,7 @@ public class RatingService {
 
         // Save the rating
         Rating savedRating = ratingRepository.save(rating);
+        instructorService.publishInstructorChanged(instructor);
 
         // Convert the saved rating to DTO and return
         return ratingMapper.toDto(savedRating);
@@ -69,6 +71,7 @@ public class RatingService {
 
         // Save the updated rating
         Rating updatedRating = ratingRepository.save(existingRating);
+        instructorService.publishInstructorChanged(updatedRating.getInstructor());
 
         // Convert the updated rating to DTO and return
         return ratingMapper.toDto(updatedRating);
@@ -76,10 +79,10 @@ public class RatingService {
 
     // Delete a rating by its ID
     public boolean deleteRating(UUID ratingId) {
-        if (!ratingRepository.existsById(ratingId)) {
-            throw new EntityNotFoundException("Rating not found with ID: " + ratingId);
-        }
+        Rating rating = ratingRepository.findById(ratingId)
+                .orElseThrow(() -> new EntityNotFoundException("Rating not found with ID: " + ratingId));
         ratingRepository.deleteById(ratingId);
+        instructorService.publishInstructorChanged(rating.getInstructor());
         return true;
     }
 }
\ No newline at end of file
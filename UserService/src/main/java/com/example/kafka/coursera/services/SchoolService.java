@@ -9,6 +9,7 @@ import com.example.kafka.coursera.db.enums.SchoolStatusEnum;
 import com.example.kafka.coursera.db.repositories.SchoolRepository;
 import com.example.kafka.coursera.db.repositories.UserRepository;
 import com.example.kafka.coursera.events.emitters.SchoolEventPublisher;
+import com.example.kafka.coursera.events.aggregation.ScatterGatherAggregator;
 import com.example.kafka.coursera.events.consumers.SchoolDataResponseConsumer;
 import com.example.kafka.coursera.exceptions.implementation.NoChangesException;
 import com.example.kafka.coursera.exceptions.implementation.ResourceNotFoundException;
@@ -20,11 +21,13 @@ import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,7 +39,10 @@ public class SchoolService {
     private final StorageService storageService;
     private final SchoolEventPublisher schoolEventPublisher;
     private final DeletionTrackingService deletionTrackingService;
-    private final SchoolDataResponseConsumer schoolDataResponseConsumer;
+    private final ScatterGatherAggregator aggregator;
+
+    @Value("${aggregation.course-chunk-size:200}")
+    private int courseChunkSize;
 
     private static final Logger log = LoggerFactory.getLogger(SchoolService.class);
 
@@ -44,42 +50,38 @@ public class SchoolService {
         return repository.findAll().stream().map(factoryDTO::makeDTO).toList();
     }
 
-    public SchoolDTO getSchoolById(UUID id) {
+    public CompletableFuture<SchoolDTO> getSchoolById(UUID id) {
         School school = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("School " + id + " doesn't exist"));
 
-        schoolDataResponseConsumer.clearAggregatedData(id);
-
-        schoolEventPublisher.publishSchoolDataRequest(id);
-
-        schoolDataResponseConsumer.waitForResponses(id, 5, 2);
-        var aggregatedData = schoolDataResponseConsumer.getAggregatedData(id);
-
+        // Built on the request thread, where the entity's lazy associations can still load
         SchoolDTO schoolDTO = factoryDTO.makeDTO(school);
 
-        if (aggregatedData != null && !aggregatedData.isEmpty()) {
-            schoolDTO.setAggregatedData(aggregatedData);
-            var courseServiceData = aggregatedData.get("COURSE_SERVICE");
-            var studentServiceData = aggregatedData.get("STUDENT_MANAGEMENT_SERVICE");
-
-            if (courseServiceData != null) {
-                schoolDTO.setCourseData((Map<String, Object>) courseServiceData);
-            }
-
-            if (studentServiceData != null) {
-                schoolDTO.setStudentData((Map<String, Object>) studentServiceData);
-                enrichWithUserData(schoolDTO, (Map<String, Object>) studentServiceData);
-            }
-
-            aggregatedData.forEach((service, data) -> {
-            });
-        } else {
-            log.warn("⚠️ No aggregated data received for school {}", id);
-        }
-
-        schoolDataResponseConsumer.clearAggregatedData(id);
-
-        return schoolDTO;
+        return aggregator.gather(SchoolDataResponseConsumer.SCOPE, id,
+                        Set.of(ScatterGatherAggregator.COURSE_SERVICE, ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE),
+                        correlationId -> schoolEventPublisher.publishSchoolDataRequest(id, correlationId, courseChunkSize))
+                .thenApply(responses -> {
+                    if (responses.isEmpty()) {
+                        log.warn("⚠️ No aggregated data received for school {}", id);
+                        return schoolDTO;
+                    }
+
+                    // The responses are shared by every caller of this request, so enrich a copy
+                    Map<String, Object> aggregatedData = new HashMap<>(responses);
+                    schoolDTO.setAggregatedData(aggregatedData);
+                    var courseServiceData = aggregatedData.get(ScatterGatherAggregator.COURSE_SERVICE);
+                    var studentServiceData = aggregatedData.get(ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE);
+
+                    if (courseServiceData != null) {
+                        schoolDTO.setCourseData((Map<String, Object>) courseServiceData);
+                    }
+
+                    if (studentServiceData != null) {
+                        schoolDTO.setStudentData((Map<String, Object>) studentServiceData);
+                        enrichWithUserData(schoolDTO, (Map<String, Object>) studentServiceData);
+                    }
+                    return schoolDTO;
+                });
     }
 
     public List<SchoolDTO> getAllPendingSchool() {
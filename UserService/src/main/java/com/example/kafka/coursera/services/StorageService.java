@@ -1,22 +1,24 @@
 package com.example.kafka.coursera.services;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
-import com.amazonaws.util.IOUtils;
-import com.example.kafka.coursera.db.entities.School;
+import com.example.kafka.coursera.db.entities.StoredFile;
+import com.example.kafka.coursera.db.repositories.StoredFileRepository;
 import com.example.kafka.coursera.util.HashChecksum;
+import com.example.kafka.coursera.util.S3RangeDownload;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 
 @Service
 @Slf4j
@@ -28,42 +30,64 @@ public class StorageService {
     @Autowired
     private AmazonS3 s3Client;
 
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    /**
+     * Stores the upload once per distinct content: when an object with the same SHA-256 is
+     * already registered, its reference count is bumped and its key is returned instead.
+     */
     public com.example.kafka.coursera.db.entities.File uploadFile(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             return null;
         }
 
-        File fileObj = convertMultiPartFileToFile(file);
         String checksum = HashChecksum.calculateFileChecksum(file);
-        String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-
-        s3Client.putObject(new PutObjectRequest(bucketName, fileName, fileObj));
-        fileObj.delete();
-
-        String fileUrl = s3Client.getUrl(bucketName, fileName).toString();
+        StoredFile stored = acquire(checksum);
+
+        if (stored == null) {
+            String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(file.getSize());
+            metadata.setContentType(file.getContentType());
+            try (InputStream content = file.getInputStream()) {
+                s3Client.putObject(new PutObjectRequest(bucketName, fileName, content, metadata));
+            }
+            String fileUrl = s3Client.getUrl(bucketName, fileName).toString();
+
+            if (storedFileRepository.insertIfAbsent(checksum, fileName, fileUrl, Instant.now()) > 0) {
+                stored = StoredFile.builder().sha256(checksum).objectKey(fileName).url(fileUrl).refCount(1).build();
+            } else {
+                // The same content was stored concurrently, keep that copy and drop ours
+                s3Client.deleteObject(bucketName, fileName);
+                stored = acquire(checksum);
+                if (stored == null) {
+                    throw new IllegalStateException("Stored file " + checksum + " vanished while being shared");
+                }
+            }
+        }
 
         com.example.kafka.coursera.db.entities.File result = com.example.kafka.coursera.db.entities.File.builder()
-                .filename(fileName)
+                .filename(stored.getObjectKey())
                 .checkSum(checksum)
-                .url(fileUrl)
+                .url(stored.getUrl())
                 .build();
 
         return result;
     }
 
-    public byte[] downloadFile(String fileName) {
-
-        S3Object s3Object = s3Client.getObject(bucketName, fileName);
-        S3ObjectInputStream inputStream = s3Object.getObjectContent();
-
-        try {
-            byte[] content = IOUtils.toByteArray(inputStream);
-            return content;
-        } catch (IOException e) {
-            e.printStackTrace();
+    private StoredFile acquire(String checksum) {
+        if (storedFileRepository.incrementRefCount(checksum) == 0) {
+            return null;
         }
+        return storedFileRepository.findById(checksum).orElse(null);
+    }
 
-        return null;
+    /**
+     * Streams the object to the response at constant memory, honouring Range and If-None-Match.
+     */
+    public void downloadFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        S3RangeDownload.stream(s3Client, bucketName, fileName, request, response);
     }
 
     public String deleteFile(String fileName) {
@@ -72,6 +96,12 @@ public class StorageService {
             return "No filename provided";
         }
         try {
+            // Objects stored before deduplication have no entry and are always theirs alone
+            if (storedFileRepository.decrementRefCount(fileName) > 0
+                    && storedFileRepository.deleteUnreferenced(fileName) == 0) {
+                log.info("Kept file: {} as it is still referenced", fileName);
+                return fileName + " released ...";
+            }
             s3Client.deleteObject(bucketName, fileName);
             log.info("Successfully deleted file: {} from bucket: {}", fileName, bucketName);
             return fileName + " removed ...";
@@ -81,20 +111,6 @@ public class StorageService {
         }
     }
 
-    private File convertMultiPartFileToFile(MultipartFile file) {
-        try {
-            // Create temp file in the system's temporary directory
-            File convertedFile = File.createTempFile("temp-", "-" + file.getOriginalFilename());
-            try (FileOutputStream fos = new FileOutputStream(convertedFile)) {
-                fos.write(file.getBytes());
-            }
-            return convertedFile;
-        } catch (IOException e) {
-            log.error("Error converting multipartFile to file", e);
-            throw new RuntimeException("Failed to convert multipart file", e);
-        }
-    }
-
     public com.example.kafka.coursera.db.entities.File processUpload(
             com.example.kafka.coursera.db.entities.File existingFile, MultipartFile fileRequest,
             boolean isChecksumEqual) throws Exception {
@@ -7,8 +7,10 @@ import com.example.kafka.coursera.db.entities.Student;
 import com.example.kafka.coursera.db.entities.User;
 import com.example.kafka.coursera.db.entities.UserPreferences;
 import com.example.kafka.coursera.db.enums.LanguageEnum;
+import com.example.kafka.coursera.db.enums.RoleEnum;
 import com.example.kafka.coursera.db.repositories.StudentRepository;
 import com.example.kafka.coursera.db.repositories.UserRepository;
+import com.example.kafka.coursera.events.aggregation.ScatterGatherAggregator;
 import com.example.kafka.coursera.events.emitters.StudentEventPublisher;
 import com.example.kafka.coursera.events.consumers.StudentDataResponseConsumer;
 import com.example.kafka.coursera.exceptions.implementation.ForbiddenException;
@@ -18,14 +20,22 @@ import com.example.kafka.coursera.requests.StudentProfileRequest;
 import com.example.kafka.coursera.util.HashChecksum;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,25 +47,58 @@ public class StudentService {
     private final StorageService azureService;
     private final TranslationService translationService;
     private final StudentEventPublisher studentEventPublisher;
-    private final StudentDataResponseConsumer studentDataResponseConsumer;
-    private final CognitoSyncService cognitoSyncService;
+    private final ScatterGatherAggregator aggregator;
+
+    @Value("${student.listing.max-page-size:500}")
+    private int maxPageSize;
 
     public StudentDTO getStudentById(UUID id) {
         return factoryDTO.makeDTO(studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student with id: " + id + " does not exist")));
     }
 
-    public List<StudentDTO> findAllStudents() {
-        // First sync users from Cognito to ensure we have the latest data
-        try {
-            cognitoSyncService.syncAllCognitoUsers();
-        } catch (Exception e) {
-            // Log the error but continue with existing data
-            System.err.println("Warning: Failed to sync users from Cognito: " + e.getMessage());
-        }
-        
-        // Query users with STUDENT role instead of students table
-        List<User> studentUsers = userRepository.findByRole(com.example.kafka.coursera.db.enums.RoleEnum.STUDENT);
+    /**
+     * One page of students read from local data, enriched with a single batched request per page.
+     * The future completes as soon as the reply arrives, or with the plain profiles once the
+     * student management service misses its deadline.
+     */
+    public CompletableFuture<List<StudentDTO>> findAllStudents(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return enrich(findStudentUsers(page, pageSize).getContent());
+    }
+
+    /**
+     * Every student, read page by page at the maximum page size. Each page is enriched with its
+     * own batched request and all of them are sent before waiting, so the listing takes about as
+     * long as the slowest page.
+     */
+    public CompletableFuture<List<StudentDTO>> findAllStudents() {
+        List<CompletableFuture<List<StudentDTO>>> pages = new ArrayList<>();
+        Page<User> studentUsers;
+        int page = 0;
+        do {
+            studentUsers = findStudentUsers(page++, Math.max(1, maxPageSize));
+            pages.add(enrich(studentUsers.getContent()));
+        } while (studentUsers.hasNext());
+
+        return CompletableFuture.allOf(pages.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<StudentDTO> students = new ArrayList<>();
+                    for (CompletableFuture<List<StudentDTO>> studentPage : pages) {
+                        students.addAll(studentPage.join());
+                    }
+                    return students;
+                });
+    }
+
+    // Users are kept in step with Cognito by CognitoSyncService in the background
+    // Query users with STUDENT role instead of students table
+    private Page<User> findStudentUsers(int page, int size) {
+        return userRepository.findAllByRole(RoleEnum.STUDENT,
+                PageRequest.of(Math.max(page, 0), size, Sort.by("createdAt", "id")));
+    }
+
+    private CompletableFuture<List<StudentDTO>> enrich(List<User> studentUsers) {
         List<StudentDTO> studentDTOs = new ArrayList<>();
         
         for (User user : studentUsers) {
@@ -81,38 +124,41 @@ public class StudentService {
             
             studentDTOs.add(dto);
         }
-        
-        // Extract user IDs for RMQ messaging
+
+        if (studentDTOs.isEmpty()) {
+            return CompletableFuture.completedFuture(studentDTOs);
+        }
+
         List<UUID> studentIds = studentUsers.stream().map(User::getId).collect(Collectors.toList());
-        
-        if (!studentIds.isEmpty()) {
-            // Emit RMQ message to get related data for all students
-            studentEventPublisher.publishStudentDataRequest(studentIds);
-            
-            // Wait for responses from other services (with timeout)
-            try {
-                // Wait up to 3 seconds for responses from other services
-                // This is a simplified approach - in production, you might want to make this async
-                Thread.sleep(3000);
-                
-                // Enhance each student DTO with aggregated data
-                for (StudentDTO studentDTO : studentDTOs) {
-                    Map<String, Object> aggregatedData = studentDataResponseConsumer.getAggregatedStudentData(studentDTO.getId());
-                    if (aggregatedData != null) {
-                        // Add the aggregated data to the DTO
-                        studentDTO.setRelatedData(aggregatedData);
+        // Same page, same batch: concurrent listings share one request
+        UUID batchId = batchId(studentIds);
+        return aggregator.gather(StudentDataResponseConsumer.SCOPE, batchId,
+                        Set.of(ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE),
+                        correlationId -> studentEventPublisher.publishStudentDataBatchRequest(batchId, studentIds, correlationId))
+                .thenApply(responses -> {
+                    for (Map.Entry<String, Object> response : responses.entrySet()) {
+                        Object students = ((Map<?, ?>) response.getValue()).get("students");
+                        if (!(students instanceof Map)) {
+                            continue;
+                        }
+                        for (StudentDTO studentDTO : studentDTOs) {
+                            Object studentData = ((Map<?, ?>) students).get(studentDTO.getId().toString());
+                            if (studentData != null) {
+                                if (studentDTO.getRelatedData() == null) {
+                                    studentDTO.setRelatedData(new HashMap<>());
+                                }
+                                studentDTO.getRelatedData().put(response.getKey(), studentData);
+                            }
+                        }
                     }
-                    // Clean up the aggregated data after use
-                    studentDataResponseConsumer.clearStudentData(studentDTO.getId());
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                // Log the interruption but continue with basic student data
-                System.err.println("Thread interrupted while waiting for student data responses: " + e.getMessage());
-            }
-        }
-        
-        return studentDTOs;
+                    return studentDTOs;
+                });
+    }
+
+    private static UUID batchId(List<UUID> studentIds) {
+        StringBuilder key = new StringBuilder();
+        studentIds.stream().sorted().forEach(id -> key.append(id).append(','));
+        return UUID.nameUUIDFromBytes(key.toString().getBytes(StandardCharsets.UTF_8));
     }
 
     public StudentDTO updateProfile(StudentProfileRequest request, MultipartFile file) throws Exception {
@@ -6,9 +6,10 @@ import com.example.kafka.coursera.db.enums.StatusEnum;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
-    UserDTO findById(UUID id);
+    CompletableFuture<UserDTO> findById(UUID id);
     UserDTO findByEmail(String email);
     List<UserDTO> findByIds(List<UUID> ids);
     List<UserDTO> findAll(int page, int size);
@@ -8,20 +8,25 @@ import com.example.kafka.coursera.db.enums.StatusEnum;
 import com.example.kafka.coursera.db.repositories.UserRepository;
 import com.example.kafka.coursera.services.UserService;
 import com.example.kafka.coursera.events.emitters.UserEventPublisher;
+import com.example.kafka.coursera.events.aggregation.ScatterGatherAggregator;
 import com.example.kafka.coursera.events.consumers.UserDataResponseConsumer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -30,56 +35,50 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserFactoryDTO userFactoryDTO;
     private final UserEventPublisher userEventPublisher;
-    private final UserDataResponseConsumer userDataResponseConsumer;
+    private final ScatterGatherAggregator aggregator;
+
+    @Value("${aggregation.course-chunk-size:200}")
+    private int courseChunkSize;
 
     @Override
-    public UserDTO findById(UUID id) {
+    public CompletableFuture<UserDTO> findById(UUID id) {
         Optional<User> userOptional = userRepository.findById(id);
         if (!userOptional.isPresent()) {
             log.warn("User with id {} not found", id);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         
-        User user = userOptional.get();
-        
-        // Clear any previous aggregated data for this user
-        userDataResponseConsumer.clearAggregatedData(id);
-        
-        // Publish user data request event to gather course and enrollment data
-        userEventPublisher.publishUserDataRequest(id);
-        
-        // Wait for responses from external services (course and student management services)
-        userDataResponseConsumer.waitForResponses(id, 5, 2);
-        var aggregatedData = userDataResponseConsumer.getAggregatedData(id);
-        
-        // Create basic user DTO
-        UserDTO userDTO = userFactoryDTO.makeDTO(user);
-        
-        // Enrich with aggregated data from external services
-        if (aggregatedData != null && !aggregatedData.isEmpty()) {
-            userDTO.setAggregatedData(aggregatedData);
-            
-            var courseServiceData = aggregatedData.get("COURSE_SERVICE");
-            var studentServiceData = aggregatedData.get("STUDENT_MANAGEMENT_SERVICE");
-            
-            if (courseServiceData != null) {
-                userDTO.setCourseData((Map<String, Object>) courseServiceData);
-                log.info("✅ Enriched user {} with course data", id);
-            }
-            
-            if (studentServiceData != null) {
-                userDTO.setEnrollmentData((Map<String, Object>) studentServiceData);
-                log.info("✅ Enriched user {} with enrollment data", id);
-            }
-            
-        } else {
-            log.warn("⚠️ No aggregated data received for user {}", id);
-        }
-        
-        // Clear aggregated data to free memory
-        userDataResponseConsumer.clearAggregatedData(id);
-        
-        return userDTO;
+        // Create basic user DTO on the request thread, where lazy associations can still load
+        UserDTO userDTO = userFactoryDTO.makeDTO(userOptional.get());
+        
+        // Gather course and enrollment data without holding the request thread
+        return aggregator.gather(UserDataResponseConsumer.SCOPE, id,
+                        Set.of(ScatterGatherAggregator.COURSE_SERVICE, ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE),
+                        correlationId -> userEventPublisher.publishUserDataRequest(id, correlationId, courseChunkSize))
+                .thenApply(responses -> {
+                    // Enrich with aggregated data from external services
+                    if (responses.isEmpty()) {
+                        log.warn("⚠️ No aggregated data received for user {}", id);
+                        return userDTO;
+                    }
+                    // The responses are shared by every caller of this request, so enrich a copy
+                    Map<String, Object> aggregatedData = new HashMap<>(responses);
+                    userDTO.setAggregatedData(aggregatedData);
+                    
+                    var courseServiceData = aggregatedData.get(ScatterGatherAggregator.COURSE_SERVICE);
+                    var studentServiceData = aggregatedData.get(ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE);
+                    
+                    if (courseServiceData != null) {
+                        userDTO.setCourseData((Map<String, Object>) courseServiceData);
+                        log.info("✅ Enriched user {} with course data", id);
+                    }
+                    
+                    if (studentServiceData != null) {
+                        userDTO.setEnrollmentData((Map<String, Object>) studentServiceData);
+                        log.info("✅ Enriched user {} with enrollment data", id);
+                    }
+                    return userDTO;
+                });
     }
 
     @Override
@@ -1,23 +1,37 @@
 package com.example.kafka.coursera.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import org.apache.commons.codec.binary.Hex;
 import org.springframework.web.multipart.MultipartFile;
 
 public class HashChecksum {
+    private static final int BUFFER_SIZE = 8192;
 
     public static String calculateFileChecksum(MultipartFile file) throws IOException {
-        MessageDigest digest;
-        try {
-            digest = MessageDigest.getInstance("SHA-256");
-        } catch (Exception e) {
-            throw new RuntimeException("Error on creating hash", e);
+        try (InputStream content = file.getInputStream()) {
+            return calculateChecksum(content);
         }
+    }
 
-        byte[] fileBytes = file.getBytes();
-        byte[] checksumBytes = digest.digest(fileBytes);
+    // Hashes the stream in fixed-size reads, so large uploads never sit in the heap
+    public static String calculateChecksum(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
 
-        return Hex.encodeHexString(checksumBytes);
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error on creating hash", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package com.example.kafka.coursera.events.aggregation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.kafka.coursera.events.aggregation.ScatterGatherAggregator.COURSE_SERVICE;
+import static com.example.kafka.coursera.events.aggregation.ScatterGatherAggregator.STUDENT_MANAGEMENT_SERVICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScatterGatherAggregatorTest {
+
+    private static final String SCOPE = "test";
+    private static final Set<String> SOURCES = Set.of(COURSE_SERVICE, STUDENT_MANAGEMENT_SERVICE);
+
+    private final UUID id = UUID.randomUUID();
+    private final List<String> correlationIds = new ArrayList<>();
+    private ThreadPoolTaskExecutor executor;
+    private ScatterGatherAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        executor = executor(2, 10);
+        aggregator = aggregator(executor, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testGather_CompletesOnThePoolOnceEverySourceAnswered() throws Exception {
+        CompletableFuture<Map<String, Object>> future = gather();
+        CompletableFuture<String> completedOn = future.thenApply(responses -> Thread.currentThread().getName());
+
+        aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "courses"));
+        assertFalse(future.isDone());
+        aggregator.accept(SCOPE, id, reply(STUDENT_MANAGEMENT_SERVICE, "students"));
+
+        Map<String, Object> responses = future.get(1, TimeUnit.SECONDS);
+        assertEquals(SOURCES, responses.keySet());
+        assertTrue(completedOn.get(1, TimeUnit.SECONDS).startsWith("test-aggregation-"));
+    }
+
+    @Test
+    void testGather_ConcurrentCallersShareOneRequest() throws Exception {
+        CompletableFuture<Map<String, Object>> first = gather();
+        CompletableFuture<Map<String, Object>> second = gather();
+
+        assertSame(first, second);
+        assertEquals(1, correlationIds.size());
+    }
+
+    @Test
+    void testGather_SourcePastItsDeadlineIsLeftOut() throws Exception {
+        aggregator = aggregator(executor, 100);
+        CompletableFuture<Map<String, Object>> future = gather();
+
+        aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "courses"));
+
+        Map<String, Object> responses = future.get(2, TimeUnit.SECONDS);
+        assertEquals(Set.of(COURSE_SERVICE), responses.keySet());
+    }
+
+    @Test
+    void testAccept_LateReplyAfterTheDeadlineIsDropped() throws Exception {
+        aggregator = aggregator(executor, 100);
+        CompletableFuture<Map<String, Object>> future = gather();
+        Map<String, Object> responses = future.get(2, TimeUnit.SECONDS);
+        assertTrue(responses.isEmpty());
+
+        aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "courses"));
+
+        assertTrue(future.get().isEmpty());
+        // The next caller starts a fresh request instead of joining the expired one
+        assertNotSame(future, gather());
+        assertEquals(2, correlationIds.size());
+    }
+
+    @Test
+    void testAccept_DuplicateReplyKeepsTheFirst() throws Exception {
+        CompletableFuture<Map<String, Object>> future = gather();
+
+        aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "first"));
+        aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "second"));
+        assertFalse(future.isDone());
+        aggregator.accept(SCOPE, id, reply(STUDENT_MANAGEMENT_SERVICE, "students"));
+
+        Map<?, ?> courseData = (Map<?, ?>) future.get(1, TimeUnit.SECONDS).get(COURSE_SERVICE);
+        assertEquals("first", courseData.get("data"));
+    }
+
+    @Test
+    void testAccept_ReplyForAnEarlierRequestIsDropped() {
+        CompletableFuture<Map<String, Object>> future = gather();
+        Map<String, Object> stale = reply(COURSE_SERVICE, "stale");
+        stale.put("correlationId", "earlier-request");
+
+        aggregator.accept(SCOPE, id, stale);
+        aggregator.accept(SCOPE, id, reply(STUDENT_MANAGEMENT_SERVICE, "students"));
+
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    void testAccept_SaturatedPoolFailsTheRequestInsteadOfRunningOnTheCaller() throws Exception {
+        ThreadPoolTaskExecutor saturated = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturated.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            aggregator = aggregator(saturated, 10_000);
+            CompletableFuture<Map<String, Object>> future = gather();
+
+            aggregator.accept(SCOPE, id, reply(COURSE_SERVICE, "courses"));
+            aggregator.accept(SCOPE, id, reply(STUDENT_MANAGEMENT_SERVICE, "students"));
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private CompletableFuture<Map<String, Object>> gather() {
+        return aggregator.gather(SCOPE, id, SOURCES, correlationIds::add);
+    }
+
+    private Map<String, Object> reply(String source, String data) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("serviceType", source);
+        message.put("correlationId", correlationIds.get(correlationIds.size() - 1));
+        message.put("data", data);
+        return message;
+    }
+
+    private static ScatterGatherAggregator aggregator(ThreadPoolTaskExecutor executor, long deadlineMs) {
+        ScatterGatherAggregator aggregator = new ScatterGatherAggregator(executor);
+        ReflectionTestUtils.setField(aggregator, "courseServiceDeadlineMs", deadlineMs);
+        ReflectionTestUtils.setField(aggregator, "studentManagementServiceDeadlineMs", deadlineMs);
+        ReflectionTestUtils.setField(aggregator, "defaultDeadlineMs", deadlineMs);
+        return aggregator;
+    }
+
+    private static ThreadPoolTaskExecutor executor(int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("test-aggregation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
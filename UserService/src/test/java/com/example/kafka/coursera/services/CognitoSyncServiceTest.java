@@ -0,0 +1,184 @@
+package com.example.kafka.coursera.services;
+
+import com.amazonaws.services.cognitoidp.AbstractAWSCognitoIdentityProvider;
+import com.amazonaws.services.cognitoidp.model.AttributeType;
+import com.amazonaws.services.cognitoidp.model.ListUsersRequest;
+import com.amazonaws.services.cognitoidp.model.ListUsersResult;
+import com.amazonaws.services.cognitoidp.model.UserType;
+import com.example.kafka.coursera.db.entities.SyncCheckpoint;
+import com.example.kafka.coursera.db.entities.User;
+import com.example.kafka.coursera.db.repositories.SyncCheckpointRepository;
+import com.example.kafka.coursera.db.repositories.UserPreferencesRepository;
+import com.example.kafka.coursera.db.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class CognitoSyncServiceTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    private FakeCognito cognito;
+    private UserRepository userRepository;
+    private SyncCheckpointRepository checkpointRepository;
+    private EntityManager entityManager;
+    private CognitoSyncService service;
+    private SyncCheckpoint stored;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cognito = new FakeCognito();
+        userRepository = mock(UserRepository.class);
+        UserPreferencesRepository preferencesRepository = mock(UserPreferencesRepository.class);
+        checkpointRepository = mock(SyncCheckpointRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        entityManager = mock(EntityManager.class);
+
+        when(userRepository.findAllByEmailIn(anyList())).thenReturn(List.of());
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+        when(preferencesRepository.findAllByUserIn(any())).thenReturn(List.of());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(checkpointRepository.findById(CognitoSyncService.CHECKPOINT))
+                .thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(checkpointRepository.save(any(SyncCheckpoint.class))).thenAnswer(invocation -> {
+            SyncCheckpoint checkpoint = invocation.getArgument(0);
+            stored = SyncCheckpoint.builder()
+                    .name(checkpoint.getName())
+                    .lastModifiedAt(checkpoint.getLastModifiedAt())
+                    .syncedAt(checkpoint.getSyncedAt())
+                    .updatedAt(checkpoint.getUpdatedAt())
+                    .build();
+            return checkpoint;
+        });
+
+        service = new CognitoSyncService(cognito, userRepository, preferencesRepository,
+                checkpointRepository, transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "userPoolId", "pool");
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "overlapSeconds", 60L);
+        service.registerMetrics();
+    }
+
+    @Test
+    void testSyncChangedUsers_FollowsPaginationAndAdvancesCheckpoint() {
+        for (int i = 0; i < 130; i++) {
+            cognito.users.add(user("user" + i + "@example.com", BASE.plusSeconds(i)));
+        }
+
+        assertEquals(130, service.syncChangedUsers());
+
+        assertEquals(3, cognito.requests.size());
+        assertNull(cognito.requests.get(0).getPaginationToken());
+        assertEquals("60", cognito.requests.get(1).getPaginationToken());
+        assertEquals("120", cognito.requests.get(2).getPaginationToken());
+        verify(entityManager, times(130)).persist(argThat(entity -> entity instanceof User));
+        assertEquals(BASE.plusSeconds(129), stored.getLastModifiedAt());
+    }
+
+    @Test
+    void testSyncChangedUsers_SkippedUsersStayAfterCheckpoint() {
+        cognito.users.add(user("first@example.com", BASE.plusSeconds(10)));
+        cognito.users.add(user(null, BASE.plusSeconds(20)));
+        cognito.users.add(user("broken@example.com", BASE.plusSeconds(30)));
+        cognito.users.add(user("last@example.com", BASE.plusSeconds(40)));
+        doThrow(new IllegalStateException("constraint violation")).when(entityManager)
+                .persist(argThat(entity -> entity instanceof User
+                        && "broken@example.com".equals(((User) entity).getEmail())));
+
+        assertEquals(2, service.syncChangedUsers());
+
+        assertEquals(BASE.plusSeconds(20).minusMillis(1), stored.getLastModifiedAt());
+    }
+
+    @Test
+    void testSyncChangedUsers_RetriesSkippedUserOnNextRun() {
+        cognito.users.add(user("first@example.com", BASE.plusSeconds(10)));
+        cognito.users.add(user("broken@example.com", BASE.plusSeconds(600)));
+        cognito.users.add(user("last@example.com", BASE.plusSeconds(900)));
+        doThrow(new IllegalStateException("constraint violation")).doNothing().when(entityManager)
+                .persist(argThat(entity -> entity instanceof User
+                        && "broken@example.com".equals(((User) entity).getEmail())));
+
+        assertEquals(2, service.syncChangedUsers());
+        assertEquals(BASE.plusSeconds(600).minusMillis(1), stored.getLastModifiedAt());
+
+        // The first user is older than the overlap window and is not written again
+        assertEquals(2, service.syncChangedUsers());
+        assertEquals(BASE.plusSeconds(900), stored.getLastModifiedAt());
+        assertEquals(List.of("broken@example.com", "last@example.com"), lastLookup());
+    }
+
+    @Test
+    void testSyncChangedUsers_ResumesFromStoredCheckpoint() {
+        stored = SyncCheckpoint.builder()
+                .name(CognitoSyncService.CHECKPOINT)
+                .lastModifiedAt(BASE.plusSeconds(1000))
+                .build();
+        cognito.users.add(user("old@example.com", BASE.plusSeconds(100)));
+        cognito.users.add(user("overlap@example.com", BASE.plusSeconds(970)));
+        cognito.users.add(user("new@example.com", BASE.plusSeconds(1200)));
+
+        assertEquals(2, service.syncChangedUsers());
+
+        assertEquals(List.of("overlap@example.com", "new@example.com"), lastLookup());
+        assertEquals(BASE.plusSeconds(1200), stored.getLastModifiedAt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> lastLookup() {
+        ArgumentCaptor<List<String>> emails = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, atLeastOnce()).findAllByEmailIn(emails.capture());
+        return emails.getValue();
+    }
+
+    private static UserType user(String email, Instant modifiedAt) {
+        List<AttributeType> attributes = new ArrayList<>();
+        attributes.add(new AttributeType().withName("sub").withValue(UUID.randomUUID().toString()));
+        if (email != null) {
+            attributes.add(new AttributeType().withName("email").withValue(email));
+        }
+        return new UserType()
+                .withUsername(email != null ? email : "no-email")
+                .withUserStatus("CONFIRMED")
+                .withUserCreateDate(Date.from(modifiedAt))
+                .withUserLastModifiedDate(Date.from(modifiedAt))
+                .withAttributes(attributes);
+    }
+
+    // Serves the pool in pages of the requested size, with the next offset as the pagination token
+    private static class FakeCognito extends AbstractAWSCognitoIdentityProvider {
+        private final List<UserType> users = new ArrayList<>();
+        private final List<ListUsersRequest> requests = new ArrayList<>();
+
+        @Override
+        public ListUsersResult listUsers(ListUsersRequest request) {
+            requests.add(request);
+            int from = request.getPaginationToken() != null ? Integer.parseInt(request.getPaginationToken()) : 0;
+            int to = Math.min(users.size(), from + request.getLimit());
+            return new ListUsersResult()
+                    .withUsers(new ArrayList<>(users.subList(from, to)))
+                    .withPaginationToken(to < users.size() ? String.valueOf(to) : null);
+        }
+    }
+}
@@ -172,4 +172,74 @@ export class EnrollmentService {
       };
     }
   }
-}
\ No newline at end of file
+
+  // Same figures as getUserEnrollmentStats for a whole batch of users, in a single query
+  async getEnrollmentStatsByUserIds(userIds: string[]) {
+    const statsByUser: Record<string, {
+      total: number;
+      active: number;
+      completed: number;
+      dropped: number;
+      onHold: number;
+      certificates: number;
+      averageProgress: number;
+      courseIds: string[];
+      lastAccessedAt: Date | null;
+    }> = {};
+    userIds.forEach(userId => {
+      statsByUser[userId] = {
+        total: 0,
+        active: 0,
+        completed: 0,
+        dropped: 0,
+        onHold: 0,
+        certificates: 0,
+        averageProgress: 0,
+        courseIds: [],
+        lastAccessedAt: null
+      };
+    });
+
+    try {
+      const enrollments = await prisma.enrollment.findMany({
+        where: { userId: { in: userIds } },
+        select: {
+          userId: true,
+          courseId: true,
+          status: true,
+          progress: true,
+          lastAccessedAt: true,
+          certificate: {
+            select: {
+              id: true
+            }
+          }
+        }
+      });
+
+      const progressSums: Record<string, number> = {};
+      enrollments.forEach(enrollment => {
+        const stats = enrollment.userId ? statsByUser[enrollment.userId] : undefined;
+        if (!stats) return;
+        stats.total++;
+        if (enrollment.status === 'ACTIVE') stats.active++;
+        if (enrollment.status === 'COMPLETED') stats.completed++;
+        if (enrollment.status === 'DROPPED') stats.dropped++;
+        if (enrollment.status === 'ON_HOLD') stats.onHold++;
+        if (enrollment.certificate) stats.certificates++;
+        stats.courseIds.push(enrollment.courseId);
+        if (!stats.lastAccessedAt || enrollment.lastAccessedAt > stats.lastAccessedAt) {
+          stats.lastAccessedAt = enrollment.lastAccessedAt;
+        }
+        progressSums[enrollment.userId!] = (progressSums[enrollment.userId!] || 0) + (enrollment.progress || 0);
+      });
+
+      Object.keys(progressSums).forEach(userId => {
+        statsByUser[userId].averageProgress = progressSums[userId] / statsByUser[userId].total;
+      });
+    } catch (error) {
+      console.error('Error getting enrollment stats for users:', error);
+    }
+    return statsByUser;
+  }
+}
@@ -7,6 +7,7 @@ import { CourseProgressService } from '../../courseProgressService';
 interface SchoolDataRequestMessage {
   schoolId: string;
   eventType: string;
+  correlationId?: string;
 }
 
 export class SchoolDataRequestConsumer {
@@ -60,7 +61,8 @@ export class SchoolDataRequestConsumer {
   private async handleSchoolDataRequest(channel: Channel, message: Message) {
     try {
       const messageContent = JSON.parse(message.content.toString()) as SchoolDataRequestMessage;
-      const { schoolId, eventType } = messageContent;
+      // Echoed back so UserService can match the reply to its request
+      const { schoolId, eventType, correlationId } = messageContent;
 
       console.log(`🎯 Processing school data request for schoolId: ${schoolId} with eventType: ${eventType}`);
 
@@ -72,6 +74,7 @@ export class SchoolDataRequestConsumer {
         const responseData = {
           schoolId,
           serviceType: 'STUDENT_MANAGEMENT_SERVICE',
+          correlationId,
           // Statistics (keeping for backward compatibility)
           totalEnrollments: schoolStudentData.totalEnrollments,
           totalStudents: schoolStudentData.totalStudents,
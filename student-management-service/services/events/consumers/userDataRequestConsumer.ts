@@ -66,7 +66,8 @@ export class UserDataRequestConsumer {
   private async handleUserDataRequest(channel: Channel, message: Message) {
     try {
       const messageContent = JSON.parse(message.content.toString()) as UserDataRequestMessage;
-      const { userId, eventType } = messageContent;
+      // Echoed back so UserService can match the reply to its request
+      const { userId, eventType, correlationId } = messageContent;
 
       console.log(`🎯 Processing user data request for userId: ${userId} with eventType: ${eventType}`);
 
@@ -81,7 +82,8 @@ export class UserDataRequestConsumer {
             serviceType: 'STUDENT_MANAGEMENT_SERVICE',
             error: 'No enrollment data found for user',
             errorCode: 'NO_ENROLLMENTS',
-            timestamp: new Date().toISOString()
+            timestamp: new Date().toISOString(),
+            correlationId
           };
 
           await channel.publish(
@@ -101,6 +103,7 @@ export class UserDataRequestConsumer {
           serviceType: 'STUDENT_MANAGEMENT_SERVICE',
           timestamp: new Date().toISOString(),
           requestId: messageContent.requestId,
+          correlationId,
           learningStats: userData.learningStats,
           achievements: userData.achievements,
           enrollments: userData.enrollments,
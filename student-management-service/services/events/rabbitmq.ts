@@ -5,6 +5,7 @@ import { setupSchoolDeletionConsumer } from './consumers/schoolDeletionConsumer'
 import { setupEnrollmentEventPublisher } from './publishers/enrollmentEventPublisher';
 import { SchoolDataRequestConsumer } from './consumers/schoolDataRequestConsumer';
 import { UserDataRequestConsumer } from './consumers/userDataRequestConsumer';
+import { StudentDataRequestConsumer } from './consumers/studentDataRequestConsumer';
 import { UserDataResponseConsumer } from './consumers/userDataResponseConsumer';
 import { StudyStatisticsRequestConsumer } from './consumers/studyStatisticsRequestConsumer';
 
@@ -43,6 +44,12 @@ export class RabbitMQConnection {
             await userDataConsumer.setupConsumer();
             console.log('✅ UserDataRequestConsumer initialized successfully');
 
+            // Setup student data request consumer
+            console.log('🚀 Initializing StudentDataRequestConsumer...');
+            const studentDataConsumer = new StudentDataRequestConsumer();
+            await studentDataConsumer.setupConsumer();
+            console.log('✅ StudentDataRequestConsumer initialized successfully');
+
             // Setup user data response consumer
             console.log('🚀 Initializing UserDataResponseConsumer...');
             const userDataResponseConsumer = new UserDataResponseConsumer();
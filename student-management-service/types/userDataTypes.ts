@@ -4,6 +4,7 @@ export interface UserDataRequestMessage {
   userId: string;
   eventType: 'USER_DATA_REQUEST';
   requestId?: string;
+  correlationId?: string;
   timestamp?: string;
 }
 
@@ -111,6 +112,7 @@ export interface UserDataResponse {
   serviceType: 'STUDENT_MANAGEMENT_SERVICE';
   timestamp: string;
   requestId?: string;
+  correlationId?: string;
   learningStats: UserLearningStats;
   achievements: UserAchievements;
   enrollments: UserEnrollmentData[];
@@ -133,4 +135,34 @@ export interface UserDataError {
   error: string;
   errorCode: 'USER_NOT_FOUND' | 'NO_ENROLLMENTS' | 'SERVICE_ERROR';
   timestamp: string;
-}
\ No newline at end of file
+  correlationId?: string;
+}
+
+// Student Data Batch Types
+
+export interface StudentDataBatchRequestMessage {
+  batchId: string;
+  studentIds: string[];
+  eventType: 'STUDENT_DATA_BATCH_REQUEST';
+  correlationId?: string;
+}
+
+export interface StudentDataSummary {
+  totalEnrollments: number;
+  activeEnrollments: number;
+  completedEnrollments: number;
+  droppedEnrollments: number;
+  onHoldEnrollments: number;
+  totalCertificates: number;
+  averageProgress: number;
+  courseIds: string[];
+  lastActivityDate: Date | null;
+}
+
+export interface StudentDataBatchResponse {
+  batchId: string;
+  serviceType: 'STUDENT_MANAGEMENT_SERVICE';
+  timestamp: string;
+  correlationId?: string;
+  students: Record<string, StudentDataSummary>;
+}
@@ -169,7 +169,7 @@ const CourseSyllabus = () => {
                               {quiz.title}
                             </span>
                             <Badge className="bg-gradient-to-r from-purple-500 to-purple-600 text-white border-0">
-                              {t('course.syllabus.questions', { count: quiz.questions?.length || 0 })}
+                              {t('course.syllabus.questions', { count: quiz.questions?.length ?? quiz.questionCount ?? 0 })}
                             </Badge>
                           </div>
                         ))}